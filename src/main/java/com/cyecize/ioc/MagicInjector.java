@@ -2,21 +2,22 @@ package com.cyecize.ioc;
 
 import com.cyecize.ioc.annotations.StartUp;
 import com.cyecize.ioc.config.MagicConfiguration;
-import com.cyecize.ioc.enums.DirectoryType;
-import com.cyecize.ioc.models.Directory;
 import com.cyecize.ioc.models.ServiceDetails;
-import com.cyecize.ioc.services.ClassLocator;
-import com.cyecize.ioc.services.ClassLocatorForDirectory;
-import com.cyecize.ioc.services.ClassLocatorForJarFile;
+import com.cyecize.ioc.services.ClassLocationService;
+import com.cyecize.ioc.services.ClassLocationServiceImpl;
 import com.cyecize.ioc.services.DependencyContainer;
 import com.cyecize.ioc.services.DependencyContainerCached;
+import com.cyecize.ioc.services.DependencyContainerIncremental;
 import com.cyecize.ioc.services.DependencyResolveServiceImpl;
-import com.cyecize.ioc.services.DirectoryResolver;
 import com.cyecize.ioc.services.DirectoryResolverImpl;
+import com.cyecize.ioc.services.IncrementalRescanService;
+import com.cyecize.ioc.services.IncrementalRescanServiceImpl;
 import com.cyecize.ioc.services.ServicesInstantiationService;
 import com.cyecize.ioc.services.ServicesInstantiationServiceImpl;
 import com.cyecize.ioc.services.ServicesScanningService;
 import com.cyecize.ioc.services.ServicesScanningServiceImpl;
+import com.cyecize.ioc.utils.ClassIntrospectionUtils;
+import com.cyecize.ioc.utils.ClassPathUtils;
 
 import java.io.File;
 import java.lang.reflect.InvocationTargetException;
@@ -59,20 +60,88 @@ public class MagicInjector {
         return dependencyContainer;
     }
 
+    /**
+     * Runs with a class path string, eg. the value of the 'java.class.path' system property.
+     * <p>
+     * Entries are scanned in the given order, missing entries are skipped and 'dir/*' entries
+     * are expanded to the jar files in that directory.
+     *
+     * @param classPath     entries separated by the platform path separator.
+     * @param configuration client configuration.
+     */
+    public static DependencyContainer run(String classPath, MagicConfiguration configuration) {
+        return run(ClassPathUtils.parseClassPath(classPath), configuration);
+    }
+
     public static DependencyContainer run(File[] startupDirectories, MagicConfiguration configuration) {
+        final ClassLocationService classLocationService = new ClassLocationServiceImpl(configuration.scanning());
         final ServicesScanningService scanningService = new ServicesScanningServiceImpl(configuration.scanning());
         final ServicesInstantiationService instantiationService = new ServicesInstantiationServiceImpl(
-                new DependencyResolveServiceImpl(configuration.instantiations())
+                new DependencyResolveServiceImpl(configuration.instantiations()),
+                configuration.instantiations().getExecutor()
         );
 
         final Set<Class<?>> locatedClasses = new HashSet<>();
         final List<ServiceDetails> serviceDetails = new ArrayList<>();
         final Runnable runnable = () -> {
-            locatedClasses.addAll(locateClasses(startupDirectories));
+            locatedClasses.addAll(classLocationService.locateClasses(startupDirectories));
             final Set<ServiceDetails> mappedServices = new HashSet<>(scanningService.mapServices(locatedClasses));
             serviceDetails.addAll(new ArrayList<>(instantiationService.instantiateServicesAndBeans(mappedServices)));
         };
 
+        execute(runnable, configuration);
+
+        return new DependencyContainerCached(locatedClasses, serviceDetails);
+    }
+
+    /**
+     * Runs with startup class and keeps watching the directory of the startup class.
+     * <p>
+     * The startup method is called on the reloadable version of the startup class.
+     *
+     * @param startupClass  any class from the client side.
+     * @param configuration client configuration.
+     */
+    public static DependencyContainerIncremental runIncremental(Class<?> startupClass, MagicConfiguration configuration) {
+        final DependencyContainerIncremental dependencyContainer = runIncremental(new File[]{
+                new File(new DirectoryResolverImpl().resolveDirectory(startupClass).getDirectory()),
+        }, configuration);
+
+        final ServiceDetails serviceDetails = dependencyContainer.getAllServices().stream()
+                .filter(sd -> sd.getServiceType().getName().equals(startupClass.getName()))
+                .findFirst().orElse(null);
+
+        runStartUpMethod(serviceDetails, dependencyContainer);
+
+        return dependencyContainer;
+    }
+
+    /**
+     * Runs with class directories that are watched for changes.
+     * Changed classes are reloaded and only the services that are affected by them are created again,
+     * either with {@link DependencyContainerIncremental#rescan()} or in the background
+     * with {@link DependencyContainerIncremental#watch(long)}.
+     *
+     * @param startupDirectories directories with compiled classes, jar files are not supported.
+     * @param configuration      client configuration.
+     */
+    public static DependencyContainerIncremental runIncremental(File[] startupDirectories,
+                                                                MagicConfiguration configuration) {
+        final IncrementalRescanService rescanService = new IncrementalRescanServiceImpl(
+                startupDirectories, configuration
+        );
+
+        try {
+            execute(rescanService::initialize, configuration);
+        } catch (RuntimeException e) {
+            rescanService.close();
+            throw e;
+        }
+
+        return new DependencyContainerIncremental(rescanService);
+    }
+
+    private static void execute(Runnable runnable, MagicConfiguration configuration) {
         if (configuration.general().isRunInNewThread()) {
             final Thread runner = new Thread(runnable);
 
@@ -92,26 +161,6 @@ public class MagicInjector {
                 Thread.currentThread().setContextClassLoader(oldCl);
             }
         }
-
-        return new DependencyContainerCached(locatedClasses, serviceDetails);
-    }
-
-    private static Set<Class<?>> locateClasses(File[] startupDirectories) {
-        final Set<Class<?>> locatedClasses = new HashSet<>();
-        final DirectoryResolver directoryResolver = new DirectoryResolverImpl();
-
-        for (File startupDirectory : startupDirectories) {
-            final Directory directory = directoryResolver.resolveDirectory(startupDirectory);
-
-            ClassLocator classLocator = new ClassLocatorForDirectory();
-            if (directory.getDirectoryType() == DirectoryType.JAR_FILE) {
-                classLocator = new ClassLocatorForJarFile();
-            }
-
-            locatedClasses.addAll(classLocator.locateClasses(directory.getDirectory()));
-        }
-
-        return locatedClasses;
     }
 
     /**
@@ -125,16 +174,19 @@ public class MagicInjector {
      * @param startupClass any class from the client side.
      */
     private static void runStartUpMethod(Class<?> startupClass, DependencyContainer dependencyContainer) {
-        final ServiceDetails serviceDetails = dependencyContainer.getServiceDetails(startupClass, null);
+        runStartUpMethod(dependencyContainer.getServiceDetails(startupClass, null), dependencyContainer);
+    }
 
+    private static void runStartUpMethod(ServiceDetails serviceDetails, DependencyContainer dependencyContainer) {
         if (serviceDetails == null) {
             return;
         }
 
-        for (Method declaredMethod : serviceDetails.getServiceType().getDeclaredMethods()) {
-            if ((declaredMethod.getReturnType() != void.class &&
-                    declaredMethod.getReturnType() != Void.class)
-                    || !declaredMethod.isAnnotationPresent(StartUp.class)) {
+        final List<Method> startUpMethods = ClassIntrospectionUtils.getIntrospection(serviceDetails.getServiceType())
+                .getMethodsByAnnotation(StartUp.class);
+
+        for (Method declaredMethod : startUpMethods) {
+            if (declaredMethod.getReturnType() != void.class && declaredMethod.getReturnType() != Void.class) {
                 continue;
             }
 
@@ -0,0 +1,21 @@
+package com.cyecize.ioc.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Defers the creation of a singleton service until it is first requested.
+ * <p>
+ * The service is created on the first {@link com.cyecize.ioc.services.DependencyContainer#getService(Class)},
+ * on the first access of a {@link com.cyecize.ioc.models.Provider} or {@link com.cyecize.ioc.models.Lazy}
+ * pointing to it or when a service that depends on it directly is created.
+ * Its beans are created along with it.
+ * Prototype and pooled services have no single instance to defer, annotating them fails the scan.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LazyInit {
+
+}
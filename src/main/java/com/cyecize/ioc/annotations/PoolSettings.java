@@ -0,0 +1,27 @@
+package com.cyecize.ioc.annotations;
+
+import com.cyecize.ioc.models.ServicePool;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Settings for the pool of a service or bean with {@link com.cyecize.ioc.enums.ScopeType#POOLED} scope.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PoolSettings {
+
+    /**
+     * Maximum number of instances that can be borrowed at the same time, also the maximum number of idle instances.
+     */
+    int maxSize() default ServicePool.DEFAULT_MAX_SIZE;
+
+    /**
+     * Idle instances that were not borrowed for this long are destroyed, zero or less keeps them forever.
+     * They are evicted when the pool is used, not on a schedule.
+     */
+    long maxIdleMillis() default ServicePool.DEFAULT_MAX_IDLE_MILLIS;
+}
@@ -0,0 +1,17 @@
+package com.cyecize.ioc.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Used to map a method within a pooled service that checks if an idle instance can still be used.
+ * <p>
+ * It should be placed on boolean methods with zero params, instances for which it returns false are destroyed.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface PoolValidate {
+
+}
@@ -9,12 +9,20 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 public class InstantiationConfiguration extends BaseSubConfiguration {
     private final Collection<ServiceDetails> providedServices;
 
     private final Set<DependencyResolver> dependencyResolvers;
 
+    /**
+     * When set, services that do not depend on each other are instantiated concurrently on this executor,
+     * along with their beans and proxies. A service is started as soon as all of its dependencies are ready.
+     * The executor is not shut down by the library.
+     */
+    private Executor executor;
+
     public InstantiationConfiguration(MagicConfiguration parentConfig) {
         super(parentConfig);
         this.providedServices = new ArrayList<>();
@@ -31,6 +39,11 @@ public class InstantiationConfiguration extends BaseSubConfiguration {
         return this;
     }
 
+    public InstantiationConfiguration setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
     public Collection<ServiceDetails> getProvidedServices() {
         return this.providedServices;
     }
@@ -38,4 +51,8 @@ public class InstantiationConfiguration extends BaseSubConfiguration {
     public Set<DependencyResolver> getDependencyResolvers() {
         return this.dependencyResolvers;
     }
+
+    public Executor getExecutor() {
+        return this.executor;
+    }
 }
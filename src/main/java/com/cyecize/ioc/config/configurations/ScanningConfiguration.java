@@ -2,8 +2,12 @@ package com.cyecize.ioc.config.configurations;
 
 import com.cyecize.ioc.config.BaseSubConfiguration;
 import com.cyecize.ioc.config.MagicConfiguration;
+import com.cyecize.ioc.events.DuplicateClassLocated;
+import com.cyecize.ioc.events.ScanCacheSaveFailed;
 import com.cyecize.ioc.events.ServiceDetailsCreated;
+import com.cyecize.ioc.events.ServicesReloaded;
 
+import java.io.File;
 import java.lang.annotation.Annotation;
 import java.util.Collection;
 import java.util.HashMap;
@@ -21,15 +25,80 @@ public class ScanningConfiguration extends BaseSubConfiguration {
 
     private final Set<ServiceDetailsCreated> serviceDetailsCreatedCallbacks;
 
+    /**
+     * Notified when the same class name is located in more than one scanned root.
+     */
+    private final Set<DuplicateClassLocated> duplicateClassLocatedCallbacks;
+
+    /**
+     * Notified when services are replaced after class files in watched directories changed.
+     */
+    private final Set<ServicesReloaded> servicesReloadedCallbacks;
+
+    /**
+     * Notified when the scan cache file could not be written.
+     */
+    private final Set<ScanCacheSaveFailed> scanCacheSaveFailedCallbacks;
+
     private ClassLoader classLoader;
 
+    /**
+     * When enabled, class files are read before loading and only classes annotated with a service
+     * annotation are loaded.
+     * Classes that are not loaded will not be present in the located classes.
+     */
+    private boolean preFilterClassFiles;
+
+    /**
+     * Number of threads used to walk directories, load classes and map services.
+     * Values greater than one require a parallel capable class loader, otherwise scanning stays sequential.
+     * Services are mapped in parallel only if there are many of them, callbacks are still called by one thread.
+     */
+    private int parallelism;
+
+    /**
+     * When enabled, jars packed inside the scanned jar file (fat jars) are scanned as well.
+     */
+    private boolean scanNestedJars;
+
+    /**
+     * When enabled, directories and jar files that contain a service index are not scanned,
+     * instead only the indexed classes are loaded. An index that was not generated with all custom
+     * service and bean annotations is ignored and the directory or jar file is scanned.
+     */
+    private boolean useServiceIndex;
+
+    /**
+     * File in which class names and class file metadata are cached between runs.
+     * Unchanged jar files and class files are not read again. Disabled if null.
+     */
+    private File scanCacheFile;
+
+    /**
+     * Packages (including their sub packages) to which scanning is limited. Everything is scanned if empty.
+     */
+    private final Set<String> includedPackages;
+
+    /**
+     * Packages (including their sub packages) that are not scanned.
+     * Directories and jar entries of excluded packages are skipped without being read.
+     */
+    private final Set<String> excludedPackages;
+
     public ScanningConfiguration(MagicConfiguration parentConfig) {
         super(parentConfig);
         this.customServiceAnnotations = new HashSet<>();
         this.customBeanAnnotations = new HashSet<>();
         this.additionalClasses = new HashMap<>();
         this.serviceDetailsCreatedCallbacks = new HashSet<>();
+        this.duplicateClassLocatedCallbacks = new HashSet<>();
+        this.servicesReloadedCallbacks = new HashSet<>();
+        this.scanCacheSaveFailedCallbacks = new HashSet<>();
         this.classLoader = Thread.currentThread().getContextClassLoader();
+        this.parallelism = 1;
+        this.useServiceIndex = true;
+        this.includedPackages = new HashSet<>();
+        this.excludedPackages = new HashSet<>();
     }
 
     public ScanningConfiguration addCustomServiceAnnotation(Class<? extends Annotation> annotation) {
@@ -62,11 +131,75 @@ public class ScanningConfiguration extends BaseSubConfiguration {
         return this;
     }
 
+    public ScanningConfiguration addIncludedPackage(String packageName) {
+        this.includedPackages.add(packageName);
+        return this;
+    }
+
+    public ScanningConfiguration addIncludedPackages(Collection<String> packageNames) {
+        this.includedPackages.addAll(packageNames);
+        return this;
+    }
+
+    public ScanningConfiguration addExcludedPackage(String packageName) {
+        this.excludedPackages.add(packageName);
+        return this;
+    }
+
+    public ScanningConfiguration addExcludedPackages(Collection<String> packageNames) {
+        this.excludedPackages.addAll(packageNames);
+        return this;
+    }
+
+    public ScanningConfiguration addDuplicateClassLocatedCallback(DuplicateClassLocated duplicateClassLocated) {
+        this.duplicateClassLocatedCallbacks.add(duplicateClassLocated);
+        return this;
+    }
+
+    public ScanningConfiguration addServicesReloadedCallback(ServicesReloaded servicesReloaded) {
+        this.servicesReloadedCallbacks.add(servicesReloaded);
+        return this;
+    }
+
+    public ScanningConfiguration addScanCacheSaveFailedCallback(ScanCacheSaveFailed scanCacheSaveFailed) {
+        this.scanCacheSaveFailedCallbacks.add(scanCacheSaveFailed);
+        return this;
+    }
+
     public ScanningConfiguration setClassLoader(ClassLoader classLoader) {
         this.classLoader = classLoader;
         return this;
     }
 
+    public ScanningConfiguration setPreFilterClassFiles(boolean preFilterClassFiles) {
+        this.preFilterClassFiles = preFilterClassFiles;
+        return this;
+    }
+
+    public ScanningConfiguration setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public ScanningConfiguration setScanNestedJars(boolean scanNestedJars) {
+        this.scanNestedJars = scanNestedJars;
+        return this;
+    }
+
+    public ScanningConfiguration setUseServiceIndex(boolean useServiceIndex) {
+        this.useServiceIndex = useServiceIndex;
+        return this;
+    }
+
+    public ScanningConfiguration setScanCacheFile(File scanCacheFile) {
+        this.scanCacheFile = scanCacheFile;
+        return this;
+    }
+
     public Set<Class<? extends Annotation>> getCustomBeanAnnotations() {
         return this.customBeanAnnotations;
     }
@@ -83,7 +216,47 @@ public class ScanningConfiguration extends BaseSubConfiguration {
         return this.serviceDetailsCreatedCallbacks;
     }
 
+    public Set<DuplicateClassLocated> getDuplicateClassLocatedCallbacks() {
+        return this.duplicateClassLocatedCallbacks;
+    }
+
+    public Set<ServicesReloaded> getServicesReloadedCallbacks() {
+        return this.servicesReloadedCallbacks;
+    }
+
+    public Set<ScanCacheSaveFailed> getScanCacheSaveFailedCallbacks() {
+        return this.scanCacheSaveFailedCallbacks;
+    }
+
     public ClassLoader getClassLoader() {
         return this.classLoader;
     }
+
+    public boolean isPreFilterClassFiles() {
+        return this.preFilterClassFiles;
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    public boolean isScanNestedJars() {
+        return this.scanNestedJars;
+    }
+
+    public boolean isUseServiceIndex() {
+        return this.useServiceIndex;
+    }
+
+    public File getScanCacheFile() {
+        return this.scanCacheFile;
+    }
+
+    public Set<String> getIncludedPackages() {
+        return this.includedPackages;
+    }
+
+    public Set<String> getExcludedPackages() {
+        return this.excludedPackages;
+    }
 }
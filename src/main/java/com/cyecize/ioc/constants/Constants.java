@@ -2,4 +2,9 @@ package com.cyecize.ioc.constants;
 
 public class Constants {
     public static final String JAVA_BINARY_EXTENSION = ".class";
+
+    /**
+     * Location of the index generated by {@link com.cyecize.ioc.processor.ServiceIndexProcessor}.
+     */
+    public static final String SERVICE_INDEX_LOCATION = "META-INF/magic-ioc/services.index";
 }
@@ -0,0 +1,25 @@
+package com.cyecize.ioc.enums;
+
+/**
+ * Defines how long the result of a {@link com.cyecize.ioc.handlers.DependencyResolver} is reused.
+ * Results are only reused while resolving the services of one startup or one incremental rescan.
+ */
+public enum ResolverCachePolicy {
+    /**
+     * The resolver is called for every dependency parameter.
+     */
+    PER_CALL,
+
+    /**
+     * The result is reused for dependency parameters with the same type, including type arguments,
+     * qualifier and annotations.
+     */
+    PER_PARAM,
+
+    /**
+     * The result is reused for every dependency parameter with the same type.
+     */
+    SINGLETON_PER_TYPE;
+
+    public static final ResolverCachePolicy DEFAULT_POLICY = PER_CALL;
+}
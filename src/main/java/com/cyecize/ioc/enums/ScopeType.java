@@ -11,9 +11,22 @@ public enum ScopeType {
      */
     PROTOTYPE,
 
+    /**
+     * Instances are borrowed from a bounded pool and released back to it, for instances that are expensive
+     * to create but are not thread safe.
+     * The pool is injected with {@link com.cyecize.ioc.models.ServicePool}.
+     * Injecting the service itself or getting it from the container works like {@link #PROTOTYPE},
+     * the instance is not borrowed from the pool and never returns to it.
+     */
+    POOLED,
+
     /**
      * A proxy instance will be created, allowing the user to swap instances for dependencies at runtime
      * without having to reload them.
+     * <p>
+     * The proxy is created without running the constructor of the service when the JVM supports it,
+     * so its own fields are never set. Calls that the proxy cannot intercept, final methods and package-private
+     * methods called from another package, run on the proxy itself and see those unset fields.
      */
     PROXY;
 
@@ -0,0 +1,43 @@
+package com.cyecize.ioc.enums;
+
+/**
+ * Reason for which a class was recorded in the service index.
+ */
+public enum ServiceIndexEntryType {
+    /**
+     * Class annotated with a service annotation.
+     */
+    SERVICE,
+
+    /**
+     * Class that declares bean methods.
+     */
+    BEAN_HOLDER,
+
+    /**
+     * Implementation of ServiceMethodAspectHandler.
+     */
+    ASPECT_HANDLER,
+
+    /**
+     * Annotation annotated with AliasFor.
+     */
+    ALIAS,
+
+    /**
+     * Custom service annotation with which the index was generated, the entry is the annotation and not a class to load.
+     */
+    SERVICE_ANNOTATION,
+
+    /**
+     * Custom bean annotation with which the index was generated, the entry is the annotation and not a class to load.
+     */
+    BEAN_ANNOTATION;
+
+    /**
+     * @return true if the entry is an annotation with which the index was generated.
+     */
+    public boolean isAnnotation() {
+        return this == SERVICE_ANNOTATION || this == BEAN_ANNOTATION;
+    }
+}
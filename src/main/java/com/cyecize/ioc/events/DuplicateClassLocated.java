@@ -0,0 +1,15 @@
+package com.cyecize.ioc.events;
+
+/**
+ * Called when a class name is found in more than one scanned directory or jar file, the duplicate is only reported.
+ * The class itself is loaded by name, so the class loader decides which of the roots it is defined from.
+ */
+@FunctionalInterface
+public interface DuplicateClassLocated {
+
+    /**
+     * @param firstRoot     - first root, in the order in which the roots were given, that contains the class.
+     * @param duplicateRoot - another root that contains the same class name.
+     */
+    void duplicateClassLocated(String className, String firstRoot, String duplicateRoot);
+}
@@ -0,0 +1,14 @@
+package com.cyecize.ioc.events;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Called when the scan cache could not be written, the scan itself is still valid
+ * but the next run will not benefit from the cache.
+ */
+@FunctionalInterface
+public interface ScanCacheSaveFailed {
+
+    void scanCacheSaveFailed(File scanCacheFile, IOException exception);
+}
@@ -0,0 +1,13 @@
+package com.cyecize.ioc.events;
+
+import com.cyecize.ioc.models.ServiceDetails;
+
+import java.util.Collection;
+
+/**
+ * Called after changed class files were reloaded, with the services and beans that replaced the previous ones.
+ */
+@FunctionalInterface
+public interface ServicesReloaded {
+    void servicesReloaded(Collection<ServiceDetails> reloadedServices);
+}
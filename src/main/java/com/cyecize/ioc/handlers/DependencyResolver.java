@@ -1,10 +1,26 @@
 package com.cyecize.ioc.handlers;
 
+import com.cyecize.ioc.enums.ResolverCachePolicy;
 import com.cyecize.ioc.models.DependencyParam;
 
+import java.util.Set;
+
 public interface DependencyResolver {
 
     boolean canResolve(DependencyParam dependencyParam);
 
     Object resolve(DependencyParam dependencyParam);
+
+    /**
+     * Dependency types that this resolver handles, {@link #canResolve(DependencyParam)} is only called
+     * for parameters of these types.
+     * An empty set means that the resolver is asked for every parameter that has no compatible service.
+     */
+    default Set<Class<?>> getResolvedTypes() {
+        return Set.of();
+    }
+
+    default ResolverCachePolicy getCachePolicy() {
+        return ResolverCachePolicy.DEFAULT_POLICY;
+    }
 }
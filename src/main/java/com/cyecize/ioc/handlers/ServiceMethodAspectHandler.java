@@ -7,6 +7,10 @@ import java.lang.reflect.Method;
  * This service can be used to register an annotation that will be used on other services as an aspect.
  * When will be annotated with the annotation registered here, a proxy will be created for that service and the code
  * described in the implementation of the handler will be executed before (or after) the actual method execution.
+ * <p>
+ * The handler is obtained when the proxy is created, so singleton and prototype handlers are shared
+ * by concurrent calls of the proxy, a pooled handler is borrowed for every call until the call returns.
+ * The invocation chain must be proceeded on the calling thread before the handler returns.
  *
  * @param <T> - annotation to be used on service methods.
  */
@@ -0,0 +1,66 @@
+package com.cyecize.ioc.models;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Binary names of the classes whose class files were created, modified or deleted in watched directories.
+ */
+public class ClassFileChanges {
+
+    private final Set<String> createdClasses;
+
+    private final Set<String> modifiedClasses;
+
+    private final Set<String> deletedClasses;
+
+    public ClassFileChanges() {
+        this.createdClasses = new HashSet<>();
+        this.modifiedClasses = new HashSet<>();
+        this.deletedClasses = new HashSet<>();
+    }
+
+    public Set<String> getCreatedClasses() {
+        return this.createdClasses;
+    }
+
+    public Set<String> getModifiedClasses() {
+        return this.modifiedClasses;
+    }
+
+    public Set<String> getDeletedClasses() {
+        return this.deletedClasses;
+    }
+
+    public boolean isEmpty() {
+        return this.createdClasses.isEmpty() && this.modifiedClasses.isEmpty() && this.deletedClasses.isEmpty();
+    }
+
+    /**
+     * Adds later changes on top of these ones.
+     */
+    public void merge(ClassFileChanges changes) {
+        for (String className : changes.getCreatedClasses()) {
+            //Deleted and created again is a modification.
+            if (this.deletedClasses.remove(className)) {
+                this.modifiedClasses.add(className);
+            } else {
+                this.createdClasses.add(className);
+            }
+        }
+
+        for (String className : changes.getModifiedClasses()) {
+            if (!this.createdClasses.contains(className)) {
+                this.modifiedClasses.add(className);
+            }
+        }
+
+        for (String className : changes.getDeletedClasses()) {
+            //Created and deleted again never existed.
+            if (!this.createdClasses.remove(className)) {
+                this.modifiedClasses.remove(className);
+                this.deletedClasses.add(className);
+            }
+        }
+    }
+}
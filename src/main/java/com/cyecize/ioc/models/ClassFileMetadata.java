@@ -0,0 +1,76 @@
+package com.cyecize.ioc.models;
+
+import java.util.List;
+
+/**
+ * Simple POJO class that keeps information about a class that was read directly from
+ * its class file without loading it.
+ */
+public class ClassFileMetadata {
+
+    private static final int ACC_INTERFACE = 0x0200;
+
+    private static final int ACC_ANNOTATION = 0x2000;
+
+    private static final int ACC_ENUM = 0x4000;
+
+    /**
+     * Binary name of the class (eg. com.example.MyService).
+     */
+    private final String className;
+
+    /**
+     * Binary name of the super class or null if there is none.
+     */
+    private final String superClassName;
+
+    /**
+     * Access flags as they appear in the class file.
+     */
+    private final int accessFlags;
+
+    /**
+     * Binary names of the runtime visible annotations placed on the class.
+     */
+    private final List<String> annotationTypes;
+
+    public ClassFileMetadata(String className, String superClassName, int accessFlags, List<String> annotationTypes) {
+        this.className = className;
+        this.superClassName = superClassName;
+        this.accessFlags = accessFlags;
+        this.annotationTypes = annotationTypes;
+    }
+
+    public String getClassName() {
+        return this.className;
+    }
+
+    public String getSuperClassName() {
+        return this.superClassName;
+    }
+
+    public int getAccessFlags() {
+        return this.accessFlags;
+    }
+
+    public List<String> getAnnotationTypes() {
+        return this.annotationTypes;
+    }
+
+    public boolean isInterface() {
+        return (this.accessFlags & ACC_INTERFACE) != 0;
+    }
+
+    public boolean isAnnotation() {
+        return (this.accessFlags & ACC_ANNOTATION) != 0;
+    }
+
+    public boolean isEnum() {
+        return (this.accessFlags & ACC_ENUM) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return this.className;
+    }
+}
@@ -0,0 +1,107 @@
+package com.cyecize.ioc.models;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Simple POJO class that holds the reflection data of a class that is needed to map it as a service.
+ * <p>
+ * Collected once per class, constructors, lifecycle methods and fields are already accessible.
+ */
+public class ClassIntrospection {
+
+    private final Class<?> type;
+
+    /**
+     * The constructor annotated with @Autowired, the first public one or null if there is none.
+     */
+    private final Constructor<?> suitableConstructor;
+
+    /**
+     * First void method with zero params annotated with @PostConstruct, including super classes.
+     */
+    private final Method postConstructMethod;
+
+    /**
+     * First void method with zero params annotated with @PreDestroy, including super classes.
+     */
+    private final Method preDestroyMethod;
+
+    /**
+     * Fields annotated with @Autowired, including the ones from super classes.
+     */
+    private final Field[] autowiredFields;
+
+    /**
+     * Declared methods with zero params that return a value, not made accessible since most of them are not beans.
+     */
+    private final List<Method> beanCandidateMethods;
+
+    /**
+     * Declared methods that have annotations and their annotations.
+     */
+    private final Map<Method, Annotation[]> methodAnnotations;
+
+    /**
+     * Index of declared methods by the type of their annotations.
+     */
+    private final Map<Class<? extends Annotation>, List<Method>> methodsByAnnotation;
+
+    public ClassIntrospection(Class<?> type,
+                              Constructor<?> suitableConstructor,
+                              Method postConstructMethod,
+                              Method preDestroyMethod,
+                              Field[] autowiredFields,
+                              List<Method> beanCandidateMethods,
+                              Map<Method, Annotation[]> methodAnnotations,
+                              Map<Class<? extends Annotation>, List<Method>> methodsByAnnotation) {
+        this.type = type;
+        this.suitableConstructor = suitableConstructor;
+        this.postConstructMethod = postConstructMethod;
+        this.preDestroyMethod = preDestroyMethod;
+        this.autowiredFields = autowiredFields;
+        this.beanCandidateMethods = beanCandidateMethods;
+        this.methodAnnotations = methodAnnotations;
+        this.methodsByAnnotation = methodsByAnnotation;
+    }
+
+    public Class<?> getType() {
+        return this.type;
+    }
+
+    public Constructor<?> getSuitableConstructor() {
+        return this.suitableConstructor;
+    }
+
+    public Method getPostConstructMethod() {
+        return this.postConstructMethod;
+    }
+
+    public Method getPreDestroyMethod() {
+        return this.preDestroyMethod;
+    }
+
+    public Field[] getAutowiredFields() {
+        return this.autowiredFields.clone();
+    }
+
+    public List<Method> getBeanCandidateMethods() {
+        return this.beanCandidateMethods;
+    }
+
+    public Annotation[] getMethodAnnotations(Method method) {
+        return this.methodAnnotations.getOrDefault(method, new Annotation[0]);
+    }
+
+    public List<Method> getMethodsByAnnotation(Class<? extends Annotation> annotationType) {
+        return this.methodsByAnnotation.getOrDefault(annotationType, List.of());
+    }
+
+    public Map<Class<? extends Annotation>, List<Method>> getMethodsByAnnotation() {
+        return this.methodsByAnnotation;
+    }
+}
@@ -4,6 +4,7 @@ import com.cyecize.ioc.handlers.DependencyResolver;
 import com.cyecize.ioc.utils.DependencyParamUtils;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
 
 /**
  * Simple POJO class that keeps information about a dependency parameter for a given service.
@@ -12,6 +13,9 @@ public class DependencyParam {
 
     private final Class<?> dependencyType;
 
+    //Declared type of the parameter or field, including its type arguments.
+    private final Type genericType;
+
     private final String instanceName;
 
     private final Annotation[] annotations;
@@ -26,7 +30,12 @@ public class DependencyParam {
     private Object instance;
 
     public DependencyParam(Class<?> dependencyType, String instanceName, Annotation[] annotations) {
+        this(dependencyType, dependencyType, instanceName, annotations);
+    }
+
+    public DependencyParam(Class<?> dependencyType, Type genericType, String instanceName, Annotation[] annotations) {
         this.dependencyType = dependencyType;
+        this.genericType = genericType;
         this.instanceName = instanceName;
         this.annotations = annotations;
         this.setRequired(true);
@@ -36,6 +45,10 @@ public class DependencyParam {
         return this.dependencyType;
     }
 
+    public Type getGenericType() {
+        return this.genericType;
+    }
+
     public String getInstanceName() {
         return this.instanceName;
     }
@@ -60,6 +73,10 @@ public class DependencyParam {
         this.dependencyResolver = dependencyResolver;
     }
 
+    public ServiceDetails getServiceDetails() {
+        return this.serviceDetails;
+    }
+
     public void setServiceDetails(ServiceDetails serviceDetails) {
         this.serviceDetails = serviceDetails;
     }
@@ -18,10 +18,14 @@ public class DependencyParamCollection extends DependencyParam {
                                      Class<?> dependencyType,
                                      String instanceName,
                                      Annotation[] annotations) {
-        super(GenericsUtils.getRawType(parameterizedType), instanceName, annotations);
+        super(GenericsUtils.getRawType(parameterizedType), parameterizedType, instanceName, annotations);
         this.collectionType = dependencyType;
     }
 
+    public List<ServiceDetails> getServiceDetailsCollection() {
+        return this.serviceDetails;
+    }
+
     public void setServiceDetails(List<ServiceDetails> serviceDetails) {
         this.serviceDetails = serviceDetails;
     }
@@ -0,0 +1,138 @@
+package com.cyecize.ioc.models;
+
+import com.cyecize.ioc.exceptions.ServiceInstantiationException;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+
+/**
+ * Dependency parameter of type {@link Provider}, {@link Lazy} or {@link ServicePool}.
+ * <p>
+ * The dependency type is the type argument of the wrapper, the upper bound for a wildcard.
+ * The service that produces the dependency is not required to be instantiated before the dependant service,
+ * instead it is instantiated on first access through the instantiator.
+ * <p>
+ * Such a parameter adds no edge to the dependency graph, so circular dependency detection never sees it.
+ * This is intended, it is what allows two services to depend on each other through a provider.
+ */
+public class DependencyParamProvider extends DependencyParam {
+    private static final String UNSUPPORTED_TYPE_ARGUMENT_MSG = "Cannot resolve the dependency type of '%s'.";
+
+    private final Class<?> wrapperType;
+
+    //Producer of the dependency, null if it was already instantiated when the dependencies were resolved.
+    private EnqueuedServiceDetails producer;
+
+    private Runnable instantiator;
+
+    public DependencyParamProvider(ParameterizedType parameterizedType,
+                                   Class<?> wrapperType,
+                                   String instanceName,
+                                   Annotation[] annotations) {
+        super(getTypeArgument(parameterizedType), instanceName, annotations);
+        this.wrapperType = wrapperType;
+    }
+
+    public EnqueuedServiceDetails getProducer() {
+        return this.producer;
+    }
+
+    public void setProducer(EnqueuedServiceDetails producer) {
+        this.producer = producer;
+    }
+
+    public void setInstantiator(Runnable instantiator) {
+        this.instantiator = instantiator;
+    }
+
+    /**
+     * @return new {@link Provider} or {@link Lazy} for the dependency or the pool of the dependency.
+     */
+    @Override
+    public Object getInstance() {
+        if (this.wrapperType == ServicePool.class) {
+            if (super.getServiceDetails() == null) {
+                return null;
+            }
+
+            this.instantiateProducer();
+            return super.getServiceDetails().getServicePool();
+        }
+
+        if (this.wrapperType == Lazy.class) {
+            return new LazyInstance<>(this);
+        }
+
+        return (Provider<Object>) this::getDependencyInstance;
+    }
+
+    /**
+     * Instantiates the producer of the dependency if needed.
+     *
+     * @return instance of the dependency.
+     */
+    public Object getDependencyInstance() {
+        this.instantiateProducer();
+        return super.getInstance();
+    }
+
+    /**
+     * Waits for the producer to be fully instantiated, including its post construct method and proxy.
+     */
+    private void instantiateProducer() {
+        if (super.getDependencyResolver() == null
+                && this.producer != null
+                && this.instantiator != null
+                && !this.producer.isInstantiated()) {
+            this.instantiator.run();
+        }
+    }
+
+    private static Class<?> getTypeArgument(ParameterizedType parameterizedType) {
+        Type typeArgument = parameterizedType.getActualTypeArguments()[0];
+
+        //Provider<? extends Foo> provides a Foo.
+        if (typeArgument instanceof WildcardType) {
+            typeArgument = ((WildcardType) typeArgument).getUpperBounds()[0];
+        }
+
+        if (typeArgument instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) typeArgument).getRawType();
+        }
+
+        if (typeArgument instanceof Class) {
+            return (Class<?>) typeArgument;
+        }
+
+        throw new ServiceInstantiationException(String.format(UNSUPPORTED_TYPE_ARGUMENT_MSG, parameterizedType));
+    }
+
+    private static class LazyInstance<T> implements Lazy<T> {
+        private final DependencyParamProvider dependencyParam;
+
+        private volatile T instance;
+
+        private LazyInstance(DependencyParamProvider dependencyParam) {
+            this.dependencyParam = dependencyParam;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get() {
+            T instance = this.instance;
+            if (instance == null) {
+                synchronized (this) {
+                    instance = this.instance;
+                    if (instance == null) {
+                        instance = (T) this.dependencyParam.getDependencyInstance();
+                        this.instance = instance;
+                    }
+                }
+            }
+
+            return instance;
+        }
+    }
+}
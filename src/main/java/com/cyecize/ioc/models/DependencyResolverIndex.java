@@ -0,0 +1,147 @@
+package com.cyecize.ioc.models;
+
+import com.cyecize.ioc.enums.ResolverCachePolicy;
+import com.cyecize.ioc.handlers.DependencyResolver;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Index of {@link DependencyResolver} by the dependency types they declare, along with their cached results.
+ * <p>
+ * Resolvers that declare types are asked before the ones that do not declare any.
+ * Cached results are kept until {@link #clearResolvedValues()}, eg. for one resolution of the services.
+ */
+public class DependencyResolverIndex {
+
+    private final Map<Class<?>, List<DependencyResolver>> resolversByType;
+
+    private final List<DependencyResolver> untypedResolvers;
+
+    private final Map<ResolvedValueKey, Object> resolvedValues;
+
+    public DependencyResolverIndex(Collection<DependencyResolver> dependencyResolvers) {
+        this.resolversByType = new HashMap<>();
+        this.untypedResolvers = new ArrayList<>();
+        this.resolvedValues = new HashMap<>();
+
+        for (DependencyResolver dependencyResolver : dependencyResolvers) {
+            if (dependencyResolver.getResolvedTypes().isEmpty()) {
+                this.untypedResolvers.add(dependencyResolver);
+                continue;
+            }
+
+            for (Class<?> resolvedType : dependencyResolver.getResolvedTypes()) {
+                this.resolversByType.computeIfAbsent(resolvedType, k -> new ArrayList<>()).add(dependencyResolver);
+            }
+        }
+    }
+
+    /**
+     * @return the first resolver that can resolve the given parameter or null.
+     */
+    public DependencyResolver getDependencyResolver(DependencyParam dependencyParam) {
+        for (DependencyResolver dependencyResolver : this.resolversByType.getOrDefault(
+                dependencyParam.getDependencyType(), List.of())) {
+            if (dependencyResolver.canResolve(dependencyParam)) {
+                return dependencyResolver;
+            }
+        }
+
+        for (DependencyResolver dependencyResolver : this.untypedResolvers) {
+            if (dependencyResolver.canResolve(dependencyParam)) {
+                return dependencyResolver;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Forgets the cached results, so that values resolved for an older generation of classes are not reused.
+     */
+    public synchronized void clearResolvedValues() {
+        this.resolvedValues.clear();
+    }
+
+    /**
+     * Calls the resolver or reuses its previous result, depending on its {@link ResolverCachePolicy}.
+     */
+    public synchronized Object resolve(DependencyResolver dependencyResolver, DependencyParam dependencyParam) {
+        final ResolverCachePolicy cachePolicy = dependencyResolver.getCachePolicy();
+        if (cachePolicy == null || cachePolicy == ResolverCachePolicy.PER_CALL) {
+            return dependencyResolver.resolve(dependencyParam);
+        }
+
+        final ResolvedValueKey key = new ResolvedValueKey(dependencyResolver, dependencyParam, cachePolicy);
+        if (this.resolvedValues.containsKey(key)) {
+            return this.resolvedValues.get(key);
+        }
+
+        final Object resolvedValue = dependencyResolver.resolve(dependencyParam);
+        this.resolvedValues.put(key, resolvedValue);
+
+        return resolvedValue;
+    }
+
+    private static class ResolvedValueKey {
+        private final DependencyResolver dependencyResolver;
+
+        private final Class<?> dependencyType;
+
+        private final Type genericType;
+
+        private final String instanceName;
+
+        private final Annotation[] annotations;
+
+        private ResolvedValueKey(DependencyResolver dependencyResolver,
+                                 DependencyParam dependencyParam,
+                                 ResolverCachePolicy cachePolicy) {
+            this.dependencyResolver = dependencyResolver;
+            this.dependencyType = dependencyParam.getDependencyType();
+
+            if (cachePolicy == ResolverCachePolicy.PER_PARAM) {
+                this.genericType = dependencyParam.getGenericType();
+                this.instanceName = dependencyParam.getInstanceName();
+                this.annotations = dependencyParam.getAnnotations();
+            } else {
+                this.genericType = null;
+                this.instanceName = null;
+                this.annotations = null;
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ResolvedValueKey)) {
+                return false;
+            }
+
+            final ResolvedValueKey otherKey = (ResolvedValueKey) other;
+            return this.dependencyResolver == otherKey.dependencyResolver
+                    && this.dependencyType == otherKey.dependencyType
+                    && Objects.equals(this.genericType, otherKey.genericType)
+                    && Objects.equals(this.instanceName, otherKey.instanceName)
+                    && Arrays.equals(this.annotations, otherKey.annotations);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(
+                    System.identityHashCode(this.dependencyResolver),
+                    this.dependencyType,
+                    this.genericType,
+                    this.instanceName,
+                    Arrays.hashCode(this.annotations)
+            );
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.cyecize.ioc.models;
 
 import com.cyecize.ioc.annotations.Autowired;
 import com.cyecize.ioc.annotations.Qualifier;
+import com.cyecize.ioc.exceptions.ServiceInstantiationException;
 import com.cyecize.ioc.utils.AliasFinder;
 import com.cyecize.ioc.utils.AnnotationUtils;
 
@@ -10,8 +11,12 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Simple POJO class that keeps information about a service, its
@@ -19,6 +24,8 @@ import java.util.LinkedList;
  */
 public class EnqueuedServiceDetails {
 
+    private static final String RAW_WRAPPER_TYPE_MSG = "Raw %s dependency in service '%s', a type argument is required.";
+
     /**
      * Reference to the target service.
      */
@@ -38,10 +45,21 @@ public class EnqueuedServiceDetails {
 
     private Object[] fieldInstances;
 
+    /**
+     * Services that have to be instantiated before this one, filled while resolving dependencies.
+     */
+    private final List<EnqueuedServiceDetails> dependencies;
+
+    /**
+     * Instantiation that is in progress or completed, null if it was not started or the last attempt failed.
+     */
+    private final AtomicReference<Instantiation> instantiation = new AtomicReference<>();
+
     public EnqueuedServiceDetails(ServiceDetails serviceDetails) {
         this.serviceDetails = serviceDetails;
         this.constructorParams = new LinkedList<>();
         this.fieldDependencies = new LinkedList<>();
+        this.dependencies = new ArrayList<>();
         this.fillConstructorParams();
         this.fillFieldDependencyTypes();
     }
@@ -78,6 +96,57 @@ public class EnqueuedServiceDetails {
         return this.fieldInstances;
     }
 
+    public List<EnqueuedServiceDetails> getDependencies() {
+        return this.dependencies;
+    }
+
+    public boolean isInstantiated() {
+        final Instantiation instantiation = this.instantiation.get();
+
+        return instantiation != null
+                && instantiation.completion.isDone()
+                && !instantiation.completion.isCompletedExceptionally();
+    }
+
+    /**
+     * Starts the instantiation of the service on the current thread.
+     *
+     * @return null if the current thread has to instantiate the service,
+     * otherwise the instantiation started by another call.
+     */
+    public Instantiation startInstantiation() {
+        final Instantiation started = new Instantiation(Thread.currentThread());
+
+        while (true) {
+            if (this.instantiation.compareAndSet(null, started)) {
+                return null;
+            }
+
+            final Instantiation existing = this.instantiation.get();
+            if (existing != null) {
+                return existing;
+            }
+        }
+    }
+
+    /**
+     * Completes the instantiation started by the current thread.
+     * A failed instantiation is forgotten so that the service can be instantiated again.
+     *
+     * @param failure the reason for failure or null.
+     */
+    public void completeInstantiation(Throwable failure) {
+        final Instantiation instantiation = this.instantiation.get();
+
+        if (failure == null) {
+            instantiation.completion.complete(null);
+            return;
+        }
+
+        this.instantiation.compareAndSet(instantiation, null);
+        instantiation.completion.completeExceptionally(failure);
+    }
+
     private void fillConstructorParams() {
         for (Parameter parameter : this.serviceDetails.getTargetConstructor().getParameters()) {
             this.constructorParams.add(this.createDependencyParam(
@@ -104,11 +173,21 @@ public class EnqueuedServiceDetails {
                                                   String instanceName,
                                                   Annotation[] annotations,
                                                   Type parameterizedType) {
+        if (type == Provider.class || type == Lazy.class || type == ServicePool.class) {
+            if (!(parameterizedType instanceof ParameterizedType)) {
+                throw new ServiceInstantiationException(String.format(
+                        RAW_WRAPPER_TYPE_MSG, type.getSimpleName(), this.serviceDetails.getServiceType().getName()
+                ));
+            }
+
+            return new DependencyParamProvider((ParameterizedType) parameterizedType, type, instanceName, annotations);
+        }
+
         if (Collection.class.isAssignableFrom(type)) {
             return new DependencyParamCollection((ParameterizedType) parameterizedType, type, instanceName, annotations);
         }
 
-        return new DependencyParam(type, instanceName, annotations);
+        return new DependencyParam(type, parameterizedType, instanceName, annotations);
     }
 
     private String getInstanceName(Annotation[] annotations) {
@@ -139,4 +218,26 @@ public class EnqueuedServiceDetails {
     public int hashCode() {
         return this.serviceDetails.hashCode();
     }
+
+    /**
+     * Thread that instantiates a service and the completion of that instantiation.
+     */
+    public static class Instantiation {
+        private final Thread thread;
+
+        private final CompletableFuture<Void> completion;
+
+        private Instantiation(Thread thread) {
+            this.thread = thread;
+            this.completion = new CompletableFuture<>();
+        }
+
+        public Thread getThread() {
+            return this.thread;
+        }
+
+        public CompletableFuture<Void> getCompletion() {
+            return this.completion;
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package com.cyecize.ioc.models;
+
+import com.cyecize.ioc.utils.ProxyClassGenerator;
+import javassist.util.proxy.MethodHandler;
+
+/**
+ * Implemented by the proxy classes created by {@link ProxyClassGenerator}.
+ * <p>
+ * The proxy calls the delegate directly, only methods that cannot be called that way
+ * (eg. methods with aspects) are passed to the handler.
+ */
+public interface GeneratedProxy {
+
+    /**
+     * Replaces the instance that the proxy calls, eg. when the service is reloaded or updated.
+     */
+    void setProxyDelegate(Object delegate);
+
+    void setProxyHandler(MethodHandler handler);
+}
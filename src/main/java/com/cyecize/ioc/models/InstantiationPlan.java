@@ -0,0 +1,53 @@
+package com.cyecize.ioc.models;
+
+import java.util.Collection;
+
+/**
+ * Immutable plan for creating new instances of a service, computed once its dependencies are resolved.
+ * <p>
+ * Creating an instance with the plan does not change the {@link ServiceDetails},
+ * so prototype instances can be created from many threads.
+ */
+public class InstantiationPlan {
+
+    private final ServiceInstanceFactory instanceFactory;
+
+    private final DependencyParam[] constructorParams;
+
+    private final DependencyParam[] fieldDependencies;
+
+    public InstantiationPlan(ServiceInstanceFactory instanceFactory,
+                             Collection<DependencyParam> constructorParams,
+                             Collection<DependencyParam> fieldDependencies) {
+        this.instanceFactory = instanceFactory;
+        this.constructorParams = constructorParams.toArray(new DependencyParam[0]);
+        this.fieldDependencies = fieldDependencies.toArray(new DependencyParam[0]);
+    }
+
+    public ServiceInstanceFactory getInstanceFactory() {
+        return this.instanceFactory;
+    }
+
+    /**
+     * @return current instances of the constructor dependencies, in a new array.
+     */
+    public Object[] getConstructorInstances() {
+        return getInstances(this.constructorParams);
+    }
+
+    /**
+     * @return current instances of the field dependencies, in a new array.
+     */
+    public Object[] getFieldInstances() {
+        return getInstances(this.fieldDependencies);
+    }
+
+    private static Object[] getInstances(DependencyParam[] dependencyParams) {
+        final Object[] instances = new Object[dependencyParams.length];
+        for (int i = 0; i < dependencyParams.length; i++) {
+            instances[i] = dependencyParams[i].getInstance();
+        }
+
+        return instances;
+    }
+}
@@ -0,0 +1,16 @@
+package com.cyecize.ioc.models;
+
+/**
+ * Injectable handle to a dependency that does not have to be instantiated before the service that uses it.
+ * <p>
+ * The dependency is resolved when the service is created, but it is instantiated on the first call to
+ * {@link #get()} if it is not instantiated yet.
+ * A dependency that is still being instantiated is waited for, calling {@link #get()} from within the instantiation
+ * of that same dependency (eg. from a circular constructor or post construct call) fails.
+ * The first obtained instance is kept and returned by every following call.
+ *
+ * @param <T> - type of the dependency.
+ */
+public interface Lazy<T> {
+    T get();
+}
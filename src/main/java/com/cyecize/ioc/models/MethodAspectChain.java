@@ -0,0 +1,121 @@
+package com.cyecize.ioc.models;
+
+import com.cyecize.ioc.enums.ScopeType;
+import com.cyecize.ioc.handlers.MethodInvocationChain;
+import com.cyecize.ioc.handlers.ServiceMethodAspectHandler;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Aspect handlers of one service method along with the method annotations they handle,
+ * resolved once when the proxy of the service is created.
+ * <p>
+ * Handlers are kept from the outermost to the innermost one, the last aspect registered for the method
+ * being the outermost. Handler instances are obtained here, so a prototype handler is created once per proxy
+ * and shared by its calls, only pooled handlers are borrowed for the duration of each call.
+ * Reloading a handler service does not affect proxies that were already created.
+ * <p>
+ * A call allocates nothing on top of its arguments (and the borrowed pooled handlers).
+ * Every position of the chain has a {@link MethodInvocationChain} created here and the arguments
+ * of the call are kept for the current thread, so handlers must proceed before they return, on the calling thread.
+ */
+public class MethodAspectChain {
+
+    /**
+     * Arguments of the innermost call that goes through an aspect chain on the current thread.
+     */
+    private static final ThreadLocal<Object[]> CURRENT_ARGS = new ThreadLocal<>();
+
+    private final ServiceDetails serviceDetails;
+
+    private final Method method;
+
+    private final MethodHandle methodHandle;
+
+    private final ServiceDetails[] handlerServices;
+
+    /**
+     * Handler instances, null for pooled handlers.
+     */
+    private final ServiceMethodAspectHandler<Annotation>[] handlers;
+
+    private final Annotation[] annotations;
+
+    /**
+     * Invocation chain that proceeds from each position, the last one calls the method itself.
+     */
+    private final MethodInvocationChain[] links;
+
+    @SuppressWarnings("unchecked")
+    public MethodAspectChain(ServiceDetails serviceDetails, Method method, List<MethodAspectHandlerDto> aspectHandlers) {
+        final int size = aspectHandlers.size();
+
+        this.serviceDetails = serviceDetails;
+        this.method = method;
+        this.methodHandle = ServiceInstanceFactory.createSpreadMethodHandle(method);
+        this.handlerServices = new ServiceDetails[size];
+        this.handlers = new ServiceMethodAspectHandler[size];
+        this.annotations = new Annotation[size];
+        this.links = new MethodInvocationChain[size + 1];
+
+        for (int i = 0; i < size; i++) {
+            final MethodAspectHandlerDto aspectHandler = aspectHandlers.get(size - 1 - i);
+            final ServiceDetails handlerService = aspectHandler.getServiceDetails();
+
+            this.handlerServices[i] = handlerService;
+            this.annotations[i] = method.getAnnotation(aspectHandler.getAnnotation());
+            if (handlerService.getScopeType() != ScopeType.POOLED) {
+                this.handlers[i] = (ServiceMethodAspectHandler<Annotation>) handlerService.getInstance();
+            }
+        }
+
+        for (int i = 0; i <= size; i++) {
+            final int position = i;
+            this.links[i] = () -> this.proceed(position, CURRENT_ARGS.get());
+        }
+    }
+
+    /**
+     * Calls the aspect handlers and finally the method of the actual instance of the service.
+     *
+     * @throws InvocationTargetException - if the method itself throws.
+     */
+    public Object invoke(Object[] args) throws Exception {
+        final Object[] outerArgs = CURRENT_ARGS.get();
+        CURRENT_ARGS.set(args);
+        try {
+            return this.proceed(0, args);
+        } finally {
+            CURRENT_ARGS.set(outerArgs);
+        }
+    }
+
+    /**
+     * Calls the handler at the given position, a handler can proceed more than once, eg. to retry the call.
+     */
+    @SuppressWarnings("unchecked")
+    private Object proceed(int position, Object[] args) throws Exception {
+        if (position == this.handlers.length) {
+            try {
+                return (Object) this.methodHandle.invokeExact(this.serviceDetails.getActualInstance(), args);
+            } catch (Throwable t) {
+                throw new InvocationTargetException(t);
+            }
+        }
+
+        final ServiceMethodAspectHandler<Annotation> handler = this.handlers[position];
+        if (handler != null) {
+            return handler.proceed(this.annotations[position], this.method, args, this.links[position + 1]);
+        }
+
+        try (PooledInstance<Object> pooledHandler = this.handlerServices[position].getServicePool().borrow()) {
+            return ((ServiceMethodAspectHandler<Annotation>) pooledHandler.get()).proceed(
+                    this.annotations[position], this.method, args, this.links[position + 1]
+            );
+        }
+    }
+}
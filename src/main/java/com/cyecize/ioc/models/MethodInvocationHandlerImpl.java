@@ -1,51 +1,42 @@
 package com.cyecize.ioc.models;
 
-import com.cyecize.ioc.handlers.MethodInvocationChain;
-import com.cyecize.ioc.handlers.ServiceMethodAspectHandler;
 import javassist.util.proxy.MethodHandler;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Map;
 
 public class MethodInvocationHandlerImpl implements MethodHandler {
 
     private final ServiceDetails serviceDetails;
 
+    /**
+     * Aspect chains of the advised methods, built when the proxy is created.
+     */
+    private final Map<Method, MethodAspectChain> aspectChains;
+
     public MethodInvocationHandlerImpl(ServiceDetails serviceDetails) {
         this.serviceDetails = serviceDetails;
+        this.aspectChains = new HashMap<>();
+
+        for (Map.Entry<Method, List<MethodAspectHandlerDto>> entry : serviceDetails.getMethodAspectHandlers().entrySet()) {
+            this.aspectChains.put(entry.getKey(), new MethodAspectChain(
+                    serviceDetails, entry.getKey(), entry.getValue()
+            ));
+        }
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public Object invoke(Object self, Method thisMethod, Method proceed, Object[] args) throws Throwable {
         try {
-            if (!this.serviceDetails.getMethodAspectHandlers().containsKey(thisMethod)) {
+            final MethodAspectChain aspectChain = this.aspectChains.get(thisMethod);
+            if (aspectChain == null) {
                 return thisMethod.invoke(this.serviceDetails.getActualInstance(), args);
             }
 
-            final List<MethodAspectHandlerDto> aspectHandlers = this.serviceDetails.getMethodAspectHandlers().get(thisMethod);
-
-            final AtomicReference<MethodInvocationChain> invocationChain = new AtomicReference<>(() -> thisMethod.invoke(
-                    this.serviceDetails.getActualInstance(), args
-            ));
-
-            for (MethodAspectHandlerDto serviceAspectHandler : aspectHandlers) {
-                final ServiceMethodAspectHandler<Annotation> aspectHandler = (ServiceMethodAspectHandler<Annotation>)
-                        serviceAspectHandler.getServiceDetails().getInstance();
-
-                final MethodInvocationChain next = invocationChain.get();
-                invocationChain.set(() -> aspectHandler.proceed(
-                        thisMethod.getAnnotation(serviceAspectHandler.getAnnotation()),
-                        thisMethod,
-                        args,
-                        next
-                ));
-            }
-
-            return invocationChain.get().proceed();
+            return aspectChain.invoke(args);
         } catch (InvocationTargetException ex) {
             throw ex.getTargetException();
         }
@@ -0,0 +1,37 @@
+package com.cyecize.ioc.models;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Instance borrowed from a {@link ServicePool}, released back to the pool when closed.
+ *
+ * @param <T> - type of the pooled service.
+ */
+public class PooledInstance<T> implements AutoCloseable {
+
+    private final ServicePool<T> servicePool;
+
+    private final T instance;
+
+    private final AtomicBoolean released;
+
+    PooledInstance(ServicePool<T> servicePool, T instance) {
+        this.servicePool = servicePool;
+        this.instance = instance;
+        this.released = new AtomicBoolean();
+    }
+
+    public T get() {
+        return this.instance;
+    }
+
+    /**
+     * Releases the instance back to the pool, only the first call has effect.
+     */
+    @Override
+    public void close() {
+        if (this.released.compareAndSet(false, true)) {
+            this.servicePool.release(this.instance);
+        }
+    }
+}
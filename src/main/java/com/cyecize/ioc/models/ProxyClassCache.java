@@ -0,0 +1,98 @@
+package com.cyecize.ioc.models;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache for proxy classes shared by all containers.
+ * <p>
+ * Proxy classes are stored with a {@link ClassValue} of the proxied type, so they are keyed by type and class loader
+ * and are released together with the class loader of the proxied type.
+ * A type can have a different proxy class per variant (eg. constructor and advised methods),
+ * the least recently used variants are evicted once there are more than the given maximum for a type.
+ */
+public class ProxyClassCache {
+
+    public static final int DEFAULT_MAX_CLASSES_PER_TYPE = 16;
+
+    private final int maxClassesPerType;
+
+    private final ClassValue<Map<List<?>, Optional<Class<?>>>> proxyClasses;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong generatedClasses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ProxyClassCache(int maxClassesPerType) {
+        this.maxClassesPerType = maxClassesPerType;
+        this.proxyClasses = new ClassValue<>() {
+            @Override
+            protected Map<List<?>, Optional<Class<?>>> computeValue(Class<?> type) {
+                return createVariantsMap();
+            }
+        };
+    }
+
+    /**
+     * Gets the cached proxy class or creates it with the given supplier.
+     * A null result is cached as well, so types that cannot be proxied by the supplier are not tried again.
+     *
+     * @param proxiedType proxied class or interface.
+     * @param variant     values that the proxy class depends on besides the proxied type.
+     * @param proxyClass  creates the proxy class, may return null.
+     */
+    public Class<?> getProxyClass(Class<?> proxiedType, List<?> variant, Supplier<Class<?>> proxyClass) {
+        final Map<List<?>, Optional<Class<?>>> variants = this.proxyClasses.get(proxiedType);
+
+        synchronized (variants) {
+            final Optional<Class<?>> cachedClass = variants.get(variant);
+            if (cachedClass != null) {
+                this.hits.incrementAndGet();
+                return cachedClass.orElse(null);
+            }
+
+            final Class<?> createdClass = proxyClass.get();
+            if (createdClass != null) {
+                this.generatedClasses.incrementAndGet();
+            }
+
+            variants.put(variant, Optional.ofNullable(createdClass));
+            return createdClass;
+        }
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * @return the number of proxy classes created through this cache, including evicted ones.
+     */
+    public long getGeneratedClasses() {
+        return this.generatedClasses.get();
+    }
+
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+
+    private Map<List<?>, Optional<Class<?>>> createVariantsMap() {
+        return new LinkedHashMap<>(4, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<?>, Optional<Class<?>>> eldest) {
+                if (this.size() <= maxClassesPerType) {
+                    return false;
+                }
+
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.cyecize.ioc.models;
+
+/**
+ * Simple POJO class that keeps the cached scan result for a single class file.
+ */
+public class ScanCacheEntry {
+
+    private final String className;
+
+    private final long lastModified;
+
+    private final long size;
+
+    /**
+     * Metadata read from the class file or null if the class file was not read during the scan.
+     */
+    private final ClassFileMetadata metadata;
+
+    public ScanCacheEntry(String className, long lastModified, long size, ClassFileMetadata metadata) {
+        this.className = className;
+        this.lastModified = lastModified;
+        this.size = size;
+        this.metadata = metadata;
+    }
+
+    public String getClassName() {
+        return this.className;
+    }
+
+    public long getLastModified() {
+        return this.lastModified;
+    }
+
+    public long getSize() {
+        return this.size;
+    }
+
+    public ClassFileMetadata getMetadata() {
+        return this.metadata;
+    }
+
+    public boolean matches(long lastModified, long size) {
+        return this.lastModified == lastModified && this.size == size;
+    }
+}
@@ -0,0 +1,116 @@
+package com.cyecize.ioc.models;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cached scan result for a directory or jar file.
+ * <p>
+ * Holds the entries from the previous scan, which are only used if they are still valid,
+ * and collects the entries of the current scan which will replace them.
+ * <p>
+ * This class is thread safe.
+ */
+public class ScanCacheRoot {
+
+    private final String root;
+
+    private final long lastModified;
+
+    private final long size;
+
+    private final long contentHash;
+
+    /**
+     * Describes the scan settings that affect which entries are recorded, such as package filters.
+     * Entries recorded with a different scope are not reused.
+     */
+    private final String scope;
+
+    /**
+     * True if the root was not modified since the previous scan.
+     * Only jar files are validated as a whole, directories are validated per class file.
+     */
+    private final boolean upToDate;
+
+    private final Map<String, ScanCacheEntry> previousEntries;
+
+    private final Map<String, ScanCacheEntry> currentEntries;
+
+    public ScanCacheRoot(String root, long lastModified, long size, long contentHash, String scope,
+                         boolean upToDate, Map<String, ScanCacheEntry> previousEntries) {
+        this.root = root;
+        this.lastModified = lastModified;
+        this.size = size;
+        this.contentHash = contentHash;
+        this.scope = scope;
+        this.upToDate = upToDate;
+        this.previousEntries = previousEntries;
+        this.currentEntries = new ConcurrentHashMap<>();
+    }
+
+    public String getRoot() {
+        return this.root;
+    }
+
+    public long getLastModified() {
+        return this.lastModified;
+    }
+
+    public long getSize() {
+        return this.size;
+    }
+
+    public long getContentHash() {
+        return this.contentHash;
+    }
+
+    public String getScope() {
+        return this.scope;
+    }
+
+    public boolean isUpToDate() {
+        return this.upToDate;
+    }
+
+    /**
+     * @return entries from the previous scan.
+     */
+    public Collection<ScanCacheEntry> getPreviousEntries() {
+        return this.previousEntries.values();
+    }
+
+    /**
+     * @return entries collected during the current scan.
+     */
+    public Collection<ScanCacheEntry> getCurrentEntries() {
+        return this.currentEntries.values();
+    }
+
+    /**
+     * Looks up metadata from the previous scan and carries the entry over to the current one if it is still valid.
+     *
+     * @return cached metadata or null if the class file has changed or was not read before.
+     */
+    public ClassFileMetadata getMetadata(String className, long lastModified, long size) {
+        final ScanCacheEntry entry = this.previousEntries.get(className);
+        if (entry == null || entry.getMetadata() == null || !entry.matches(lastModified, size)) {
+            return null;
+        }
+
+        this.currentEntries.put(className, entry);
+        return entry.getMetadata();
+    }
+
+    public void putEntry(ScanCacheEntry entry) {
+        this.currentEntries.put(entry.getClassName(), entry);
+    }
+
+    /**
+     * Keeps all entries from the previous scan, used when the whole root is unchanged.
+     */
+    public void keepPreviousEntries() {
+        this.currentEntries.putAll(this.previousEntries);
+    }
+}
@@ -4,6 +4,7 @@ import com.cyecize.ioc.enums.ScopeType;
 import com.cyecize.ioc.utils.ObjectInstantiationUtils;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 
@@ -24,6 +25,11 @@ public class ServiceBeanDetails extends ServiceDetails {
      */
     private final ServiceDetails rootService;
 
+    /**
+     * Handle of the origin method, created on first use.
+     */
+    private volatile MethodHandle originMethodHandle;
+
     public ServiceBeanDetails(Class<?> beanType, Method originMethod,
                               ServiceDetails rootService, Annotation annotation,
                               ScopeType scopeType,
@@ -45,21 +51,37 @@ public class ServiceBeanDetails extends ServiceDetails {
         return this.rootService;
     }
 
+    public MethodHandle getOriginMethodHandle() {
+        MethodHandle originMethodHandle = this.originMethodHandle;
+        if (originMethodHandle == null) {
+            originMethodHandle = ServiceInstanceFactory.createNoParamsMethodHandle(this.originMethod);
+            this.originMethodHandle = originMethodHandle;
+        }
+
+        return originMethodHandle;
+    }
+
     @Override
     public Object getInstance() {
-        if (super.getScopeType() == ScopeType.PROTOTYPE) {
+        super.instantiateIfDeferred();
+
+        if (super.getScopeType() == ScopeType.PROTOTYPE || super.getScopeType() == ScopeType.POOLED) {
             if (super.getActualInstance() == null) {
                 return null;
             }
 
-            if (!super.instanceRequested) {
-                super.instanceRequested = true;
+            if (super.claimInitialInstance()) {
                 return super.getActualInstance();
             }
 
-            return ObjectInstantiationUtils.createNewInstance(this);
+            return this.createNewInstance();
         }
 
         return super.getInstance();
     }
+
+    @Override
+    protected Object createNewInstance() {
+        return ObjectInstantiationUtils.createNewInstance(this);
+    }
 }
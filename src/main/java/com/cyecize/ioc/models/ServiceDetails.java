@@ -1,10 +1,14 @@
 package com.cyecize.ioc.models;
 
 import com.cyecize.ioc.annotations.Autowired;
+import com.cyecize.ioc.annotations.LazyInit;
+import com.cyecize.ioc.annotations.PoolValidate;
 import com.cyecize.ioc.enums.ScopeType;
+import com.cyecize.ioc.utils.ClassIntrospectionUtils;
 import com.cyecize.ioc.utils.ObjectInstantiationUtils;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -14,6 +18,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 
 /**
  * Simple POJO class that holds information about a given class.
@@ -54,7 +60,7 @@ public class ServiceDetails {
     /**
      * Flag used for PROTOTYPE scoped service to ensure instance is not left unused.
      */
-    protected boolean instanceRequested;
+    private final AtomicBoolean instanceRequested = new AtomicBoolean();
 
     /**
      * Proxy instance that will be injected into services instead of actual instance.
@@ -71,6 +77,11 @@ public class ServiceDetails {
      */
     private Method preDestroyMethod;
 
+    /**
+     * Handle of the pre destroy method, of type (Object)void.
+     */
+    private volatile MethodHandle preDestroyHandle;
+
     /**
      * Holds information for service's scope.
      */
@@ -98,6 +109,38 @@ public class ServiceDetails {
 
     private final Map<Method, List<MethodAspectHandlerDto>> methodAspectHandlers = new HashMap<>();
 
+    /**
+     * Flag for services annotated with {@link LazyInit}.
+     */
+    private boolean lazyInit;
+
+    /**
+     * Creates the instance of a {@link LazyInit} service, null once the instance is created.
+     */
+    private volatile Runnable instantiator;
+
+    /**
+     * Method handles used to create instances of the service, created on first use.
+     */
+    private volatile ServiceInstanceFactory instanceFactory;
+
+    /**
+     * Plan for creating new instances, created when the resolved dependencies are set.
+     */
+    private volatile InstantiationPlan instantiationPlan;
+
+    /**
+     * Settings for POOLED scoped service, from {@link com.cyecize.ioc.annotations.PoolSettings} or its alias.
+     */
+    private int poolMaxSize = ServicePool.DEFAULT_MAX_SIZE;
+
+    private long poolMaxIdleMillis = ServicePool.DEFAULT_MAX_IDLE_MILLIS;
+
+    /**
+     * Pool of POOLED scoped service, created on first use.
+     */
+    private volatile ServicePool<Object> servicePool;
+
     protected ServiceDetails() {
 
     }
@@ -141,6 +184,7 @@ public class ServiceDetails {
 
     public void setTargetConstructor(Constructor<?> targetConstructor) {
         this.targetConstructor = targetConstructor;
+        this.instantiationPlan = null;
     }
 
     public String getInstanceName() {
@@ -156,17 +200,19 @@ public class ServiceDetails {
     }
 
     public Object getInstance() {
-        if (this.getScopeType() == ScopeType.PROTOTYPE) {
+        this.instantiateIfDeferred();
+
+        //Injected and requested pooled services are new instances that are never borrowed from the pool.
+        if (this.getScopeType() == ScopeType.PROTOTYPE || this.getScopeType() == ScopeType.POOLED) {
             if (this.instance == null) {
                 return null;
             }
 
-            if (!this.instanceRequested) {
-                this.instanceRequested = true;
+            if (this.claimInitialInstance()) {
                 return this.instance;
             }
 
-            return ObjectInstantiationUtils.createNewInstance(this);
+            return this.createNewInstance();
         }
 
         if (this.proxyInstance != null) {
@@ -178,6 +224,10 @@ public class ServiceDetails {
 
     public void setInstance(Object instance) {
         this.instance = instance;
+
+        if (this.proxyInstance instanceof GeneratedProxy) {
+            ((GeneratedProxy) this.proxyInstance).setProxyDelegate(instance);
+        }
     }
 
     public Object getProxyInstance() {
@@ -202,14 +252,22 @@ public class ServiceDetails {
 
     public void setPostConstructMethod(Method postConstructMethod) {
         this.postConstructMethod = postConstructMethod;
+        this.instantiationPlan = null;
     }
 
     public Method getPreDestroyMethod() {
         return this.preDestroyMethod;
     }
 
+    public MethodHandle getPreDestroyHandle() {
+        return this.preDestroyHandle;
+    }
+
     public void setPreDestroyMethod(Method preDestroyMethod) {
         this.preDestroyMethod = preDestroyMethod;
+        this.preDestroyHandle = preDestroyMethod == null
+                ? null
+                : ServiceInstanceFactory.createLifecycleMethodHandle(preDestroyMethod);
     }
 
     public ScopeType getScopeType() {
@@ -234,6 +292,7 @@ public class ServiceDetails {
 
     public void setAutowireAnnotatedFields(Field[] autowireAnnotatedFields) {
         this.autowireAnnotatedFields = autowireAnnotatedFields;
+        this.instantiationPlan = null;
     }
 
     public LinkedList<DependencyParam> getResolvedConstructorParams() {
@@ -242,6 +301,7 @@ public class ServiceDetails {
 
     public void setResolvedConstructorParams(LinkedList<DependencyParam> resolvedConstructorParams) {
         this.resolvedConstructorParams = resolvedConstructorParams;
+        this.instantiationPlan = null;
     }
 
     public LinkedList<DependencyParam> getResolvedFields() {
@@ -250,6 +310,143 @@ public class ServiceDetails {
 
     public void setResolvedFields(LinkedList<DependencyParam> resolvedFields) {
         this.resolvedFields = resolvedFields;
+        this.instantiationPlan = null;
+    }
+
+    public boolean isLazyInit() {
+        return this.lazyInit;
+    }
+
+    public void setLazyInit(boolean lazyInit) {
+        this.lazyInit = lazyInit;
+    }
+
+    public void setInstantiator(Runnable instantiator) {
+        this.instantiator = instantiator;
+    }
+
+    /**
+     * Runs the instantiator of a deferred service, blocking until the instance is fully created.
+     */
+    protected void instantiateIfDeferred() {
+        final Runnable instantiator = this.instantiator;
+        if (instantiator != null) {
+            instantiator.run();
+        }
+    }
+
+    /**
+     * @return factory for the current target constructor, autowired fields and post construct method.
+     */
+    public ServiceInstanceFactory getInstanceFactory() {
+        ServiceInstanceFactory instanceFactory = this.instanceFactory;
+        if (instanceFactory == null || !instanceFactory.isCreatedFor(
+                this.targetConstructor, this.autowireAnnotatedFields, this.postConstructMethod)) {
+            instanceFactory = new ServiceInstanceFactory(
+                    this.targetConstructor, this.autowireAnnotatedFields, this.postConstructMethod
+            );
+            this.instanceFactory = instanceFactory;
+        }
+
+        return instanceFactory;
+    }
+
+    /**
+     * @return plan for the resolved dependencies, created once and reused until they are replaced.
+     */
+    public InstantiationPlan getInstantiationPlan() {
+        InstantiationPlan instantiationPlan = this.instantiationPlan;
+        if (instantiationPlan == null) {
+            instantiationPlan = new InstantiationPlan(
+                    this.getInstanceFactory(), this.resolvedConstructorParams, this.resolvedFields
+            );
+            this.instantiationPlan = instantiationPlan;
+        }
+
+        return instantiationPlan;
+    }
+
+    public int getPoolMaxSize() {
+        return this.poolMaxSize;
+    }
+
+    public long getPoolMaxIdleMillis() {
+        return this.poolMaxIdleMillis;
+    }
+
+    public void setPoolSettings(int maxSize, long maxIdleMillis) {
+        this.poolMaxSize = maxSize;
+        this.poolMaxIdleMillis = maxIdleMillis;
+    }
+
+    public ServicePool<Object> getServicePool() {
+        ServicePool<Object> servicePool = this.servicePool;
+        if (servicePool == null) {
+            synchronized (this) {
+                servicePool = this.servicePool;
+                if (servicePool == null) {
+                    servicePool = this.createServicePool();
+                    this.servicePool = servicePool;
+                }
+            }
+        }
+
+        return servicePool;
+    }
+
+    /**
+     * Detaches the pool of this service, eg. to close it when the service is destroyed,
+     * the next call to {@link #getServicePool()} creates a new pool.
+     *
+     * @return the detached pool or null if it was never requested.
+     */
+    public synchronized ServicePool<Object> removeServicePool() {
+        final ServicePool<Object> servicePool = this.servicePool;
+        this.servicePool = null;
+
+        return servicePool;
+    }
+
+    /**
+     * @return new instance that is not set to this service.
+     */
+    protected Object createNewInstance() {
+        return ObjectInstantiationUtils.createNewInstance(this);
+    }
+
+    private ServicePool<Object> createServicePool() {
+        Predicate<Object> validator = null;
+        for (Method method : ClassIntrospectionUtils.getIntrospection(this.serviceType)
+                .getMethodsByAnnotation(PoolValidate.class)) {
+            if (method.getParameterCount() == 0 && method.getReturnType() == boolean.class) {
+                final MethodHandle validationMethod = ServiceInstanceFactory.createNoParamsMethodHandle(method);
+                validator = instance -> {
+                    try {
+                        return (boolean) (Object) validationMethod.invokeExact(instance);
+                    } catch (Throwable t) {
+                        //Instances that fail to validate are treated as invalid.
+                        return false;
+                    }
+                };
+
+                break;
+            }
+        }
+
+        return new ServicePool<>(
+                this.poolMaxSize,
+                this.poolMaxIdleMillis,
+                this::createNewInstance,
+                validator,
+                instance -> ObjectInstantiationUtils.invokePreDestroy(this, instance)
+        );
+    }
+
+    /**
+     * @return true only for the first caller, who gets the instance created at startup.
+     */
+    protected boolean claimInitialInstance() {
+        return !this.instanceRequested.get() && this.instanceRequested.compareAndSet(false, true);
     }
 
     public Map<Method, List<MethodAspectHandlerDto>> getMethodAspectHandlers() {
@@ -0,0 +1,164 @@
+package com.cyecize.ioc.models;
+
+import com.cyecize.ioc.exceptions.ServiceInstantiationException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Method handles for the constructor, {@link com.cyecize.ioc.annotations.Autowired} fields
+ * and post construct method of a service, created once and reused for every instance of the service.
+ * <p>
+ * Every handle is adapted once to a fixed, erased type and called with invokeExact, so calls neither box
+ * into a new argument list nor adapt the handle again. Exceptions thrown by the invoked members are wrapped
+ * in {@link InvocationTargetException}, same as with reflection.
+ */
+public class ServiceInstanceFactory {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodType LIFECYCLE_METHOD_TYPE = MethodType.methodType(void.class, Object.class);
+
+    private static final MethodType NO_PARAMS_METHOD_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SPREAD_METHOD_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final Constructor<?> constructor;
+
+    private final Field[] fields;
+
+    private final Method postConstructMethod;
+
+    private final MethodHandle constructorHandle;
+
+    private final MethodHandle[] fieldSetters;
+
+    private final MethodHandle postConstructHandle;
+
+    public ServiceInstanceFactory(Constructor<?> constructor, Field[] fields, Method postConstructMethod) {
+        this.constructor = constructor;
+        this.fields = fields;
+        this.postConstructMethod = postConstructMethod;
+
+        try {
+            constructor.trySetAccessible();
+            this.constructorHandle = LOOKUP.unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount())
+                    .asType(CONSTRUCTOR_TYPE);
+
+            this.fieldSetters = new MethodHandle[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i].trySetAccessible();
+                this.fieldSetters[i] = LOOKUP.unreflectSetter(fields[i]).asType(SETTER_TYPE);
+            }
+
+            this.postConstructHandle = postConstructMethod == null
+                    ? null
+                    : createMethodHandle(postConstructMethod, LIFECYCLE_METHOD_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new ServiceInstantiationException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return true if this factory was created for the given members.
+     */
+    public boolean isCreatedFor(Constructor<?> constructor, Field[] fields, Method postConstructMethod) {
+        return this.constructor == constructor && this.fields == fields && this.postConstructMethod == postConstructMethod;
+    }
+
+    public Object newInstance(Object[] constructorParams) throws InvocationTargetException {
+        try {
+            return (Object) this.constructorHandle.invokeExact(constructorParams);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    public void setFields(Object instance, Object[] fieldInstances) throws InvocationTargetException {
+        try {
+            for (int i = 0; i < this.fieldSetters.length; i++) {
+                this.fieldSetters[i].invokeExact(instance, fieldInstances[i]);
+            }
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    public void invokePostConstruct(Object instance) throws InvocationTargetException {
+        if (this.postConstructHandle == null) {
+            return;
+        }
+
+        try {
+            this.postConstructHandle.invokeExact(instance);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * @return handle of type (Object)void that invokes the given zero params method, eg. pre destroy method,
+     * on the given instance.
+     */
+    public static MethodHandle createLifecycleMethodHandle(Method method) {
+        try {
+            return createMethodHandle(method, LIFECYCLE_METHOD_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new ServiceInstantiationException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return handle of type (Object)Object that invokes the given zero params method, eg. bean method,
+     * on the given instance.
+     */
+    public static MethodHandle createNoParamsMethodHandle(Method method) {
+        try {
+            return createMethodHandle(method, NO_PARAMS_METHOD_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new ServiceInstantiationException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return handle of type (Object, Object[])Object that invokes the given method on the given instance
+     * with the elements of the array as params, void methods return null.
+     */
+    public static MethodHandle createSpreadMethodHandle(Method method) {
+        try {
+            return unreflect(method)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(SPREAD_METHOD_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new ServiceInstantiationException(e.getMessage(), e);
+        }
+    }
+
+    private static MethodHandle createMethodHandle(Method method, MethodType type) throws IllegalAccessException {
+        return unreflect(method).asType(type);
+    }
+
+    /**
+     * @return handle that takes the instance as first param, ignored for static methods.
+     */
+    private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        method.trySetAccessible();
+        final MethodHandle handle = LOOKUP.unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            return MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+
+        return handle;
+    }
+}
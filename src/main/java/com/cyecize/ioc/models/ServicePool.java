@@ -0,0 +1,231 @@
+package com.cyecize.ioc.models;
+
+import com.cyecize.ioc.exceptions.ServiceInstantiationException;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of instances of a {@link com.cyecize.ioc.enums.ScopeType#POOLED} service.
+ * <p>
+ * Every borrowed instance holds one of the permits of the pool, so no more than the max size of instances
+ * are in use at the same time. Idle instances are kept in a lock free deque, the most recently released
+ * instance is borrowed first and the ones that stayed idle for too long are evicted from the other end
+ * whenever an instance is borrowed or released. Eviction is not scheduled, a pool that is not used keeps its idle
+ * instances until it is used again or {@link #evictIdleInstances()} is called.
+ * Evicted and invalid instances are destroyed, a failure to destroy one of them is ignored
+ * since the instance is discarded either way.
+ * <p>
+ * Once the pool is closed, it destroys its idle instances and the borrowed ones when they are released.
+ *
+ * @param <T> - type of the pooled service.
+ */
+public class ServicePool<T> {
+
+    public static final int DEFAULT_MAX_SIZE = 8;
+
+    public static final long DEFAULT_MAX_IDLE_MILLIS = 60_000;
+
+    private static final String POOL_CLOSED_MSG = "The pool is closed.";
+
+    private final Supplier<T> instanceFactory;
+
+    private final Predicate<T> validator;
+
+    private final Consumer<T> destroyer;
+
+    private final long maxIdleNanos;
+
+    private final Semaphore permits;
+
+    private final ConcurrentLinkedDeque<IdleInstance<T>> idleInstances;
+
+    private volatile boolean closed;
+
+    public ServicePool(int maxSize,
+                       long maxIdleMillis,
+                       Supplier<T> instanceFactory,
+                       Predicate<T> validator,
+                       Consumer<T> destroyer) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1.");
+        }
+
+        this.instanceFactory = instanceFactory;
+        this.validator = validator;
+        this.destroyer = destroyer;
+        this.maxIdleNanos = TimeUnit.MILLISECONDS.toNanos(maxIdleMillis);
+        this.permits = new Semaphore(maxSize);
+        this.idleInstances = new ConcurrentLinkedDeque<>();
+    }
+
+    /**
+     * Borrows an idle instance or creates a new one, waiting if all instances are in use.
+     *
+     * @throws IllegalStateException - if the pool is closed.
+     */
+    public PooledInstance<T> borrow() {
+        this.ensureOpen();
+        try {
+            this.permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceInstantiationException("Interrupted while waiting for a pooled instance.", e);
+        }
+
+        return this.takeInstance();
+    }
+
+    /**
+     * @return borrowed instance or null if all instances are still in use after the given timeout.
+     */
+    public PooledInstance<T> borrow(long timeout, TimeUnit unit) {
+        this.ensureOpen();
+        try {
+            if (!this.permits.tryAcquire(timeout, unit)) {
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceInstantiationException("Interrupted while waiting for a pooled instance.", e);
+        }
+
+        return this.takeInstance();
+    }
+
+    /**
+     * Returns a borrowed instance to the pool, each borrowed instance must be released exactly once.
+     * The instance is destroyed instead if the pool is closed.
+     */
+    public void release(T instance) {
+        if (this.closed) {
+            this.permits.release();
+            this.discardInstance(instance);
+            return;
+        }
+
+        this.idleInstances.offerFirst(new IdleInstance<>(instance, System.nanoTime()));
+        this.permits.release();
+
+        //The pool can be closed after the check above, then the instance must not stay idle.
+        if (this.closed) {
+            this.discardIdleInstances();
+            return;
+        }
+
+        this.evictIdleInstances();
+    }
+
+    /**
+     * Destroys the instances that stayed idle for longer than allowed.
+     */
+    public void evictIdleInstances() {
+        if (this.maxIdleNanos <= 0) {
+            return;
+        }
+
+        final long now = System.nanoTime();
+        IdleInstance<T> oldest = this.idleInstances.peekLast();
+        while (oldest != null && now - oldest.releasedAt > this.maxIdleNanos) {
+            if (this.idleInstances.removeLastOccurrence(oldest)) {
+                this.discardInstance(oldest.instance);
+            }
+
+            oldest = this.idleInstances.peekLast();
+        }
+    }
+
+    /**
+     * Closes the pool when the service is destroyed and destroys all idle instances,
+     * instances that are still borrowed are destroyed when they are released.
+     * Every instance is destroyed even if some fail, the first failure is rethrown with the others suppressed.
+     */
+    public void close() {
+        this.closed = true;
+
+        RuntimeException failure = null;
+        IdleInstance<T> idleInstance;
+        while ((idleInstance = this.idleInstances.pollLast()) != null) {
+            try {
+                this.destroyer.accept(idleInstance.instance);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    public int getIdleCount() {
+        return this.idleInstances.size();
+    }
+
+    public int getAvailablePermits() {
+        return this.permits.availablePermits();
+    }
+
+    private PooledInstance<T> takeInstance() {
+        try {
+            this.evictIdleInstances();
+
+            IdleInstance<T> idleInstance;
+            while ((idleInstance = this.idleInstances.pollFirst()) != null) {
+                if (this.validator == null || this.validator.test(idleInstance.instance)) {
+                    return new PooledInstance<>(this, idleInstance.instance);
+                }
+
+                this.discardInstance(idleInstance.instance);
+            }
+
+            return new PooledInstance<>(this, this.instanceFactory.get());
+        } catch (RuntimeException | Error e) {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    private void ensureOpen() {
+        if (this.closed) {
+            throw new IllegalStateException(POOL_CLOSED_MSG);
+        }
+    }
+
+    private void discardIdleInstances() {
+        IdleInstance<T> idleInstance;
+        while ((idleInstance = this.idleInstances.pollLast()) != null) {
+            this.discardInstance(idleInstance.instance);
+        }
+    }
+
+    private void discardInstance(T instance) {
+        try {
+            this.destroyer.accept(instance);
+        } catch (RuntimeException ignored) {
+        }
+    }
+
+    private static class IdleInstance<T> {
+        private final T instance;
+
+        private final long releasedAt;
+
+        private IdleInstance(T instance, long releasedAt) {
+            this.instance = instance;
+            this.releasedAt = releasedAt;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.cyecize.ioc.models;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of services and their beans by every super class and interface of their type
+ * and by their normalized instance name.
+ * <p>
+ * Candidates are kept in the order of the given services, each service followed by its beans.
+ */
+public class ServiceTypeIndex {
+
+    private final Map<Class<?>, List<ResolvedServiceDto>> servicesByType;
+
+    private final Map<String, List<ResolvedServiceDto>> servicesByInstanceName;
+
+    public ServiceTypeIndex(Collection<ServiceDetails> serviceDetails) {
+        this.servicesByType = new HashMap<>();
+        this.servicesByInstanceName = new HashMap<>();
+
+        for (ServiceDetails service : serviceDetails) {
+            this.add(new ResolvedServiceDto(service, service));
+
+            for (ServiceBeanDetails bean : service.getBeans()) {
+                this.add(new ResolvedServiceDto(service, bean));
+            }
+        }
+    }
+
+    /**
+     * @return services and beans whose type or instance type is assignable to the given type.
+     */
+    public List<ResolvedServiceDto> getServicesByType(Class<?> type) {
+        return this.servicesByType.getOrDefault(type, List.of());
+    }
+
+    /**
+     * @return services and beans whose instance name equals the given one, ignoring case.
+     */
+    public List<ResolvedServiceDto> getServicesByInstanceName(String instanceName) {
+        return this.servicesByInstanceName.getOrDefault(normalizeInstanceName(instanceName), List.of());
+    }
+
+    private void add(ResolvedServiceDto resolvedService) {
+        final ServiceDetails actualService = resolvedService.getActualService();
+
+        final Set<Class<?>> types = new LinkedHashSet<>();
+        collectTypes(actualService.getServiceType(), types);
+        final Object actualInstance = actualService.getActualInstance();
+        if (actualInstance != null) {
+            //Instances of provided services and proxies can be more specific than the service type.
+            collectTypes(actualInstance.getClass(), types);
+        }
+
+        for (Class<?> type : types) {
+            this.servicesByType.computeIfAbsent(type, k -> new ArrayList<>()).add(resolvedService);
+        }
+
+        if (actualService.getInstanceName() != null) {
+            this.servicesByInstanceName.computeIfAbsent(
+                    normalizeInstanceName(actualService.getInstanceName()), k -> new ArrayList<>()
+            ).add(resolvedService);
+        }
+    }
+
+    private static void collectTypes(Class<?> type, Set<Class<?>> types) {
+        if (type == null || !types.add(type)) {
+            return;
+        }
+
+        collectTypes(type.getSuperclass(), types);
+        for (Class<?> interfaceType : type.getInterfaces()) {
+            collectTypes(interfaceType, types);
+        }
+    }
+
+    /**
+     * Folds the case of every character the same way as {@link String#equalsIgnoreCase(String)} compares them.
+     */
+    private static String normalizeInstanceName(String instanceName) {
+        final char[] chars = instanceName.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+
+        return new String(chars);
+    }
+}
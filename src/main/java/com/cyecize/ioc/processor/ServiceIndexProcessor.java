@@ -0,0 +1,271 @@
+package com.cyecize.ioc.processor;
+
+import com.cyecize.ioc.annotations.AliasFor;
+import com.cyecize.ioc.annotations.Bean;
+import com.cyecize.ioc.annotations.Service;
+import com.cyecize.ioc.constants.Constants;
+import com.cyecize.ioc.enums.ServiceIndexEntryType;
+import com.cyecize.ioc.handlers.ServiceMethodAspectHandler;
+import com.cyecize.ioc.utils.ServiceIndexUtils;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Optional annotation processor that writes an index of the classes that MagicInjector
+ * needs to {@link Constants#SERVICE_INDEX_LOCATION}.
+ * <p>
+ * When the index is present in a scanned directory or jar, the classpath is not scanned and only
+ * the indexed classes are loaded.
+ * <p>
+ * The processor is not registered automatically, enable it with
+ * '-processor com.cyecize.ioc.processor.ServiceIndexProcessor'.
+ * The processor is part of the runtime artifact but it is not listed in META-INF/services,
+ * so compilers never discover it on their own.
+ * Custom service and bean annotations can be provided as comma separated class names with the
+ * '-Amagic.ioc.serviceAnnotations=' and '-Amagic.ioc.beanAnnotations=' options. They are recorded in the index,
+ * and an index that lacks a custom annotation of the scanning configuration is not used.
+ * <p>
+ * Entries from a previous compilation are kept as long as their classes still exist, so that
+ * incremental builds produce a complete index.
+ */
+public class ServiceIndexProcessor extends AbstractProcessor {
+
+    public static final String SERVICE_ANNOTATIONS_OPTION = "magic.ioc.serviceAnnotations";
+
+    public static final String BEAN_ANNOTATIONS_OPTION = "magic.ioc.beanAnnotations";
+
+    private final Map<String, Set<ServiceIndexEntryType>> indexEntries = new TreeMap<>();
+
+    private final Set<String> serviceAnnotations = new HashSet<>();
+
+    private final Set<String> beanAnnotations = new HashSet<>();
+
+    private TypeMirror aspectHandlerType;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+
+        this.serviceAnnotations.add(Service.class.getName());
+        this.serviceAnnotations.addAll(this.readOption(SERVICE_ANNOTATIONS_OPTION));
+
+        this.beanAnnotations.add(Bean.class.getName());
+        this.beanAnnotations.addAll(this.readOption(BEAN_ANNOTATIONS_OPTION));
+
+        final TypeElement aspectHandlerElement = processingEnv.getElementUtils()
+                .getTypeElement(ServiceMethodAspectHandler.class.getName());
+        this.aspectHandlerType = processingEnv.getTypeUtils().erasure(aspectHandlerElement.asType());
+
+        this.readPreviousIndex();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        //Aspect handlers are found by type so every class has to be visited.
+        return Set.of("*");
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Set.of(SERVICE_ANNOTATIONS_OPTION, BEAN_ANNOTATIONS_OPTION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement typeElement : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            this.processType(typeElement);
+        }
+
+        if (roundEnv.processingOver()) {
+            this.writeIndex();
+        }
+
+        return false;
+    }
+
+    private void processType(TypeElement typeElement) {
+        final String binaryName = this.processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+        final Set<ServiceIndexEntryType> entryTypes = EnumSet.noneOf(ServiceIndexEntryType.class);
+
+        if (typeElement.getKind() == ElementKind.ANNOTATION_TYPE) {
+            if (this.findAliasTarget(typeElement) != null) {
+                entryTypes.add(ServiceIndexEntryType.ALIAS);
+            }
+        } else if (typeElement.getKind() == ElementKind.CLASS) {
+            if (this.isService(typeElement)) {
+                entryTypes.add(ServiceIndexEntryType.SERVICE);
+            }
+
+            if (this.hasBeanMethods(typeElement)) {
+                entryTypes.add(ServiceIndexEntryType.BEAN_HOLDER);
+            }
+
+            final TypeMirror erasedType = this.processingEnv.getTypeUtils().erasure(typeElement.asType());
+            if (this.processingEnv.getTypeUtils().isAssignable(erasedType, this.aspectHandlerType)) {
+                entryTypes.add(ServiceIndexEntryType.ASPECT_HANDLER);
+            }
+        }
+
+        //Replaces whatever a previous compilation might have recorded for this type.
+        this.indexEntries.remove(binaryName);
+        if (!entryTypes.isEmpty()) {
+            this.indexEntries.put(binaryName, entryTypes);
+        }
+
+        for (TypeElement nestedType : ElementFilter.typesIn(typeElement.getEnclosedElements())) {
+            this.processType(nestedType);
+        }
+    }
+
+    private boolean isService(TypeElement typeElement) {
+        //Includes annotations inherited from super classes.
+        for (AnnotationMirror annotationMirror : this.processingEnv.getElementUtils().getAllAnnotationMirrors(typeElement)) {
+            if (this.matches(annotationMirror, this.serviceAnnotations)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean hasBeanMethods(TypeElement typeElement) {
+        for (ExecutableElement method : ElementFilter.methodsIn(typeElement.getEnclosedElements())) {
+            for (AnnotationMirror annotationMirror : method.getAnnotationMirrors()) {
+                if (this.matches(annotationMirror, this.beanAnnotations)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean matches(AnnotationMirror annotationMirror, Set<String> annotationNames) {
+        final TypeElement annotationElement = (TypeElement) annotationMirror.getAnnotationType().asElement();
+
+        return annotationNames.contains(annotationElement.getQualifiedName().toString())
+                || annotationNames.contains(this.findAliasTarget(annotationElement));
+    }
+
+    /**
+     * @param annotationElement - annotation type.
+     * @return qualified name of the {@link AliasFor} value or null if the annotation is not an alias.
+     */
+    private String findAliasTarget(TypeElement annotationElement) {
+        for (AnnotationMirror annotationMirror : annotationElement.getAnnotationMirrors()) {
+            final TypeElement type = (TypeElement) annotationMirror.getAnnotationType().asElement();
+            if (!type.getQualifiedName().contentEquals(AliasFor.class.getName())) {
+                continue;
+            }
+
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : annotationMirror.getElementValues().entrySet()) {
+                final Object value = entry.getValue().getValue();
+                if (value instanceof DeclaredType) {
+                    return ((TypeElement) ((DeclaredType) value).asElement()).getQualifiedName().toString();
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private Set<String> readOption(String option) {
+        final String value = this.processingEnv.getOptions().get(option);
+        if (value == null || value.isBlank()) {
+            return Set.of();
+        }
+
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private void readPreviousIndex() {
+        try {
+            final FileObject resource = this.processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", Constants.SERVICE_INDEX_LOCATION);
+
+            try (Reader reader = resource.openReader(true);
+                 BufferedReader bufferedReader = new BufferedReader(reader)) {
+                ServiceIndexUtils.parse(bufferedReader, (entryType, className) -> {
+                    //Annotations are recorded from the options of the current compilation.
+                    if (entryType.isAnnotation()) {
+                        return;
+                    }
+
+                    if (this.typeExists(className)) {
+                        this.indexEntries.computeIfAbsent(className, k -> EnumSet.noneOf(ServiceIndexEntryType.class))
+                                .add(entryType);
+                    }
+                });
+            }
+        } catch (IOException | IllegalArgumentException ignored) {
+            //No previous index.
+        }
+    }
+
+    private void addAnnotationEntries(Set<String> annotationNames,
+                                      Class<?> defaultAnnotation,
+                                      ServiceIndexEntryType entryType) {
+        for (String annotationName : annotationNames) {
+            if (!annotationName.equals(defaultAnnotation.getName())) {
+                this.indexEntries.computeIfAbsent(annotationName, k -> EnumSet.noneOf(ServiceIndexEntryType.class))
+                        .add(entryType);
+            }
+        }
+    }
+
+    private boolean typeExists(String binaryName) {
+        return this.processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.')) != null;
+    }
+
+    private void writeIndex() {
+        try {
+            final FileObject resource = this.processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", Constants.SERVICE_INDEX_LOCATION);
+
+            this.addAnnotationEntries(this.serviceAnnotations, Service.class, ServiceIndexEntryType.SERVICE_ANNOTATION);
+            this.addAnnotationEntries(this.beanAnnotations, Bean.class, ServiceIndexEntryType.BEAN_ANNOTATION);
+
+            try (Writer writer = resource.openWriter()) {
+                ServiceIndexUtils.write(writer, this.indexEntries);
+            }
+        } catch (IOException e) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(
+                    "Could not write service index '%s': %s", Constants.SERVICE_INDEX_LOCATION, e.getMessage()
+            ));
+        }
+    }
+}
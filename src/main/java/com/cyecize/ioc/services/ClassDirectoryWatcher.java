@@ -0,0 +1,305 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.constants.Constants;
+import com.cyecize.ioc.models.ClassFileChanges;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches class directories for created, modified and deleted class files.
+ * <p>
+ * Every directory of the tree is registered with a {@link WatchService} and the last modified time and size
+ * of every class file is kept. When a directory reports an event, only that directory is listed again
+ * and compared with the previous listing. New sub directories are registered as they appear.
+ * If the watch service drops events, all watched directories are listed again.
+ */
+public class ClassDirectoryWatcher implements AutoCloseable {
+
+    private final WatchService watchService;
+
+    private final List<Path> rootDirectories;
+
+    /**
+     * Watched directory and the root directory to which it belongs.
+     */
+    private final Map<Path, Path> watchedDirectories;
+
+    private final Map<WatchKey, Path> watchKeys;
+
+    private final Map<Path, Map<Path, ClassFileState>> classFilesByDirectory;
+
+    public ClassDirectoryWatcher(File[] rootDirectories) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.rootDirectories = new ArrayList<>();
+        this.watchedDirectories = new HashMap<>();
+        this.watchKeys = new HashMap<>();
+        this.classFilesByDirectory = new HashMap<>();
+
+        try {
+            for (File rootDirectory : rootDirectories) {
+                final Path root = rootDirectory.toPath().toAbsolutePath().normalize();
+                if (!this.rootDirectories.contains(root)) {
+                    this.rootDirectories.add(root);
+                    this.registerTree(root, root, new ClassFileChanges());
+                }
+            }
+        } catch (RuntimeException e) {
+            this.watchService.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return binary names and files of all watched classes. If the same class is present in more than one root,
+     * the first root in the given order wins.
+     */
+    public synchronized Map<String, Path> getClassFiles() {
+        final Map<String, Path> classFiles = new LinkedHashMap<>();
+        for (Map.Entry<Path, Map<Path, ClassFileState>> entry : this.classFilesByDirectory.entrySet()) {
+            final Path root = this.watchedDirectories.get(entry.getKey());
+            for (Path classFile : entry.getValue().keySet()) {
+                final String className = toClassName(root, classFile);
+                final Path current = classFiles.get(className);
+                if (current == null || this.rootIndex(root) < this.rootIndex(this.watchedDirectories.get(current.getParent()))) {
+                    classFiles.put(className, classFile);
+                }
+            }
+        }
+
+        return classFiles;
+    }
+
+    /**
+     * Collects the changes reported so far without waiting.
+     */
+    public ClassFileChanges pollChanges() {
+        final Set<Path> changedDirectories = new HashSet<>();
+        boolean overflow = false;
+
+        WatchKey watchKey;
+        while ((watchKey = this.watchService.poll()) != null) {
+            overflow |= this.collectEvents(watchKey, changedDirectories);
+        }
+
+        return this.applyEvents(changedDirectories, overflow);
+    }
+
+    /**
+     * Waits for the first change and then for a period without further events, so that a compiler
+     * writing many class files produces a single set of changes.
+     *
+     * @param quietPeriodMillis - time without events after which the changes are returned.
+     */
+    public ClassFileChanges awaitChanges(long quietPeriodMillis) throws InterruptedException {
+        final Set<Path> changedDirectories = new HashSet<>();
+
+        WatchKey watchKey = this.watchService.take();
+        boolean overflow = this.collectEvents(watchKey, changedDirectories);
+        while ((watchKey = this.watchService.poll(quietPeriodMillis, TimeUnit.MILLISECONDS)) != null) {
+            overflow |= this.collectEvents(watchKey, changedDirectories);
+        }
+
+        return this.applyEvents(changedDirectories, overflow);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.watchService.close();
+    }
+
+    /**
+     * @return true if events were dropped.
+     */
+    private synchronized boolean collectEvents(WatchKey watchKey, Set<Path> changedDirectories) {
+        boolean overflow = false;
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+            }
+        }
+
+        final Path directory = this.watchKeys.get(watchKey);
+        if (directory != null) {
+            changedDirectories.add(directory);
+        }
+
+        //An invalid key means that the directory is gone, it is removed when listed again.
+        watchKey.reset();
+        return overflow;
+    }
+
+    private synchronized ClassFileChanges applyEvents(Set<Path> changedDirectories, boolean overflow) {
+        final ClassFileChanges changes = new ClassFileChanges();
+
+        final Set<Path> directories = new HashSet<>(changedDirectories);
+        if (overflow) {
+            directories.addAll(this.watchedDirectories.keySet());
+        }
+
+        for (Path directory : directories) {
+            final Path root = this.watchedDirectories.get(directory);
+            if (root != null) {
+                this.syncDirectory(directory, root, changes);
+            }
+        }
+
+        return changes;
+    }
+
+    private void registerTree(Path directory, Path root, ClassFileChanges changes) {
+        try {
+            this.watchKeys.put(directory.register(
+                    this.watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE
+            ), directory);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+
+        this.watchedDirectories.put(directory, root);
+        this.syncDirectory(directory, root, changes);
+    }
+
+    /**
+     * Lists the class files of the given directory and records the differences with the previous listing.
+     * Sub directories that were not watched yet are registered and sub directories that are gone are removed.
+     */
+    private void syncDirectory(Path directory, Path root, ClassFileChanges changes) {
+        final Map<Path, ClassFileState> previousFiles = this.classFilesByDirectory.getOrDefault(directory, Map.of());
+        final Map<Path, ClassFileState> currentFiles = new HashMap<>();
+        final Set<Path> subDirectories = new HashSet<>();
+
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory)) {
+            for (Path path : directoryStream) {
+                final BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+
+                if (attributes.isDirectory()) {
+                    subDirectories.add(path);
+                } else if (path.getFileName().toString().endsWith(Constants.JAVA_BINARY_EXTENSION)) {
+                    currentFiles.put(path, new ClassFileState(attributes.lastModifiedTime().toMillis(), attributes.size()));
+                }
+            }
+        } catch (NoSuchFileException e) {
+            this.removeTree(directory, changes);
+            return;
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+
+        for (Map.Entry<Path, ClassFileState> entry : currentFiles.entrySet()) {
+            final ClassFileState previousState = previousFiles.get(entry.getKey());
+            if (previousState == null) {
+                changes.getCreatedClasses().add(toClassName(root, entry.getKey()));
+            } else if (!previousState.equals(entry.getValue())) {
+                changes.getModifiedClasses().add(toClassName(root, entry.getKey()));
+            }
+        }
+
+        for (Path previousFile : previousFiles.keySet()) {
+            if (!currentFiles.containsKey(previousFile)) {
+                changes.getDeletedClasses().add(toClassName(root, previousFile));
+            }
+        }
+
+        this.classFilesByDirectory.put(directory, currentFiles);
+
+        for (Path watchedDirectory : new ArrayList<>(this.watchedDirectories.keySet())) {
+            if (directory.equals(watchedDirectory.getParent()) && !subDirectories.contains(watchedDirectory)) {
+                this.removeTree(watchedDirectory, changes);
+            }
+        }
+
+        for (Path subDirectory : subDirectories) {
+            if (!this.watchedDirectories.containsKey(subDirectory)) {
+                this.registerTree(subDirectory, root, changes);
+            }
+        }
+    }
+
+    private void removeTree(Path directory, ClassFileChanges changes) {
+        for (Path watchedDirectory : new ArrayList<>(this.watchedDirectories.keySet())) {
+            if (!watchedDirectory.startsWith(directory)) {
+                continue;
+            }
+
+            final Path root = this.watchedDirectories.remove(watchedDirectory);
+            final Map<Path, ClassFileState> classFiles = this.classFilesByDirectory.remove(watchedDirectory);
+            if (classFiles != null) {
+                classFiles.keySet().forEach(classFile -> changes.getDeletedClasses().add(toClassName(root, classFile)));
+            }
+        }
+
+        this.watchKeys.entrySet().removeIf(entry -> {
+            if (!entry.getValue().startsWith(directory)) {
+                return false;
+            }
+
+            entry.getKey().cancel();
+            return true;
+        });
+    }
+
+    private int rootIndex(Path root) {
+        return this.rootDirectories.indexOf(root);
+    }
+
+    private static String toClassName(Path root, Path classFile) {
+        final String path = root.relativize(classFile).toString();
+        return path.substring(0, path.length() - Constants.JAVA_BINARY_EXTENSION.length())
+                .replace(File.separatorChar, '.');
+    }
+
+    private static class ClassFileState {
+        private final long lastModified;
+
+        private final long size;
+
+        private ClassFileState(long lastModified, long size) {
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ClassFileState)) {
+                return false;
+            }
+
+            final ClassFileState otherState = (ClassFileState) other;
+            return this.lastModified == otherState.lastModified && this.size == otherState.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(this.lastModified) * 31 + Long.hashCode(this.size);
+        }
+    }
+}
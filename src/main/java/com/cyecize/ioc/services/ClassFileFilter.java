@@ -0,0 +1,12 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.models.ClassFileMetadata;
+
+/**
+ * Decides, based on data read from the class file, whether a class should be loaded by a {@link ClassLocator}.
+ */
+@FunctionalInterface
+public interface ClassFileFilter {
+
+    boolean isCandidate(ClassFileMetadata classFileMetadata);
+}
@@ -0,0 +1,152 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.annotations.AliasFor;
+import com.cyecize.ioc.annotations.Service;
+import com.cyecize.ioc.config.configurations.ScanningConfiguration;
+import com.cyecize.ioc.constants.Constants;
+import com.cyecize.ioc.models.ClassFileMetadata;
+import com.cyecize.ioc.utils.AliasFinder;
+import com.cyecize.ioc.utils.ClassFileUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ClassFileFilter} implementation that accepts only classes that can be mapped as services.
+ * <p>
+ * A class is a candidate if it is not an interface, enum or annotation and it is annotated with one
+ * of the service annotations from {@link ScanningConfiguration} or with an annotation that is
+ * a direct or transitive {@link AliasFor} one of them.
+ * If any of those annotations is {@link Inherited}, the super classes are read as well.
+ * <p>
+ * Annotation types are loaded without being initialized and the result is cached per annotation type.
+ */
+public class ClassFileFilterForServiceAnnotations implements ClassFileFilter {
+
+    private final Set<Class<? extends Annotation>> serviceAnnotations;
+
+    private final ClassLoader classLoader;
+
+    private final Map<String, AnnotationKind> annotationKinds;
+
+    private final Map<String, Boolean> classesWithInheritedServiceAnnotation;
+
+    private final boolean hasInheritedServiceAnnotations;
+
+    public ClassFileFilterForServiceAnnotations(ScanningConfiguration configuration) {
+        //Service is added explicitly in case the configuration was not initialized by the scanning service yet.
+        final Set<Class<? extends Annotation>> serviceAnnotations = new HashSet<>(
+                configuration.getCustomServiceAnnotations()
+        );
+        serviceAnnotations.add(Service.class);
+        this.serviceAnnotations = Set.copyOf(serviceAnnotations);
+        this.classLoader = configuration.getClassLoader();
+        this.annotationKinds = new ConcurrentHashMap<>();
+        this.classesWithInheritedServiceAnnotation = new ConcurrentHashMap<>();
+        this.hasInheritedServiceAnnotations = this.serviceAnnotations.stream()
+                .anyMatch(a -> a.isAnnotationPresent(Inherited.class));
+    }
+
+    @Override
+    public boolean isCandidate(ClassFileMetadata classFileMetadata) {
+        if (classFileMetadata.isInterface() || classFileMetadata.isEnum() || classFileMetadata.isAnnotation()) {
+            return false;
+        }
+
+        for (String annotationType : classFileMetadata.getAnnotationTypes()) {
+            if (this.getAnnotationKind(annotationType) != AnnotationKind.NONE) {
+                return true;
+            }
+        }
+
+        if (this.hasInheritedServiceAnnotations && classFileMetadata.getSuperClassName() != null) {
+            return this.hasInheritedServiceAnnotation(classFileMetadata.getSuperClassName());
+        }
+
+        return false;
+    }
+
+    /**
+     * Walks the class hierarchy by reading class files through the class loader.
+     *
+     * @param className - binary name of the class.
+     * @return true if the class or any of its super classes has an {@link Inherited} service annotation.
+     */
+    private boolean hasInheritedServiceAnnotation(String className) {
+        final Boolean cached = this.classesWithInheritedServiceAnnotation.get(className);
+        if (cached != null) {
+            return cached;
+        }
+
+        final ClassFileMetadata metadata = this.readClassFile(className);
+        boolean result = false;
+        if (metadata != null) {
+            result = metadata.getAnnotationTypes().stream()
+                    .anyMatch(a -> this.getAnnotationKind(a) == AnnotationKind.INHERITED_SERVICE);
+
+            if (!result && metadata.getSuperClassName() != null) {
+                result = this.hasInheritedServiceAnnotation(metadata.getSuperClassName());
+            }
+        }
+
+        this.classesWithInheritedServiceAnnotation.put(className, result);
+        return result;
+    }
+
+    private ClassFileMetadata readClassFile(String className) {
+        final String resourceName = className.replace('.', '/') + Constants.JAVA_BINARY_EXTENSION;
+
+        try (InputStream inputStream = this.classLoader.getResourceAsStream(resourceName)) {
+            if (inputStream == null) {
+                return null;
+            }
+
+            return ClassFileUtils.readMetadata(inputStream.readAllBytes(), resourceName);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private AnnotationKind getAnnotationKind(String annotationType) {
+        return this.annotationKinds.computeIfAbsent(annotationType, this::resolveAnnotationKind);
+    }
+
+    private AnnotationKind resolveAnnotationKind(String annotationType) {
+        final Class<?> annotationCls;
+        try {
+            annotationCls = Class.forName(annotationType, false, this.classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            //Annotations that are missing from the classpath are ignored by the JVM as well.
+            return AnnotationKind.NONE;
+        }
+
+        if (!annotationCls.isAnnotation()) {
+            return AnnotationKind.NONE;
+        }
+
+        //Aliases are followed transitively, the same way services are recognized once their classes are loaded.
+        final boolean isServiceAnnotation = this.serviceAnnotations.contains(annotationCls)
+                || AliasFinder.getAliases(annotationCls.asSubclass(Annotation.class)).stream()
+                .anyMatch(this.serviceAnnotations::contains);
+
+        if (!isServiceAnnotation) {
+            return AnnotationKind.NONE;
+        }
+
+        if (annotationCls.isAnnotationPresent(Inherited.class)) {
+            return AnnotationKind.INHERITED_SERVICE;
+        }
+
+        return AnnotationKind.SERVICE;
+    }
+
+    private enum AnnotationKind {
+        NONE, SERVICE, INHERITED_SERVICE
+    }
+}
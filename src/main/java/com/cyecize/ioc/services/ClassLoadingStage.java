@@ -0,0 +1,281 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.exceptions.ClassLocationException;
+import com.cyecize.ioc.models.ClassFileMetadata;
+import com.cyecize.ioc.models.ScanCacheEntry;
+import com.cyecize.ioc.models.ScanCacheRoot;
+import com.cyecize.ioc.utils.ClassFileUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Loading stage shared by the {@link ClassLocator} implementations.
+ * <p>
+ * Locators submit every class file that they find and this stage applies the {@link ClassFileFilter} (if any)
+ * and loads the class.
+ * With more than one worker, class files are read and classes are loaded on a bounded pool while the locator keeps
+ * walking. Static initializers are not run by the workers, instead the located classes are initialized
+ * by the calling thread once all workers are done, which avoids class initialization deadlocks between workers.
+ * <p>
+ * With a single worker, or if the class loader is not registered as parallel capable, classes are loaded and
+ * initialized by the submitting thread in the order in which they are found.
+ * <p>
+ * If classes should not be initialized, they are only loaded and the caller is responsible for initializing them.
+ * <p>
+ * If a {@link ScanCacheRoot} is provided, metadata of unchanged class files is taken from the cache
+ * instead of reading the class file and every submitted class is recorded in the cache.
+ */
+public class ClassLoadingStage implements AutoCloseable {
+
+    private static final int QUEUE_SIZE_PER_WORKER = 64;
+
+    private static final String WORKER_NAME_FORMAT = "magic-class-loader-%d";
+
+    private final ClassFileFilter classFileFilter;
+
+    private final ScanCacheRoot scanCacheRoot;
+
+    private final ClassLoader classLoader;
+
+    private final boolean initializeClasses;
+
+    private final ExecutorService executorService;
+
+    private final Set<String> locatedClassNames;
+
+    private final AtomicReference<Throwable> error;
+
+    public ClassLoadingStage(ClassFileFilter classFileFilter, ClassLoader classLoader, int workers) {
+        this(classFileFilter, null, classLoader, workers);
+    }
+
+    public ClassLoadingStage(ClassFileFilter classFileFilter,
+                             ScanCacheRoot scanCacheRoot,
+                             ClassLoader classLoader,
+                             int workers) {
+        this(classFileFilter, scanCacheRoot, classLoader, workers, true);
+    }
+
+    public ClassLoadingStage(ClassFileFilter classFileFilter,
+                             ScanCacheRoot scanCacheRoot,
+                             ClassLoader classLoader,
+                             int workers,
+                             boolean initializeClasses) {
+        this.classFileFilter = classFileFilter;
+        this.scanCacheRoot = scanCacheRoot;
+        this.classLoader = classLoader;
+        this.initializeClasses = initializeClasses;
+        this.locatedClassNames = ConcurrentHashMap.newKeySet();
+        this.error = new AtomicReference<>();
+
+        if (workers > 1 && classLoader.isRegisteredAsParallelCapable()) {
+            this.executorService = createExecutor(workers);
+        } else {
+            this.executorService = null;
+        }
+    }
+
+    /**
+     * Filters and loads a class or schedules it to be filtered and loaded if the stage runs in parallel.
+     * <p>
+     * This method is thread safe.
+     *
+     * @param className       - binary name of the class.
+     * @param classFileSource - used to read the class file if a filter is present.
+     */
+    public void submit(String className, ClassFileSource classFileSource) throws ClassLocationException {
+        this.submit(className, 0, 0, classFileSource);
+    }
+
+    /**
+     * Same as {@link #submit(String, ClassFileSource)}, the last modified time and size of the class file
+     * are used to validate the cached metadata.
+     */
+    public void submit(String className,
+                       long lastModified,
+                       long size,
+                       ClassFileSource classFileSource) throws ClassLocationException {
+        this.execute(() -> this.process(className, lastModified, size, classFileSource));
+    }
+
+    /**
+     * Loads a class that is already known to be accepted by the filter.
+     */
+    public void submitCandidate(String className) throws ClassLocationException {
+        this.execute(() -> this.load(className));
+    }
+
+    private void execute(Runnable task) {
+        if (this.executorService == null) {
+            task.run();
+            return;
+        }
+
+        this.executorService.execute(() -> {
+            if (this.error.get() != null) {
+                return;
+            }
+
+            try {
+                task.run();
+            } catch (Throwable t) {
+                this.error.compareAndSet(null, t);
+            }
+        });
+    }
+
+    /**
+     * @return true if classes are loaded by a pool of workers and submitting from multiple threads is worth it.
+     */
+    public boolean isParallel() {
+        return this.executorService != null;
+    }
+
+    /**
+     * Waits for all submitted classes and initializes them unless initialization is disabled.
+     *
+     * @return set of located classes.
+     * @throws ClassLocationException - if any of the classes could not be loaded.
+     */
+    public Set<Class<?>> getLocatedClasses() throws ClassLocationException {
+        this.awaitWorkers();
+
+        final Throwable throwable = this.error.get();
+        if (throwable instanceof RuntimeException) {
+            throw (RuntimeException) throwable;
+        }
+
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+
+        if (throwable != null) {
+            throw new ClassLocationException(throwable.getMessage(), throwable);
+        }
+
+        final List<String> classNames = new ArrayList<>(this.locatedClassNames);
+        Collections.sort(classNames);
+
+        final Set<Class<?>> locatedClasses = new HashSet<>();
+        try {
+            for (String className : classNames) {
+                locatedClasses.add(Class.forName(className, this.initializeClasses, this.classLoader));
+            }
+        } catch (ClassNotFoundException e) {
+            throw new ClassLocationException(e.getMessage(), e);
+        }
+
+        return locatedClasses;
+    }
+
+    @Override
+    public void close() {
+        if (this.executorService != null) {
+            this.executorService.shutdownNow();
+        }
+    }
+
+    private void process(String className,
+                         long lastModified,
+                         long size,
+                         ClassFileSource classFileSource) throws ClassLocationException {
+        if (this.classFileFilter == null) {
+            if (this.scanCacheRoot != null) {
+                this.scanCacheRoot.putEntry(new ScanCacheEntry(className, lastModified, size, null));
+            }
+
+            this.load(className);
+            return;
+        }
+
+        ClassFileMetadata metadata = null;
+        if (this.scanCacheRoot != null) {
+            metadata = this.scanCacheRoot.getMetadata(className, lastModified, size);
+        }
+
+        if (metadata == null) {
+            metadata = this.readMetadata(className, classFileSource);
+            if (this.scanCacheRoot != null) {
+                this.scanCacheRoot.putEntry(new ScanCacheEntry(className, lastModified, size, metadata));
+            }
+        }
+
+        if (this.classFileFilter.isCandidate(metadata)) {
+            this.load(className);
+        }
+    }
+
+    private ClassFileMetadata readMetadata(String className, ClassFileSource classFileSource) {
+        try {
+            return ClassFileUtils.readMetadata(classFileSource.readClassFile(), className);
+        } catch (IOException e) {
+            throw new ClassLocationException(e.getMessage(), e);
+        }
+    }
+
+    private void load(String className) throws ClassLocationException {
+        try {
+            //Sequential stage keeps initializing classes in the order they are found.
+            Class.forName(className, this.initializeClasses && this.executorService == null, this.classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new ClassLocationException(e.getMessage(), e);
+        }
+
+        this.locatedClassNames.add(className);
+    }
+
+    private void awaitWorkers() {
+        if (this.executorService == null) {
+            return;
+        }
+
+        this.executorService.shutdown();
+        try {
+            while (!this.executorService.awaitTermination(1, TimeUnit.MINUTES)) {
+                //keep waiting, class loading is not time limited.
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClassLocationException(e.getMessage(), e);
+        }
+    }
+
+    private static ExecutorService createExecutor(int workers) {
+        final AtomicInteger threadCounter = new AtomicInteger();
+
+        return new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * QUEUE_SIZE_PER_WORKER),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, String.format(
+                            WORKER_NAME_FORMAT, threadCounter.incrementAndGet()
+                    ));
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                //When the queue is full the locator loads the class itself which slows down the walk.
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    /**
+     * Lazy access to the content of a class file.
+     */
+    @FunctionalInterface
+    public interface ClassFileSource {
+        byte[] readClassFile() throws IOException;
+    }
+}
@@ -0,0 +1,14 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.exceptions.ClassLocationException;
+
+import java.io.File;
+import java.util.Set;
+
+/**
+ * Locates the classes of all startup directories and jar files by picking a {@link ClassLocator} for each of them.
+ */
+public interface ClassLocationService {
+
+    Set<Class<?>> locateClasses(File[] startupDirectories) throws ClassLocationException;
+}
@@ -0,0 +1,253 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.annotations.Bean;
+import com.cyecize.ioc.annotations.Service;
+import com.cyecize.ioc.config.configurations.ScanningConfiguration;
+import com.cyecize.ioc.enums.DirectoryType;
+import com.cyecize.ioc.events.DuplicateClassLocated;
+import com.cyecize.ioc.exceptions.ClassLocationException;
+import com.cyecize.ioc.models.Directory;
+
+import java.io.File;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ClassLocationService} implementation.
+ * <p>
+ * If parallelism is greater than one and there are multiple roots, the roots are scanned concurrently
+ * and the configured parallelism is split between them. In that case classes are only loaded while scanning
+ * and are initialized afterwards, root by root, by the calling thread.
+ * <p>
+ * If the same class name is found in more than one root, duplicates are reported to the
+ * {@link DuplicateClassLocated} callbacks, nothing else is done about them. Classes are loaded by name
+ * through the context class loader (or the {@link NestedJarClassLoader} of a fat jar), so which root a class
+ * comes from is decided by that class loader, not by the order of the roots.
+ */
+public class ClassLocationServiceImpl implements ClassLocationService {
+
+    private static final String WORKER_NAME_FORMAT = "magic-root-scanner-%d";
+
+    private final ScanningConfiguration configuration;
+
+    private final DirectoryResolver directoryResolver;
+
+    private final ClassFileFilter classFileFilter;
+
+    private final PackageFilter packageFilter;
+
+    public ClassLocationServiceImpl(ScanningConfiguration configuration) {
+        this.configuration = configuration;
+        this.directoryResolver = new DirectoryResolverImpl();
+
+        if (configuration.isPreFilterClassFiles()) {
+            this.classFileFilter = new ClassFileFilterForServiceAnnotations(configuration);
+        } else {
+            this.classFileFilter = null;
+        }
+
+        if (!configuration.getIncludedPackages().isEmpty() || !configuration.getExcludedPackages().isEmpty()) {
+            this.packageFilter = new PackageFilterImpl(
+                    configuration.getIncludedPackages(), configuration.getExcludedPackages()
+            );
+        } else {
+            this.packageFilter = null;
+        }
+    }
+
+    @Override
+    public Set<Class<?>> locateClasses(File[] startupDirectories) throws ClassLocationException {
+        final List<Directory> directories = this.resolveDirectories(startupDirectories);
+
+        ScanCacheService scanCacheService = null;
+        if (this.configuration.getScanCacheFile() != null) {
+            scanCacheService = new ScanCacheServiceImpl(
+                    this.configuration.getScanCacheFile(), this.configuration.getScanCacheSaveFailedCallbacks()
+            );
+        }
+
+        final boolean concurrent = this.configuration.getParallelism() > 1
+                && directories.size() > 1
+                && Thread.currentThread().getContextClassLoader().isRegisteredAsParallelCapable();
+
+        final List<Set<Class<?>>> classesPerRoot;
+        if (concurrent) {
+            classesPerRoot = this.locateConcurrently(directories, scanCacheService);
+        } else {
+            classesPerRoot = new ArrayList<>();
+            for (Directory directory : directories) {
+                classesPerRoot.add(this.locateClasses(
+                        directory, this.configuration.getParallelism(), scanCacheService, true
+                ));
+            }
+        }
+
+        if (scanCacheService != null) {
+            scanCacheService.save();
+        }
+
+        return this.mergeRoots(directories, classesPerRoot, !concurrent);
+    }
+
+    private List<Directory> resolveDirectories(File[] startupDirectories) {
+        //The same root can appear more than once on a class path.
+        final Map<String, Directory> directories = new LinkedHashMap<>();
+        for (File startupDirectory : startupDirectories) {
+            final Directory directory = this.directoryResolver.resolveDirectory(startupDirectory);
+            directories.putIfAbsent(directory.getDirectory(), directory);
+        }
+
+        return new ArrayList<>(directories.values());
+    }
+
+    private List<Set<Class<?>>> locateConcurrently(List<Directory> directories, ScanCacheService scanCacheService) {
+        final int parallelism = this.configuration.getParallelism();
+        final int rootParallelism = Math.max(1, parallelism / directories.size());
+        final ExecutorService executorService = createExecutor(Math.min(parallelism, directories.size()));
+
+        try {
+            final List<Future<Set<Class<?>>>> futures = new ArrayList<>();
+            for (Directory directory : directories) {
+                futures.add(executorService.submit(() -> this.locateClasses(
+                        directory, rootParallelism, scanCacheService, false
+                )));
+            }
+
+            final List<Set<Class<?>>> classesPerRoot = new ArrayList<>();
+            for (Future<Set<Class<?>>> future : futures) {
+                classesPerRoot.add(future.get());
+            }
+
+            return classesPerRoot;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClassLocationException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            throw new ClassLocationException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private Set<Class<?>> locateClasses(Directory directory,
+                                        int parallelism,
+                                        ScanCacheService scanCacheService,
+                                        boolean initializeClasses) {
+        final ClassLocatorForServiceIndex serviceIndexLocator = new ClassLocatorForServiceIndex(
+                this.packageFilter, parallelism, initializeClasses
+        );
+
+        ClassLocator classLocator = new ClassLocatorForDirectory(
+                this.classFileFilter, this.packageFilter, parallelism, scanCacheService, initializeClasses
+        );
+        if (this.configuration.isUseServiceIndex() && serviceIndexLocator.hasServiceIndex(
+                directory.getDirectory(),
+                getCustomAnnotationNames(this.configuration.getCustomServiceAnnotations(), Service.class),
+                getCustomAnnotationNames(this.configuration.getCustomBeanAnnotations(), Bean.class)
+        )) {
+            classLocator = serviceIndexLocator;
+        } else if (directory.getDirectoryType() == DirectoryType.JAR_FILE) {
+            classLocator = new ClassLocatorForJarFile(
+                    this.classFileFilter,
+                    this.packageFilter,
+                    parallelism,
+                    this.configuration.isScanNestedJars(),
+                    scanCacheService,
+                    initializeClasses
+            );
+        }
+
+        return classLocator.locateClasses(directory.getDirectory());
+    }
+
+    private Set<Class<?>> mergeRoots(List<Directory> directories,
+                                     List<Set<Class<?>>> classesPerRoot,
+                                     boolean initialized) {
+        final Map<String, String> classRoots = new HashMap<>();
+        final Set<Class<?>> locatedClasses = new HashSet<>();
+
+        for (int i = 0; i < directories.size(); i++) {
+            final String root = directories.get(i).getDirectory();
+            final List<Class<?>> classes = new ArrayList<>(classesPerRoot.get(i));
+            classes.sort(Comparator.comparing(Class::getName));
+
+            for (Class<?> cls : classes) {
+                //Duplicates are only reported, the order of the roots does not decide which class is loaded.
+                final String firstRoot = classRoots.putIfAbsent(cls.getName(), root);
+                if (firstRoot != null) {
+                    this.notifyDuplicateClassLocated(cls.getName(), firstRoot, root);
+                    continue;
+                }
+
+                if (!initialized) {
+                    initialize(cls);
+                }
+
+                locatedClasses.add(cls);
+            }
+        }
+
+        return locatedClasses;
+    }
+
+    private void notifyDuplicateClassLocated(String className, String firstRoot, String duplicateRoot) {
+        for (DuplicateClassLocated callback : this.configuration.getDuplicateClassLocatedCallbacks()) {
+            callback.duplicateClassLocated(className, firstRoot, duplicateRoot);
+        }
+    }
+
+    /**
+     * @return canonical names of the configured annotations, without the default one.
+     */
+    private static Set<String> getCustomAnnotationNames(Set<Class<? extends Annotation>> annotations,
+                                                        Class<? extends Annotation> defaultAnnotation) {
+        return annotations.stream()
+                .filter(annotation -> annotation != defaultAnnotation)
+                .map(Class::getCanonicalName)
+                .collect(Collectors.toSet());
+    }
+
+    private static void initialize(Class<?> cls) {
+        try {
+            Class.forName(cls.getName(), true, cls.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new ClassLocationException(e.getMessage(), e);
+        }
+    }
+
+    private static ExecutorService createExecutor(int workers) {
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        final AtomicInteger threadCounter = new AtomicInteger();
+
+        return Executors.newFixedThreadPool(workers, runnable -> {
+            final Thread thread = new Thread(runnable, String.format(
+                    WORKER_NAME_FORMAT, threadCounter.incrementAndGet()
+            ));
+            thread.setDaemon(true);
+            //Locators load classes through the context class loader.
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        });
+    }
+}
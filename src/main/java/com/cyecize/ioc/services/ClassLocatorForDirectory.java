@@ -2,24 +2,85 @@ package com.cyecize.ioc.services;
 
 import com.cyecize.ioc.constants.Constants;
 import com.cyecize.ioc.exceptions.ClassLocationException;
+import com.cyecize.ioc.models.ScanCacheRoot;
 
 import java.io.File;
-import java.util.HashSet;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * ClassLocator implementation for directories.
  * <p>
  * User recursion to scan all files in the source root directory and filters
  * those that are classes (end with ".class")
+ * <p>
+ * If a {@link ClassFileFilter} is provided, each class file is read first and
+ * the class is loaded only if the filter accepts it.
+ * <p>
+ * If parallelism is greater than one, sub directories are walked on a fork/join pool
+ * and classes are loaded by a {@link ClassLoadingStage} with the same number of workers.
+ * <p>
+ * If a {@link PackageFilter} is provided, directories of packages that cannot contain included classes
+ * are skipped and their files are never listed.
+ * <p>
+ * If a {@link ScanCacheService} is provided, class files that did not change since the previous scan
+ * are not read.
  */
 public class ClassLocatorForDirectory implements ClassLocator {
     private static final String INVALID_DIRECTORY_MSG = "Invalid directory '%s'.";
 
-    private final Set<Class<?>> locatedClasses;
+    private final ClassFileFilter classFileFilter;
+
+    private final PackageFilter packageFilter;
+
+    private final int parallelism;
+
+    private final ScanCacheService scanCacheService;
+
+    private final boolean initializeClasses;
 
     public ClassLocatorForDirectory() {
-        this.locatedClasses = new HashSet<>();
+        this(null);
+    }
+
+    public ClassLocatorForDirectory(ClassFileFilter classFileFilter) {
+        this(classFileFilter, 1);
+    }
+
+    public ClassLocatorForDirectory(ClassFileFilter classFileFilter, int parallelism) {
+        this(classFileFilter, parallelism, null);
+    }
+
+    public ClassLocatorForDirectory(ClassFileFilter classFileFilter,
+                                    int parallelism,
+                                    ScanCacheService scanCacheService) {
+        this(classFileFilter, null, parallelism, scanCacheService);
+    }
+
+    public ClassLocatorForDirectory(ClassFileFilter classFileFilter,
+                                    PackageFilter packageFilter,
+                                    int parallelism,
+                                    ScanCacheService scanCacheService) {
+        this(classFileFilter, packageFilter, parallelism, scanCacheService, true);
+    }
+
+    /**
+     * @param initializeClasses - if false, located classes are loaded but not initialized.
+     */
+    public ClassLocatorForDirectory(ClassFileFilter classFileFilter,
+                                    PackageFilter packageFilter,
+                                    int parallelism,
+                                    ScanCacheService scanCacheService,
+                                    boolean initializeClasses) {
+        this.classFileFilter = classFileFilter;
+        this.packageFilter = packageFilter;
+        this.parallelism = parallelism;
+        this.scanCacheService = scanCacheService;
+        this.initializeClasses = initializeClasses;
     }
 
     /**
@@ -28,22 +89,33 @@ public class ClassLocatorForDirectory implements ClassLocator {
      */
     @Override
     public Set<Class<?>> locateClasses(String directory) throws ClassLocationException {
-        this.locatedClasses.clear();
         File file = new File(directory);
 
         if (!file.isDirectory()) {
             throw new ClassLocationException(String.format(INVALID_DIRECTORY_MSG, directory));
         }
 
-        try {
-            for (File innerFile : file.listFiles()) {
-                this.scanDir(innerFile, "");
+        final ScanCacheRoot scanCacheRoot = this.scanCacheService == null
+                ? null
+                : this.scanCacheService.getDirectoryRoot(directory);
+
+        try (ClassLoadingStage classLoadingStage = new ClassLoadingStage(
+                this.classFileFilter,
+                scanCacheRoot,
+                Thread.currentThread().getContextClassLoader(),
+                this.parallelism,
+                this.initializeClasses
+        )) {
+            if (classLoadingStage.isParallel()) {
+                this.scanDirInParallel(file, classLoadingStage);
+            } else {
+                for (File innerFile : file.listFiles()) {
+                    this.scanDir(innerFile, "", classLoadingStage);
+                }
             }
-        } catch (ClassNotFoundException e) {
-            throw new ClassLocationException(e.getMessage(), e);
-        }
 
-        return this.locatedClasses;
+            return classLoadingStage.getLocatedClasses();
+        }
     }
 
     /**
@@ -54,27 +126,95 @@ public class ClassLocatorForDirectory implements ClassLocator {
      * with the package name having the current file's name and a dot "." appended
      * in order to build a proper package name.
      * <p>
-     * If the file is file and its name ends with ".class" it is loaded using the
-     * built package name and it is added to a set of located classes.
+     * If the file is file and its name ends with ".class" it is submitted for loading using the
+     * built package name.
      *
      * @param file        the current file.
      * @param packageName the current package name.
      */
-    private void scanDir(File file, String packageName) throws ClassNotFoundException {
+    private void scanDir(File file, String packageName, ClassLoadingStage classLoadingStage) {
         if (file.isDirectory()) {
             packageName += file.getName() + ".";
+            if (!this.canContainIncludedPackages(packageName)) {
+                return;
+            }
 
             for (File innerFile : file.listFiles()) {
-                this.scanDir(innerFile, packageName);
+                this.scanDir(innerFile, packageName, classLoadingStage);
             }
         } else {
-            if (!file.getName().endsWith(Constants.JAVA_BINARY_EXTENSION)) {
-                return;
-            }
+            this.submitClassFile(file, packageName, classLoadingStage);
+        }
+    }
+
+    private void scanDirInParallel(File rootDir, ClassLoadingStage classLoadingStage) {
+        final ForkJoinPool forkJoinPool = new ForkJoinPool(this.parallelism);
+        try {
+            forkJoinPool.invoke(new ScanDirAction(rootDir, "", classLoadingStage));
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    private void submitClassFile(File file, String packageName, ClassLoadingStage classLoadingStage) {
+        if (!file.getName().endsWith(Constants.JAVA_BINARY_EXTENSION) || !this.isIncluded(packageName)) {
+            return;
+        }
+
+        final String className = packageName + file.getName().replace(Constants.JAVA_BINARY_EXTENSION, "");
+
+        final ClassLoadingStage.ClassFileSource classFileSource = () -> Files.readAllBytes(file.toPath());
+        if (this.scanCacheService == null) {
+            classLoadingStage.submit(className, classFileSource);
+        } else {
+            classLoadingStage.submit(className, file.lastModified(), file.length(), classFileSource);
+        }
+    }
+
+    private boolean canContainIncludedPackages(String packageName) {
+        return this.packageFilter == null || this.packageFilter.canContainIncludedPackages(packageName);
+    }
+
+    private boolean isIncluded(String packageName) {
+        return this.packageFilter == null || this.packageFilter.isIncluded(packageName);
+    }
+
+    /**
+     * Fork/join counterpart of {@link #scanDir(File, String, ClassLoadingStage)}.
+     * Files are submitted directly while each sub directory is forked.
+     */
+    private class ScanDirAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
 
-            final String className = packageName + file.getName().replace(Constants.JAVA_BINARY_EXTENSION, "");
+        private final File dir;
+
+        private final String packageName;
+
+        private final ClassLoadingStage classLoadingStage;
+
+        private ScanDirAction(File dir, String packageName, ClassLoadingStage classLoadingStage) {
+            this.dir = dir;
+            this.packageName = packageName;
+            this.classLoadingStage = classLoadingStage;
+        }
+
+        @Override
+        protected void compute() {
+            final List<ScanDirAction> subDirActions = new ArrayList<>();
+
+            for (File innerFile : this.dir.listFiles()) {
+                if (innerFile.isDirectory()) {
+                    final String subPackageName = this.packageName + innerFile.getName() + ".";
+                    if (canContainIncludedPackages(subPackageName)) {
+                        subDirActions.add(new ScanDirAction(innerFile, subPackageName, this.classLoadingStage));
+                    }
+                } else {
+                    submitClassFile(innerFile, this.packageName, this.classLoadingStage);
+                }
+            }
 
-            this.locatedClasses.add(Class.forName(className, true, Thread.currentThread().getContextClassLoader()));
+            invokeAll(subDirActions);
         }
     }
 }
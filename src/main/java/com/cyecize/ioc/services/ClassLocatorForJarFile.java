@@ -2,63 +2,501 @@ package com.cyecize.ioc.services;
 
 import com.cyecize.ioc.constants.Constants;
 import com.cyecize.ioc.exceptions.ClassLocationException;
+import com.cyecize.ioc.models.ScanCacheEntry;
+import com.cyecize.ioc.models.ScanCacheRoot;
 
-import java.io.File;
 import java.io.IOException;
-import java.util.Enumeration;
+import java.io.InputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.ProviderNotFoundException;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
 
 /**
  * ClassLocator implementation for jar files.
  * <p>
- * Creates a JarFile object from the jar file from which the application is
- * executed and filters those entries have are class files.
+ * Opens the jar file as a zip {@link FileSystem} and walks its entry index. Entries are only
+ * inflated if a {@link ClassFileFilter} needs to read them. All file systems are closed before
+ * this method returns.
+ * <p>
+ * Class names are resolved as follows:
+ * <ul>
+ *     <li>versioned entries of multi-release jars replace the base entry and the entries of lower versions,
+ *     if their version is supported by the current runtime, other entries under META-INF are ignored.</li>
+ *     <li>BOOT-INF/classes and WEB-INF/classes prefixes of fat jars are stripped.</li>
+ *     <li>if nested jars scanning is enabled, every jar inside the jar is scanned the same way.
+ *     The located classes are loaded by a {@link NestedJarClassLoader} over the classes directories and
+ *     nested jars on top of the context class loader, which keeps the jar open for as long as it is used.</li>
+ * </ul>
+ * <p>
+ * If a {@link PackageFilter} is provided, directories of packages that cannot contain included classes
+ * are skipped without reading their entries.
+ * <p>
+ * If parallelism is greater than one, entries are read and loaded by a {@link ClassLoadingStage}
+ * with the same number of workers.
+ * <p>
+ * If a {@link ScanCacheService} is provided and the jar file did not change since the previous scan,
+ * the jar file is not opened and the cached class names are used instead, unless nested jars are scanned
+ * since their classes can only be loaded from the opened jar.
  */
 public class ClassLocatorForJarFile implements ClassLocator {
 
+    private static final String JAR_FILE_EXTENSION = ".jar";
+
+    private static final String META_INF = "META-INF/";
+
+    private static final String VERSIONS_DIR = META_INF + "versions/";
+
+    private static final String MANIFEST = META_INF + "MANIFEST.MF";
+
+    private static final String MODULE_INFO = "module-info";
+
+    private static final String[] FAT_JAR_CLASSES_DIRS = {"BOOT-INF/classes/", "WEB-INF/classes/"};
+
+    private static final Attributes.Name MULTI_RELEASE = new Attributes.Name("Multi-Release");
+
+    private static final int RUNTIME_VERSION = Runtime.version().feature();
+
+    private final ClassFileFilter classFileFilter;
+
+    private final PackageFilter packageFilter;
+
+    private final int parallelism;
+
+    private final boolean scanNestedJars;
+
+    private final ScanCacheService scanCacheService;
+
+    private final boolean initializeClasses;
+
     public ClassLocatorForJarFile() {
+        this(null);
+    }
+
+    public ClassLocatorForJarFile(ClassFileFilter classFileFilter) {
+        this(classFileFilter, 1);
+    }
 
+    public ClassLocatorForJarFile(ClassFileFilter classFileFilter, int parallelism) {
+        this(classFileFilter, parallelism, false);
+    }
+
+    public ClassLocatorForJarFile(ClassFileFilter classFileFilter, int parallelism, boolean scanNestedJars) {
+        this(classFileFilter, parallelism, scanNestedJars, null);
+    }
+
+    public ClassLocatorForJarFile(ClassFileFilter classFileFilter,
+                                  int parallelism,
+                                  boolean scanNestedJars,
+                                  ScanCacheService scanCacheService) {
+        this(classFileFilter, null, parallelism, scanNestedJars, scanCacheService);
+    }
+
+    public ClassLocatorForJarFile(ClassFileFilter classFileFilter,
+                                  PackageFilter packageFilter,
+                                  int parallelism,
+                                  boolean scanNestedJars,
+                                  ScanCacheService scanCacheService) {
+        this(classFileFilter, packageFilter, parallelism, scanNestedJars, scanCacheService, true);
+    }
+
+    /**
+     * @param initializeClasses - if false, located classes are loaded but not initialized.
+     */
+    public ClassLocatorForJarFile(ClassFileFilter classFileFilter,
+                                  PackageFilter packageFilter,
+                                  int parallelism,
+                                  boolean scanNestedJars,
+                                  ScanCacheService scanCacheService,
+                                  boolean initializeClasses) {
+        this.classFileFilter = classFileFilter;
+        this.packageFilter = packageFilter;
+        this.parallelism = parallelism;
+        this.scanNestedJars = scanNestedJars;
+        this.scanCacheService = scanCacheService;
+        this.initializeClasses = initializeClasses;
     }
 
     /**
-     * Creates JarFile from the given directory.
-     * <p>
-     * Iterates all entries and checks if the entry name ends with ".class".
-     * If that is the case, adds the class to a set of located classes.
+     * Opens the given jar file and submits every class entry for loading.
      *
      * @param directory the given directory to the jar file.
      * @return a set of located classes.
      */
     @Override
     public Set<Class<?>> locateClasses(String directory) throws ClassLocationException {
-        final Set<Class<?>> locatedClasses = new HashSet<>();
+        final List<FileSystem> openedFileSystems = new ArrayList<>();
+        final ScanCacheRoot scanCacheRoot = this.scanCacheService == null
+                ? null
+                : this.scanCacheService.getJarRoot(directory, this.getScanScope());
 
-        try {
-            JarFile jarFile = new JarFile(new File(directory));
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        final NestedJarClassLoader nestedJarClassLoader = this.scanNestedJars
+                ? new NestedJarClassLoader(contextClassLoader)
+                : null;
+
+        try (ClassLoadingStage classLoadingStage = new ClassLoadingStage(
+                this.classFileFilter,
+                scanCacheRoot,
+                nestedJarClassLoader == null ? contextClassLoader : nestedJarClassLoader,
+                this.parallelism,
+                this.initializeClasses
+        )) {
+            if (nestedJarClassLoader == null && scanCacheRoot != null && scanCacheRoot.isUpToDate()
+                    && this.submitCachedClasses(scanCacheRoot, classLoadingStage)) {
+                return classLoadingStage.getLocatedClasses();
+            }
+
+            final Set<String> submittedClasses = new HashSet<>();
+            this.scanJar(
+                    Path.of(directory), false, classLoadingStage, submittedClasses, openedFileSystems, nestedJarClassLoader
+            );
+
+            //Workers might still read entries so the file systems are closed after this point.
+            final Set<Class<?>> locatedClasses = classLoadingStage.getLocatedClasses();
+
+            if (nestedJarClassLoader != null && nestedJarClassLoader.hasRoots()) {
+                openedFileSystems.forEach(nestedJarClassLoader::addFileSystem);
+                openedFileSystems.clear();
+            }
+
+            return locatedClasses;
+        } catch (IOException | ProviderNotFoundException e) {
+            throw new ClassLocationException(e.getMessage(), e);
+        } finally {
+            this.closeAll(openedFileSystems);
+        }
+    }
 
-            Enumeration<JarEntry> entries = jarFile.entries();
+    /**
+     * Submits the classes from the previous scan of an unchanged jar.
+     *
+     * @return false if the cache cannot be used because it lacks metadata that the filter requires.
+     */
+    private boolean submitCachedClasses(ScanCacheRoot scanCacheRoot, ClassLoadingStage classLoadingStage) {
+        if (this.classFileFilter != null
+                && scanCacheRoot.getPreviousEntries().stream().anyMatch(entry -> entry.getMetadata() == null)) {
+            return false;
+        }
 
-            while (entries.hasMoreElements()) {
-                JarEntry jarEntry = entries.nextElement();
+        for (ScanCacheEntry entry : scanCacheRoot.getPreviousEntries()) {
+            if (this.classFileFilter == null || this.classFileFilter.isCandidate(entry.getMetadata())) {
+                classLoadingStage.submitCandidate(entry.getClassName());
+            }
+        }
+
+        scanCacheRoot.keepPreviousEntries();
+        return true;
+    }
 
-                if (!jarEntry.getName().endsWith(Constants.JAVA_BINARY_EXTENSION)) {
-                    continue;
+    /**
+     * @param nestedJarClassLoader - loader to which the classes directories and nested jars are added,
+     *                             null if nested jars are not scanned.
+     */
+    private void scanJar(Path jarFile,
+                         boolean isNested,
+                         ClassLoadingStage classLoadingStage,
+                         Set<String> submittedClasses,
+                         List<FileSystem> openedFileSystems,
+                         NestedJarClassLoader nestedJarClassLoader) throws IOException {
+        final FileSystem fileSystem = FileSystems.newFileSystem(jarFile, (ClassLoader) null);
+        openedFileSystems.add(fileSystem);
+
+        final Path root = fileSystem.getPath("/");
+        final boolean isMultiRelease = this.isMultiRelease(root.resolve(MANIFEST));
+        final Path versionsDir = root.resolve(VERSIONS_DIR);
+        final List<Path> nestedJars = new ArrayList<>();
+
+        //Roots are added before any of their classes is submitted for loading.
+        if (nestedJarClassLoader != null) {
+            if (isNested) {
+                nestedJarClassLoader.addRoot(root, isMultiRelease);
+            }
+
+            for (String classesDir : FAT_JAR_CLASSES_DIRS) {
+                final Path classesRoot = root.resolve(classesDir);
+                if (Files.isDirectory(classesRoot)) {
+                    nestedJarClassLoader.addRoot(classesRoot, false);
                 }
+            }
+        }
+
+        final Map<String, VersionedEntry> versionedEntries = isMultiRelease
+                ? this.findVersionedEntries(root, versionsDir)
+                : new HashMap<>();
 
-                final String className = jarEntry.getName().replace(Constants.JAVA_BINARY_EXTENSION, "")
-                        .replaceAll("\\\\", ".")
-                        .replaceAll("/", ".");
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                //Versioned entries were already collected.
+                if (dir.equals(versionsDir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
 
-                locatedClasses.add(Class.forName(className, true, Thread.currentThread().getContextClassLoader()));
+                return visitDirectory(root, dir, false);
             }
 
-        } catch (IOException | ClassNotFoundException e) {
-            throw new ClassLocationException(e.getMessage(), e);
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                final String entryName = root.relativize(file).toString();
+
+                if (entryName.endsWith(Constants.JAVA_BINARY_EXTENSION)) {
+                    final String className = toClassName(entryName, false);
+                    if (className != null && isIncluded(className) && submittedClasses.add(className)) {
+                        final VersionedEntry versionedEntry = versionedEntries.remove(className);
+                        final Path classFile = versionedEntry == null ? file : versionedEntry.classFile;
+                        classLoadingStage.submit(className, () -> Files.readAllBytes(classFile));
+                    }
+                } else if (scanNestedJars && entryName.endsWith(JAR_FILE_EXTENSION)) {
+                    nestedJars.add(file);
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        //Classes that only exist in versioned entries.
+        for (Map.Entry<String, VersionedEntry> versionedEntry : versionedEntries.entrySet()) {
+            if (submittedClasses.add(versionedEntry.getKey())) {
+                final Path classFile = versionedEntry.getValue().classFile;
+                classLoadingStage.submit(versionedEntry.getKey(), () -> Files.readAllBytes(classFile));
+            }
+        }
+
+        for (Path nestedJar : nestedJars) {
+            this.scanJar(nestedJar, true, classLoadingStage, submittedClasses, openedFileSystems, nestedJarClassLoader);
+        }
+    }
+
+    /**
+     * @return class names of the versioned entries of a multi-release jar, each with the entry of the highest
+     * version that the runtime supports.
+     */
+    private Map<String, VersionedEntry> findVersionedEntries(Path root, Path versionsDir) throws IOException {
+        final Map<String, VersionedEntry> versionedEntries = new HashMap<>();
+        if (!Files.isDirectory(versionsDir)) {
+            return versionedEntries;
+        }
+
+        Files.walkFileTree(versionsDir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                return visitDirectory(root, dir, true);
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                final String entryName = root.relativize(file).toString();
+                if (!entryName.endsWith(Constants.JAVA_BINARY_EXTENSION)) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                final String className = toClassName(entryName, true);
+                if (className == null || !isIncluded(className)) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                final int version = getEntryVersion(entryName);
+                final VersionedEntry current = versionedEntries.get(className);
+                if (current == null || current.version < version) {
+                    versionedEntries.put(className, new VersionedEntry(version, file));
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        return versionedEntries;
+    }
+
+    /**
+     * Skips directories of packages that cannot contain included classes.
+     */
+    private FileVisitResult visitDirectory(Path root, Path dir, boolean isMultiRelease) {
+        if (this.packageFilter == null || dir.equals(root)) {
+            return FileVisitResult.CONTINUE;
+        }
+
+        final String packageName = toPackageName(root.relativize(dir) + "/", isMultiRelease);
+        if (packageName != null && !this.packageFilter.canContainIncludedPackages(packageName)) {
+            return FileVisitResult.SKIP_SUBTREE;
+        }
+
+        return FileVisitResult.CONTINUE;
+    }
+
+    /**
+     * @param entryName      - name of the jar entry (eg. com/example/Main.class).
+     * @param isMultiRelease - whether versioned entries should be considered.
+     * @return binary name of the class or null if the entry should be skipped.
+     */
+    private static String toClassName(String entryName, boolean isMultiRelease) {
+        String path = toClassPath(entryName, isMultiRelease);
+        if (path == null) {
+            return null;
+        }
+
+        path = path.substring(0, path.length() - Constants.JAVA_BINARY_EXTENSION.length());
+        if (path.endsWith(MODULE_INFO)) {
+            return null;
+        }
+
+        return path.replace('/', '.');
+    }
+
+    /**
+     * @param dirName        - name of the jar directory entry, ending with a slash (eg. com/example/).
+     * @param isMultiRelease - whether versioned entries should be considered.
+     * @return package name of the directory or null if the directory is not a package, in which case
+     * it must not be skipped since it can still contain packages or nested jars (eg. BOOT-INF/).
+     */
+    private static String toPackageName(String dirName, boolean isMultiRelease) {
+        final String path = toClassPath(dirName, isMultiRelease);
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+
+        final String packageName = path.substring(0, path.length() - 1).replace('/', '.');
+        if (!isPackageName(packageName)) {
+            return null;
+        }
+
+        return packageName;
+    }
+
+    /**
+     * @return whether every part of the given name is a java identifier, keywords are not checked.
+     */
+    private static boolean isPackageName(String packageName) {
+        boolean partStart = true;
+        for (int i = 0; i < packageName.length(); i++) {
+            final char ch = packageName.charAt(i);
+            if (ch == '.') {
+                if (partStart) {
+                    return false;
+                }
+
+                partStart = true;
+            } else if (partStart ? Character.isJavaIdentifierStart(ch) : Character.isJavaIdentifierPart(ch)) {
+                partStart = false;
+            } else {
+                return false;
+            }
+        }
+
+        return !partStart;
+    }
+
+    /**
+     * Strips the multi-release version and fat jar prefixes from the given entry name.
+     *
+     * @return path of the entry relative to the class path root or null if the entry is not on the class path.
+     */
+    private static String toClassPath(String entryName, boolean isMultiRelease) {
+        String path = entryName;
+
+        if (path.startsWith(VERSIONS_DIR)) {
+            if (!isMultiRelease) {
+                return null;
+            }
+
+            final int versionEnd = path.indexOf('/', VERSIONS_DIR.length());
+            if (versionEnd < 0) {
+                return null;
+            }
+
+            final int version = getEntryVersion(path);
+            if (version < 0 || version > RUNTIME_VERSION) {
+                return null;
+            }
+
+            path = path.substring(versionEnd + 1);
+        } else if (path.startsWith(META_INF)) {
+            return null;
+        }
+
+        for (String classesDir : FAT_JAR_CLASSES_DIRS) {
+            if (path.startsWith(classesDir)) {
+                return path.substring(classesDir.length());
+            }
         }
 
-        return locatedClasses;
+        return path;
+    }
+
+    /**
+     * @param entryName - name of an entry under META-INF/versions.
+     * @return version of the entry or -1 if the version is not a number.
+     */
+    private static int getEntryVersion(String entryName) {
+        final int versionEnd = entryName.indexOf('/', VERSIONS_DIR.length());
+        if (versionEnd < 0) {
+            return -1;
+        }
+
+        try {
+            return Integer.parseInt(entryName.substring(VERSIONS_DIR.length(), versionEnd));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private boolean isIncluded(String className) {
+        if (this.packageFilter == null) {
+            return true;
+        }
+
+        return this.packageFilter.isClassIncluded(className);
+    }
+
+    /**
+     * @return description of the settings that affect which classes are located in a jar file.
+     */
+    private String getScanScope() {
+        final String packagesKey = this.packageFilter == null ? "" : this.packageFilter.getPatternsKey();
+        return "nested=" + this.scanNestedJars + ";packages=" + packagesKey;
+    }
+
+    private boolean isMultiRelease(Path manifestPath) throws IOException {
+        if (!Files.exists(manifestPath)) {
+            return false;
+        }
+
+        try (InputStream inputStream = Files.newInputStream(manifestPath)) {
+            return Boolean.parseBoolean(new Manifest(inputStream).getMainAttributes().getValue(MULTI_RELEASE));
+        }
+    }
+
+    private static class VersionedEntry {
+        private final int version;
+
+        private final Path classFile;
+
+        private VersionedEntry(int version, Path classFile) {
+            this.version = version;
+            this.classFile = classFile;
+        }
+    }
+
+    private void closeAll(List<FileSystem> fileSystems) {
+        //Nested file systems are closed before their parents.
+        for (int i = fileSystems.size() - 1; i >= 0; i--) {
+            try {
+                fileSystems.get(i).close();
+            } catch (IOException ignored) {
+            }
+        }
     }
 }
@@ -0,0 +1,168 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.constants.Constants;
+import com.cyecize.ioc.enums.ServiceIndexEntryType;
+import com.cyecize.ioc.exceptions.ClassLocationException;
+import com.cyecize.ioc.processor.ServiceIndexProcessor;
+import com.cyecize.ioc.utils.ServiceIndexUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.ProviderNotFoundException;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * ClassLocator implementation for directories and jar files that contain an index
+ * generated by {@link ServiceIndexProcessor}.
+ * <p>
+ * Only the classes listed in the index are loaded, the rest of the directory or jar is not scanned.
+ * If a {@link PackageFilter} is provided, indexed classes from packages that are not included are skipped.
+ * <p>
+ * The index also records the custom service and bean annotations that it was generated with, an index that does not
+ * cover the custom annotations of the scanning configuration would miss their services and is not used.
+ */
+public class ClassLocatorForServiceIndex implements ClassLocator {
+
+    private final PackageFilter packageFilter;
+
+    private final int parallelism;
+
+    private final boolean initializeClasses;
+
+    public ClassLocatorForServiceIndex() {
+        this(1);
+    }
+
+    public ClassLocatorForServiceIndex(int parallelism) {
+        this(null, parallelism);
+    }
+
+    public ClassLocatorForServiceIndex(PackageFilter packageFilter, int parallelism) {
+        this(packageFilter, parallelism, true);
+    }
+
+    /**
+     * @param initializeClasses - if false, located classes are loaded but not initialized.
+     */
+    public ClassLocatorForServiceIndex(PackageFilter packageFilter, int parallelism, boolean initializeClasses) {
+        this.packageFilter = packageFilter;
+        this.parallelism = parallelism;
+        this.initializeClasses = initializeClasses;
+    }
+
+    /**
+     * @param directory - directory or jar file.
+     * @return true if the given directory or jar file contains a service index.
+     */
+    public boolean hasServiceIndex(String directory) {
+        return this.hasServiceIndex(directory, Set.of(), Set.of());
+    }
+
+    /**
+     * @param serviceAnnotations - canonical names of custom service annotations that the index must cover.
+     * @param beanAnnotations    - canonical names of custom bean annotations that the index must cover.
+     * @return true if the given directory or jar file contains a service index generated with the given annotations.
+     */
+    public boolean hasServiceIndex(String directory, Set<String> serviceAnnotations, Set<String> beanAnnotations) {
+        final ServiceIndex serviceIndex;
+        try {
+            serviceIndex = this.readServiceIndex(directory);
+        } catch (ClassLocationException e) {
+            return false;
+        }
+
+        return serviceIndex != null
+                && serviceIndex.serviceAnnotations.containsAll(serviceAnnotations)
+                && serviceIndex.beanAnnotations.containsAll(beanAnnotations);
+    }
+
+    /**
+     * @param directory directory or jar file with a service index.
+     * @return a set of the indexed classes.
+     */
+    @Override
+    public Set<Class<?>> locateClasses(String directory) throws ClassLocationException {
+        final ServiceIndex serviceIndex = this.readServiceIndex(directory);
+        if (serviceIndex == null) {
+            throw new ClassLocationException(String.format(
+                    "Service index '%s' was not found in '%s'.", Constants.SERVICE_INDEX_LOCATION, directory
+            ));
+        }
+
+        try (ClassLoadingStage classLoadingStage = new ClassLoadingStage(
+                null, null, Thread.currentThread().getContextClassLoader(), this.parallelism, this.initializeClasses
+        )) {
+            for (String className : serviceIndex.classNames) {
+                if (this.isIncluded(className)) {
+                    classLoadingStage.submit(className, null);
+                }
+            }
+
+            return classLoadingStage.getLocatedClasses();
+        }
+    }
+
+    private boolean isIncluded(String className) {
+        if (this.packageFilter == null) {
+            return true;
+        }
+
+        return this.packageFilter.isClassIncluded(className);
+    }
+
+    /**
+     * @return the index or null if there is no index.
+     */
+    private ServiceIndex readServiceIndex(String directory) throws ClassLocationException {
+        final File file = new File(directory);
+
+        try {
+            if (file.isDirectory()) {
+                return this.readIndex(file.toPath().resolve(Constants.SERVICE_INDEX_LOCATION));
+            }
+
+            try (FileSystem fileSystem = FileSystems.newFileSystem(file.toPath(), (ClassLoader) null)) {
+                return this.readIndex(fileSystem.getPath(Constants.SERVICE_INDEX_LOCATION));
+            }
+        } catch (IOException | ProviderNotFoundException | IllegalArgumentException e) {
+            throw new ClassLocationException(e.getMessage(), e);
+        }
+    }
+
+    private ServiceIndex readIndex(Path indexPath) throws IOException {
+        if (!Files.isRegularFile(indexPath)) {
+            return null;
+        }
+
+        final ServiceIndex serviceIndex = new ServiceIndex();
+        try (BufferedReader reader = Files.newBufferedReader(indexPath, StandardCharsets.UTF_8)) {
+            ServiceIndexUtils.parse(reader, (entryType, className) -> {
+                if (entryType == ServiceIndexEntryType.SERVICE_ANNOTATION) {
+                    serviceIndex.serviceAnnotations.add(className);
+                } else if (entryType == ServiceIndexEntryType.BEAN_ANNOTATION) {
+                    serviceIndex.beanAnnotations.add(className);
+                } else {
+                    serviceIndex.classNames.add(className);
+                }
+            });
+        }
+
+        return serviceIndex;
+    }
+
+    private static class ServiceIndex {
+        private final Set<String> classNames = new LinkedHashSet<>();
+
+        private final Set<String> serviceAnnotations = new HashSet<>();
+
+        private final Set<String> beanAnnotations = new HashSet<>();
+    }
+}
@@ -4,36 +4,43 @@ import com.cyecize.ioc.models.ServiceDetails;
 
 import java.lang.annotation.Annotation;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DependencyContainerCached extends DependencyContainerInternal {
 
-    private final Map<Class<?>, ServiceDetails> cachedServices;
-
-    private final Map<Class<?>, Collection<ServiceDetails>> cachedImplementations;
-
-    private final Map<Class<? extends Annotation>, Collection<ServiceDetails>> cachedServicesByAnnotation;
+    /**
+     * Caches of the current services, a reload replaces them with empty ones instead of clearing them
+     * so that readers that still use the previous services only fill the discarded caches.
+     */
+    private volatile ServiceCaches caches;
 
     public DependencyContainerCached(Set<Class<?>> locatedClasses, List<ServiceDetails> serviceDetails) {
-        this.cachedServices = new HashMap<>();
-        this.cachedImplementations = new HashMap<>();
-        this.cachedServicesByAnnotation = new HashMap<>();
+        this.caches = new ServiceCaches();
         this.init(locatedClasses, serviceDetails);
     }
 
+    @Override
+    protected void replace(Collection<Class<?>> locatedClasses, Collection<ServiceDetails> servicesAndBeans) {
+        //The services are published first, whoever sees the new caches also sees the new services.
+        super.replace(locatedClasses, servicesAndBeans);
+        this.caches = new ServiceCaches();
+    }
+
     @Override
     public ServiceDetails getServiceDetails(Class<?> serviceType) {
-        if (this.cachedServices.containsKey(serviceType)) {
-            return this.cachedServices.get(serviceType);
+        final ServiceCaches caches = this.caches;
+        final ServiceDetails cachedServiceDetails = caches.services.get(serviceType);
+        if (cachedServiceDetails != null) {
+            return cachedServiceDetails;
         }
 
         final ServiceDetails serviceDetails = super.getServiceDetails(serviceType);
 
         if (serviceDetails != null) {
-            this.cachedServices.put(serviceType, serviceDetails);
+            caches.services.put(serviceType, serviceDetails);
         }
 
         return serviceDetails;
@@ -41,27 +48,41 @@ public class DependencyContainerCached extends DependencyContainerInternal {
 
     @Override
     public Collection<ServiceDetails> getImplementations(Class<?> serviceType) {
-        if (this.cachedImplementations.containsKey(serviceType)) {
-            return this.cachedImplementations.get(serviceType);
+        final ServiceCaches caches = this.caches;
+        final Collection<ServiceDetails> cachedImplementations = caches.implementations.get(serviceType);
+        if (cachedImplementations != null) {
+            return cachedImplementations;
         }
 
         final Collection<ServiceDetails> implementations = super.getImplementations(serviceType);
 
-        this.cachedImplementations.put(serviceType, implementations);
+        caches.implementations.put(serviceType, implementations);
 
         return implementations;
     }
 
     @Override
     public Collection<ServiceDetails> getServicesByAnnotation(Class<? extends Annotation> annotationType) {
-        if (this.cachedServicesByAnnotation.containsKey(annotationType)) {
-            return this.cachedServicesByAnnotation.get(annotationType);
+        final ServiceCaches caches = this.caches;
+        final Collection<ServiceDetails> cachedServicesByAnnotation = caches.servicesByAnnotation.get(annotationType);
+        if (cachedServicesByAnnotation != null) {
+            return cachedServicesByAnnotation;
         }
 
         final Collection<ServiceDetails> servicesByAnnotation = super.getServicesByAnnotation(annotationType);
 
-        this.cachedServicesByAnnotation.put(annotationType, servicesByAnnotation);
+        caches.servicesByAnnotation.put(annotationType, servicesByAnnotation);
 
         return servicesByAnnotation;
     }
+
+    private static final class ServiceCaches {
+
+        private final Map<Class<?>, ServiceDetails> services = new ConcurrentHashMap<>();
+
+        private final Map<Class<?>, Collection<ServiceDetails>> implementations = new ConcurrentHashMap<>();
+
+        private final Map<Class<? extends Annotation>, Collection<ServiceDetails>> servicesByAnnotation =
+                new ConcurrentHashMap<>();
+    }
 }
@@ -0,0 +1,94 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.models.ClassFileChanges;
+import com.cyecize.ioc.models.ServiceDetails;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Dependency container that reloads the services of watched class directories when their class files change.
+ * <p>
+ * Changes are applied either on demand with {@link #rescan()} or by a background thread started with
+ * {@link #watch(long)}. Errors of the background thread are reported to its uncaught exception handler
+ * and the thread keeps watching, the failed changes are retried with the next change.
+ * Services can be looked up from other threads while changes are applied, they see the services either
+ * before or after a reload, never a mix of both. Replaced services are destroyed once the new ones are published.
+ * <p>
+ * Reloaded classes are defined by a new class loader, so services should be looked up by types that
+ * are not located in the watched directories (or by the types returned from {@link #getClassLoader()}).
+ */
+public class DependencyContainerIncremental extends DependencyContainerCached implements AutoCloseable {
+
+    private static final String WATCHER_THREAD_NAME = "magic-class-watcher";
+
+    private final IncrementalRescanService rescanService;
+
+    private Thread watcherThread;
+
+    public DependencyContainerIncremental(IncrementalRescanService rescanService) {
+        super(rescanService.getLocatedClasses(), new ArrayList<>(rescanService.getServicesAndBeans()));
+        this.rescanService = rescanService;
+    }
+
+    /**
+     * Applies the changes that were reported so far.
+     *
+     * @return services and beans that were created, empty if nothing changed.
+     */
+    public Collection<ServiceDetails> rescan() {
+        return this.applyChanges(this.rescanService.pollChanges());
+    }
+
+    /**
+     * Starts a daemon thread that applies changes once class files stop changing for the given period.
+     */
+    public synchronized void watch(long quietPeriodMillis) {
+        if (this.watcherThread != null) {
+            return;
+        }
+
+        this.watcherThread = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    this.applyChanges(this.rescanService.awaitChanges(quietPeriodMillis));
+                } catch (InterruptedException e) {
+                    return;
+                } catch (RuntimeException e) {
+                    final Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+        }, WATCHER_THREAD_NAME);
+
+        this.watcherThread.setDaemon(true);
+        this.watcherThread.start();
+    }
+
+    /**
+     * @return class loader of the current generation of watched classes.
+     */
+    public ClassLoader getClassLoader() {
+        return this.rescanService.getClassLoader();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.watcherThread != null) {
+            this.watcherThread.interrupt();
+            this.watcherThread = null;
+        }
+
+        this.rescanService.close();
+    }
+
+    private synchronized Collection<ServiceDetails> applyChanges(ClassFileChanges changes) {
+        final Collection<ServiceDetails> createdServices = this.rescanService.rescan(changes);
+
+        //Deleted services are removed even if nothing was created.
+        this.replace(this.rescanService.getLocatedClasses(), new ArrayList<>(this.rescanService.getServicesAndBeans()));
+        this.rescanService.destroyReplacedServices();
+
+        return createdServices;
+    }
+}
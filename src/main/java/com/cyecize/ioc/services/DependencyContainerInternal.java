@@ -24,9 +24,10 @@ public class DependencyContainerInternal implements DependencyContainer {
 
     private boolean isInit;
 
-    private Collection<Class<?>> allLocatedClasses;
-
-    private Collection<ServiceDetails> servicesAndBeans;
+    /**
+     * Located classes and services, replaced as a whole so that readers never see half of a reload.
+     */
+    private volatile ContainerContents contents;
 
     public DependencyContainerInternal() {
         this.isInit = false;
@@ -38,12 +39,19 @@ public class DependencyContainerInternal implements DependencyContainer {
             throw new AlreadyInitializedException(ALREADY_INITIALIZED_MSG);
         }
 
-        this.allLocatedClasses = locatedClasses;
-        this.servicesAndBeans = servicesAndBeans;
+        this.contents = new ContainerContents(locatedClasses, servicesAndBeans);
 
         this.isInit = true;
     }
 
+    /**
+     * Replaces the located classes and services after part of them were reloaded.
+     * The given collections are published to readers on other threads and must not be modified afterwards.
+     */
+    protected void replace(Collection<Class<?>> locatedClasses, Collection<ServiceDetails> servicesAndBeans) {
+        this.contents = new ContainerContents(locatedClasses, servicesAndBeans);
+    }
+
     /**
      * Creates a new instance for a given service and destroys the current one.
      * <p>
@@ -144,19 +152,12 @@ public class DependencyContainerInternal implements DependencyContainer {
             throw new IllegalArgumentException(String.format(SERVICE_NOT_FOUND_FORMAT, serviceType.getName()));
         }
 
-        final Object oldInstance = serviceDetails.getActualInstance();
-
+        //New instances are created without replacing the current one, so concurrent calls do not interfere.
         if (serviceDetails instanceof ServiceBeanDetails) {
-            final ServiceBeanDetails serviceBeanDetails = (ServiceBeanDetails) serviceDetails;
-            ObjectInstantiationUtils.createBeanInstance(serviceBeanDetails);
-        } else {
-            ObjectInstantiationUtils.createInstance(serviceDetails);
+            return (T) ObjectInstantiationUtils.createNewInstance((ServiceBeanDetails) serviceDetails);
         }
 
-        final Object newInstance = serviceDetails.getActualInstance();
-        serviceDetails.setInstance(oldInstance);
-
-        return (T) newInstance;
+        return (T) ObjectInstantiationUtils.createNewInstance(serviceDetails);
     }
 
     /**
@@ -188,7 +189,7 @@ public class DependencyContainerInternal implements DependencyContainer {
      * @return service details if found or null.
      */
     private ServiceDetails findServiceDetails(Class<?> serviceType, String instanceName) {
-        return this.servicesAndBeans.stream()
+        return this.contents.servicesAndBeans.stream()
                 .filter(sd -> DependencyParamUtils.isServiceCompatible(sd, serviceType, instanceName))
                 .findFirst().orElse(null);
     }
@@ -199,7 +200,7 @@ public class DependencyContainerInternal implements DependencyContainer {
      */
     @Override
     public Collection<Class<?>> getAllScannedClasses() {
-        return this.allLocatedClasses;
+        return this.contents.locatedClasses;
     }
 
     /**
@@ -208,7 +209,7 @@ public class DependencyContainerInternal implements DependencyContainer {
      */
     @Override
     public Collection<ServiceDetails> getImplementations(Class<?> serviceType) {
-        return this.servicesAndBeans.stream()
+        return this.contents.servicesAndBeans.stream()
                 .filter(sd -> serviceType.isAssignableFrom(sd.getServiceType()))
                 .collect(Collectors.toList());
     }
@@ -220,7 +221,7 @@ public class DependencyContainerInternal implements DependencyContainer {
      */
     @Override
     public Collection<ServiceDetails> getServicesByAnnotation(Class<? extends Annotation> annotationType) {
-        return this.servicesAndBeans.stream()
+        return this.contents.servicesAndBeans.stream()
                 .filter(sd -> sd.getAnnotation() != null && sd.getAnnotation().annotationType() == annotationType)
                 .collect(Collectors.toList());
     }
@@ -230,6 +231,18 @@ public class DependencyContainerInternal implements DependencyContainer {
      */
     @Override
     public Collection<ServiceDetails> getAllServices() {
-        return this.servicesAndBeans;
+        return this.contents.servicesAndBeans;
+    }
+
+    private static final class ContainerContents {
+
+        private final Collection<Class<?>> locatedClasses;
+
+        private final Collection<ServiceDetails> servicesAndBeans;
+
+        private ContainerContents(Collection<Class<?>> locatedClasses, Collection<ServiceDetails> servicesAndBeans) {
+            this.locatedClasses = locatedClasses;
+            this.servicesAndBeans = servicesAndBeans;
+        }
     }
 }
@@ -8,4 +8,14 @@ import java.util.List;
 
 public interface DependencyResolveService {
     List<EnqueuedServiceDetails> resolveDependencies(Collection<ServiceDetails> serviceDetails);
+
+    /**
+     * Resolves only the given services against the given ones and the ones that are already resolved.
+     *
+     * @param serviceDetails   - services to resolve.
+     * @param resolvedServices - already resolved and instantiated services (without their beans), they are available
+     *                         as dependencies but are not enqueued.
+     */
+    List<EnqueuedServiceDetails> resolveDependencies(Collection<ServiceDetails> serviceDetails,
+                                                     Collection<ServiceDetails> resolvedServices);
 }
@@ -8,29 +8,40 @@ import com.cyecize.ioc.exceptions.ServiceInstantiationException;
 import com.cyecize.ioc.handlers.DependencyResolver;
 import com.cyecize.ioc.models.DependencyParam;
 import com.cyecize.ioc.models.DependencyParamCollection;
+import com.cyecize.ioc.models.DependencyParamProvider;
+import com.cyecize.ioc.models.DependencyResolverIndex;
 import com.cyecize.ioc.models.EnqueuedServiceDetails;
 import com.cyecize.ioc.models.MethodAspectHandlerDto;
 import com.cyecize.ioc.models.ResolvedServiceDto;
 import com.cyecize.ioc.models.ServiceDetails;
+import com.cyecize.ioc.models.ServiceTypeIndex;
 import com.cyecize.ioc.utils.AliasFinder;
 import com.cyecize.ioc.utils.DependencyParamUtils;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 public class DependencyResolveServiceImpl implements DependencyResolveService {
     private final InstantiationConfiguration configuration;
 
+    private final DependencyResolverIndex dependencyResolverIndex;
+
     public DependencyResolveServiceImpl(InstantiationConfiguration configuration) {
         this.configuration = configuration;
+        this.dependencyResolverIndex = new DependencyResolverIndex(configuration.getDependencyResolvers());
     }
 
     /**
-     * Recursively iterate all services and resolve their dependencies by
+     * Iterate all services and resolve their dependencies by
      * creating {@link DependencyParam} which is directly linked by the {@link ServiceDetails} of a given dependency.
      * This will ensure that whenever the dependency is instantiated, the dependant service will instantly have access
      * to the instance.
@@ -38,86 +49,230 @@ public class DependencyResolveServiceImpl implements DependencyResolveService {
      * @param serviceDetails -
      * @return services sorted by their dependencies
      * @throws ServiceInstantiationException - if dependency is missing
-     * @throws CircularDependencyException   - if resolution is impossible due to circular dependency
+     * @throws CircularDependencyException   - if resolution is impossible due to circular dependencies, all of them
+     *                                       are reported at once
      */
     @Override
     public List<EnqueuedServiceDetails> resolveDependencies(Collection<ServiceDetails> serviceDetails) {
+        return this.resolveDependencies(serviceDetails, List.of());
+    }
+
+    /**
+     * Same as {@link #resolveDependencies(Collection)} but the given resolved services (and the provided services
+     * if there are any resolved services) are only used as dependencies and are not enqueued again.
+     * Used to resolve the part of the graph that changed.
+     */
+    @Override
+    public List<EnqueuedServiceDetails> resolveDependencies(Collection<ServiceDetails> serviceDetails,
+                                                            Collection<ServiceDetails> resolvedServices) {
         final List<EnqueuedServiceDetails> resolvedDependencies = new ArrayList<>();
 
+        //Cached resolver results can belong to classes that were reloaded since the previous call.
+        this.dependencyResolverIndex.clearResolvedValues();
+
+        //Identity is used since a resolved service can be equal to the one that replaces it.
+        final Set<ServiceDetails> skippedServices = Collections.newSetFromMap(new IdentityHashMap<>());
+        skippedServices.addAll(resolvedServices);
+
         final List<ServiceDetails> allAvailableServices = new ArrayList<>(serviceDetails);
-        allAvailableServices.addAll(this.configuration.getProvidedServices());
+        allAvailableServices.addAll(resolvedServices);
+        for (ServiceDetails providedService : this.configuration.getProvidedServices()) {
+            if (!skippedServices.contains(providedService)) {
+                allAvailableServices.add(providedService);
+            }
+
+            //Provided services were enqueued along with the resolved ones.
+            if (!resolvedServices.isEmpty()) {
+                skippedServices.add(providedService);
+            }
+        }
+
+        final ServiceTypeIndex serviceTypeIndex = new ServiceTypeIndex(allAvailableServices);
+        final Map<ServiceDetails, ServiceNode> nodes = new IdentityHashMap<>();
+        final List<List<ServiceNode>> cycles = new ArrayList<>();
+        final TraversalState traversalState = new TraversalState();
 
         for (ServiceDetails service : allAvailableServices) {
-            this.resolveDependency(service, resolvedDependencies, allAvailableServices, new LinkedList<>());
+            if (skippedServices.contains(service)) {
+                continue;
+            }
+
+            //Services that are only referenced by a Provider or Lazy can have a node that was not visited yet.
+            final ServiceNode node = nodes.containsKey(service) ? nodes.get(service) : this.createNode(service, nodes);
+            if (node.index < 0) {
+                this.resolveComponents(
+                        node, nodes, serviceTypeIndex, skippedServices, traversalState, resolvedDependencies, cycles
+                );
+            }
+        }
+
+        if (!cycles.isEmpty()) {
+            throw new CircularDependencyException(this.describeCycles(cycles));
         }
 
         return resolvedDependencies;
     }
 
     /**
-     * Checks aspects, constructor and field parameters for a given service and if there are any,
-     * recursively traverses them so that a dependency order is achieved.
-     * Every {@link DependencyParam} will be linked with a compatible {@link ServiceDetails}.
-     * Also, checks for circular is missing dependencies.
+     * Iterative Tarjan traversal of the services reachable from the given one.
+     * <p>
+     * Dependencies of a service are resolved when the service is first visited. A strongly connected component
+     * is completed only after every component it depends on, so single services are enqueued in dependency order.
+     * Components with more than one service or with a service that depends on itself are collected as cycles.
      *
-     * @param service              -
-     * @param resolvedDependencies -
-     * @param serviceTrace         -
+     * @param root                 - service to start from.
+     * @param nodes                - visited services.
+     * @param skippedServices      - services that are already resolved.
+     * @param resolvedDependencies - services sorted by their dependencies.
+     * @param cycles               - found dependency cycles.
      */
-    private void resolveDependency(ServiceDetails service,
+    private void resolveComponents(ServiceNode root,
+                                   Map<ServiceDetails, ServiceNode> nodes,
+                                   ServiceTypeIndex serviceTypeIndex,
+                                   Set<ServiceDetails> skippedServices,
+                                   TraversalState traversalState,
                                    List<EnqueuedServiceDetails> resolvedDependencies,
-                                   List<ServiceDetails> allAvailableServices,
-                                   LinkedList<ServiceDetails> serviceTrace) {
-        this.checkForCyclicDependency(service, serviceTrace);
-        final EnqueuedServiceDetails enqueuedServiceDetails = new EnqueuedServiceDetails(service);
-        if (resolvedDependencies.contains(enqueuedServiceDetails)) {
-            return;
-        }
+                                   List<List<ServiceNode>> cycles) {
+        final Deque<ServiceNode> traversalStack = new ArrayDeque<>();
+        this.visit(root, nodes, serviceTypeIndex, skippedServices, traversalState);
+        traversalStack.push(root);
+
+        while (!traversalStack.isEmpty()) {
+            final ServiceNode node = traversalStack.peek();
+
+            if (node.nextDependency < node.dependencies.size()) {
+                final ServiceNode dependency = node.dependencies.get(node.nextDependency++);
+                if (dependency.index < 0) {
+                    this.visit(dependency, nodes, serviceTypeIndex, skippedServices, traversalState);
+                    traversalStack.push(dependency);
+                } else if (dependency.onStack) {
+                    node.lowLink = Math.min(node.lowLink, dependency.index);
+                }
+
+                continue;
+            }
+
+            traversalStack.pop();
+            if (!traversalStack.isEmpty()) {
+                traversalStack.peek().lowLink = Math.min(traversalStack.peek().lowLink, node.lowLink);
+            }
 
-        serviceTrace.addFirst(service);
-        final Set<MethodAspectHandlerDto> aspects = service.getMethodAspectHandlers()
-                .values().stream()
-                .flatMap(Collection::stream)
-                .collect(Collectors.toSet());
+            if (node.lowLink != node.index) {
+                continue;
+            }
+
+            final List<ServiceNode> component = new ArrayList<>();
+            ServiceNode member;
+            do {
+                member = traversalState.componentStack.pop();
+                member.onStack = false;
+                component.add(member);
+            } while (member != node);
+
+            if (component.size() > 1 || node.dependencySet.contains(node)) {
+                Collections.reverse(component);
+                cycles.add(component);
+            } else {
+                resolvedDependencies.add(node.enqueuedServiceDetails);
+            }
+        }
+    }
 
-        for (MethodAspectHandlerDto aspect : aspects) {
-            this.resolveDependency(aspect.getServiceDetails(), resolvedDependencies, allAvailableServices, serviceTrace);
+    /**
+     * Resolves the aspects, constructor and field parameters of the given service.
+     * Every {@link DependencyParam} will be linked with a compatible {@link ServiceDetails}.
+     *
+     * @throws ServiceInstantiationException - if dependency is missing
+     */
+    private void visit(ServiceNode node,
+                       Map<ServiceDetails, ServiceNode> nodes,
+                       ServiceTypeIndex serviceTypeIndex,
+                       Set<ServiceDetails> skippedServices,
+                       TraversalState traversalState) {
+        node.index = traversalState.nextIndex++;
+        node.lowLink = node.index;
+        node.onStack = true;
+        traversalState.componentStack.push(node);
+
+        final ServiceDetails service = node.enqueuedServiceDetails.getServiceDetails();
+        final List<ServiceDetails> dependencies = new ArrayList<>();
+
+        //Beans are proxied right after the service is created, so the aspects of the beans are needed as well.
+        final List<ServiceDetails> advisedServices = new ArrayList<>(service.getBeans());
+        advisedServices.add(service);
+
+        for (ServiceDetails advisedService : advisedServices) {
+            for (List<MethodAspectHandlerDto> aspects : advisedService.getMethodAspectHandlers().values()) {
+                for (MethodAspectHandlerDto aspect : aspects) {
+                    dependencies.add(aspect.getServiceDetails());
+                }
+            }
         }
 
-        final List<DependencyParam> dependencyParams = new ArrayList<>() {{
-            addAll(enqueuedServiceDetails.getConstructorParams());
-            addAll(enqueuedServiceDetails.getFieldDependencies());
-        }};
+        final List<DependencyParam> dependencyParams = new ArrayList<>();
+        dependencyParams.addAll(node.enqueuedServiceDetails.getConstructorParams());
+        dependencyParams.addAll(node.enqueuedServiceDetails.getFieldDependencies());
 
         for (DependencyParam dependencyParam : dependencyParams) {
-            final List<ServiceDetails> servicesToResolve;
+            final List<ServiceDetails> producers;
             try {
-                servicesToResolve = this.resolveParameter(dependencyParam, allAvailableServices);
+                producers = this.resolveParameter(dependencyParam, serviceTypeIndex);
             } catch (Exception ex) {
                 throw new ServiceInstantiationException(String.format(
                         "Error while resolving dependencies for service '%s'.", service.getServiceType()
                 ), ex);
             }
 
-            for (ServiceDetails serviceToResolve : servicesToResolve) {
-                this.resolveDependency(serviceToResolve, resolvedDependencies, allAvailableServices, serviceTrace);
+            if (!(dependencyParam instanceof DependencyParamProvider)) {
+                dependencies.addAll(producers);
+                continue;
+            }
+
+            //Deferred dependencies are not instantiated before the service and add no edge to the graph,
+            //so the circular dependency detection does not see them, which allows them to be circular.
+            for (ServiceDetails producer : producers) {
+                if (!skippedServices.contains(producer)) {
+                    final ServiceNode producerNode = nodes.containsKey(producer)
+                            ? nodes.get(producer)
+                            : this.createNode(producer, nodes);
+
+                    ((DependencyParamProvider) dependencyParam).setProducer(producerNode.enqueuedServiceDetails);
+                }
             }
         }
 
-        serviceTrace.removeFirst();
-        resolvedDependencies.add(enqueuedServiceDetails);
+        for (ServiceDetails dependency : dependencies) {
+            if (skippedServices.contains(dependency)) {
+                continue;
+            }
+
+            final ServiceNode dependencyNode = nodes.containsKey(dependency)
+                    ? nodes.get(dependency)
+                    : this.createNode(dependency, nodes);
+
+            if (node.dependencySet.add(dependencyNode)) {
+                node.dependencies.add(dependencyNode);
+                node.enqueuedServiceDetails.getDependencies().add(dependencyNode.enqueuedServiceDetails);
+            }
+        }
+    }
+
+    private ServiceNode createNode(ServiceDetails service, Map<ServiceDetails, ServiceNode> nodes) {
+        final ServiceNode node = new ServiceNode(new EnqueuedServiceDetails(service));
+        nodes.put(service, node);
+        return node;
     }
 
     /**
      * Attempts to resolve dependency parameter by named instance, compatible class or dependency resolver.
      *
-     * @param dependencyParam      -
-     * @param allAvailableServices -
+     * @param dependencyParam  -
+     * @param serviceTypeIndex - all available services indexed by type and instance name.
      * @return list of services that the given param relies on
      * @throws ServiceInstantiationException - if none of the options found a match and the parameter is not {@link Nullable}
      */
     private List<ServiceDetails> resolveParameter(DependencyParam dependencyParam,
-                                                  List<ServiceDetails> allAvailableServices) {
+                                                  ServiceTypeIndex serviceTypeIndex) {
         final Class<?> dependencyType = dependencyParam.getDependencyType();
 
         if (AliasFinder.isAnnotationPresent(dependencyParam.getAnnotations(), Nullable.class)) {
@@ -128,7 +283,7 @@ public class DependencyResolveServiceImpl implements DependencyResolveService {
             final ResolvedServiceDto resolvedNamedService = DependencyParamUtils.getNamedInstanceService(
                     dependencyType,
                     dependencyParam.getInstanceName(),
-                    allAvailableServices
+                    serviceTypeIndex
             );
 
             if (resolvedNamedService != null) {
@@ -149,20 +304,19 @@ public class DependencyResolveServiceImpl implements DependencyResolveService {
         if (dependencyParam instanceof DependencyParamCollection) {
             resolvedServices = this.loadCompatibleServiceDetails(
                     (DependencyParamCollection) dependencyParam,
-                    allAvailableServices
+                    serviceTypeIndex
             );
         } else {
-            resolvedServices = this.loadCompatibleServiceDetails(dependencyParam, allAvailableServices);
+            resolvedServices = this.loadCompatibleServiceDetails(dependencyParam, serviceTypeIndex);
         }
 
         if (!resolvedServices.isEmpty()) {
             return resolvedServices;
         }
 
-        final DependencyResolver dependencyResolver = this.getDependencyResolver(dependencyParam);
+        final DependencyResolver dependencyResolver = this.dependencyResolverIndex.getDependencyResolver(dependencyParam);
         if (dependencyResolver != null) {
-            //TODO: do not set instance, add support for proxy and singleton dependency resolvers
-            dependencyParam.setInstance(dependencyResolver.resolve(dependencyParam));
+            dependencyParam.setInstance(this.dependencyResolverIndex.resolve(dependencyResolver, dependencyParam));
             dependencyParam.setDependencyResolver(dependencyResolver);
             return List.of();
         }
@@ -180,9 +334,9 @@ public class DependencyResolveServiceImpl implements DependencyResolveService {
     }
 
     private List<ServiceDetails> loadCompatibleServiceDetails(DependencyParam dependencyParam,
-                                                              List<ServiceDetails> allAvailableServices) {
+                                                              ServiceTypeIndex serviceTypeIndex) {
         final List<ResolvedServiceDto> compatibleServices = DependencyParamUtils.findAllCompatibleServices(
-                dependencyParam, allAvailableServices
+                dependencyParam, serviceTypeIndex
         );
 
         if (compatibleServices.size() > 1) {
@@ -206,9 +360,9 @@ public class DependencyResolveServiceImpl implements DependencyResolveService {
     }
 
     private List<ServiceDetails> loadCompatibleServiceDetails(DependencyParamCollection dependencyParam,
-                                                              List<ServiceDetails> allAvailableServices) {
+                                                              ServiceTypeIndex serviceTypeIndex) {
         final List<ResolvedServiceDto> compatibleServices = DependencyParamUtils.findAllCompatibleServices(
-                dependencyParam, allAvailableServices
+                dependencyParam, serviceTypeIndex
         );
 
         dependencyParam.setServiceDetails(compatibleServices.stream()
@@ -219,39 +373,98 @@ public class DependencyResolveServiceImpl implements DependencyResolveService {
         return compatibleServices.stream().map(ResolvedServiceDto::getProducerService).collect(Collectors.toList());
     }
 
-    private DependencyResolver getDependencyResolver(DependencyParam dependencyParam) {
-        return this.configuration.getDependencyResolvers().stream()
-                .filter(dr -> dr.canResolve(dependencyParam))
-                .findFirst().orElse(null);
-    }
+    /**
+     * Describes every cycle with the shortest path from its first service back to it.
+     */
+    private String describeCycles(List<List<ServiceNode>> cycles) {
+        char arrowDown = '\u2193';
+        char arrowUp = '\u2191';
 
-    private void checkForCyclicDependency(ServiceDetails service, LinkedList<ServiceDetails> serviceTrace) {
-        if (serviceTrace.isEmpty()) {
-            return;
+        final StringBuilder sb = new StringBuilder();
+        sb.append(cycles.size() == 1 ? "Circular dependency found!" : String.format(
+                "%d circular dependencies found!", cycles.size()
+        ));
+
+        for (List<ServiceNode> cycle : cycles) {
+            sb.append(String.format("\n%s<----%s", arrowDown, arrowUp));
+            for (ServiceNode node : this.findCyclePath(cycle)) {
+                sb.append(String.format(
+                        "\n%s     %s %s", arrowDown, arrowUp, node.enqueuedServiceDetails.getServiceDetails().getServiceType()
+                ));
+            }
+
+            sb.append(String.format("\n%s---->%s", arrowDown, arrowUp));
         }
 
-        if (!serviceTrace.contains(service)) {
-            return;
+        return sb.toString();
+    }
+
+    /**
+     * Breadth first search inside the strongly connected component for the shortest way back to its first service.
+     *
+     * @return services of the cycle, each one depending on the next and the last one depending on the first.
+     */
+    private List<ServiceNode> findCyclePath(List<ServiceNode> component) {
+        final ServiceNode start = component.get(0);
+        final Set<ServiceNode> members = Collections.newSetFromMap(new IdentityHashMap<>());
+        members.addAll(component);
+
+        final Map<ServiceNode, ServiceNode> previous = new IdentityHashMap<>();
+        final Deque<ServiceNode> queue = new ArrayDeque<>();
+        queue.add(start);
+
+        while (!queue.isEmpty()) {
+            final ServiceNode node = queue.poll();
+            for (ServiceNode dependency : node.dependencies) {
+                if (dependency == start) {
+                    final LinkedList<ServiceNode> path = new LinkedList<>();
+                    for (ServiceNode step = node; step != null; step = previous.get(step)) {
+                        path.addFirst(step);
+                    }
+
+                    return path;
+                }
+
+                if (members.contains(dependency) && !previous.containsKey(dependency)) {
+                    previous.put(dependency, node);
+                    queue.add(dependency);
+                }
+            }
         }
 
-        char arrowDown = '\u2193';
-        char arrowUp = '\u2191';
+        return component;
+    }
 
-        final StringBuilder sb = new StringBuilder();
-        sb.append("Circular dependency found!");
-        sb.append(String.format("\n%s<----%s", arrowDown, arrowUp));
-        sb.append(String.format("\n%s     %s %s", arrowDown, arrowUp, service.getServiceType()));
+    /**
+     * Service in the dependency graph along with its Tarjan traversal state.
+     */
+    private static class ServiceNode {
+        private final EnqueuedServiceDetails enqueuedServiceDetails;
 
-        for (ServiceDetails trace : serviceTrace) {
-            if (service.equals(trace)) {
-                break;
-            }
+        private final List<ServiceNode> dependencies;
+
+        //Same nodes as the dependencies list, for constant time duplicate checks.
+        private final Set<ServiceNode> dependencySet;
+
+        private int nextDependency;
 
-            sb.append(String.format("\n%s     %s %s", arrowDown, arrowUp, trace.getServiceType()));
+        private int index;
+
+        private int lowLink;
+
+        private boolean onStack;
+
+        private ServiceNode(EnqueuedServiceDetails enqueuedServiceDetails) {
+            this.enqueuedServiceDetails = enqueuedServiceDetails;
+            this.dependencies = new ArrayList<>();
+            this.dependencySet = Collections.newSetFromMap(new IdentityHashMap<>());
+            this.index = -1;
         }
+    }
 
-        sb.append(String.format("\n%s---->%s", arrowDown, arrowUp));
+    private static class TraversalState {
+        private final Deque<ServiceNode> componentStack = new ArrayDeque<>();
 
-        throw new CircularDependencyException(sb.toString());
+        private int nextIndex;
     }
 }
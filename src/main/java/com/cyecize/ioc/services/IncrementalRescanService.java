@@ -0,0 +1,50 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.models.ClassFileChanges;
+import com.cyecize.ioc.models.ServiceDetails;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Keeps services of watched class directories up to date with their class files.
+ */
+public interface IncrementalRescanService extends AutoCloseable {
+
+    /**
+     * Locates, maps and instantiates all classes of the watched directories.
+     */
+    void initialize();
+
+    /**
+     * Reloads the classes affected by the given changes and rebuilds the services that depend on them.
+     * If reloading fails, the changes are kept and retried with the next call.
+     * <p>
+     * The replaced services are not destroyed until {@link #destroyReplacedServices()} or the next rescan,
+     * so that they stay usable until the new services are published.
+     *
+     * @return services and beans that were created, empty if nothing changed.
+     */
+    Collection<ServiceDetails> rescan(ClassFileChanges changes);
+
+    /**
+     * Destroys the services and beans replaced by the last rescan.
+     */
+    void destroyReplacedServices();
+
+    ClassFileChanges pollChanges();
+
+    ClassFileChanges awaitChanges(long quietPeriodMillis) throws InterruptedException;
+
+    /**
+     * @return class loader of the current generation of watched classes.
+     */
+    ClassLoader getClassLoader();
+
+    Set<Class<?>> getLocatedClasses();
+
+    Collection<ServiceDetails> getServicesAndBeans();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,550 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.config.MagicConfiguration;
+import com.cyecize.ioc.config.configurations.InstantiationConfiguration;
+import com.cyecize.ioc.config.configurations.ScanningConfiguration;
+import com.cyecize.ioc.exceptions.ClassLocationException;
+import com.cyecize.ioc.handlers.DependencyResolver;
+import com.cyecize.ioc.handlers.ServiceMethodAspectHandler;
+import com.cyecize.ioc.models.ClassFileChanges;
+import com.cyecize.ioc.models.ClassFileMetadata;
+import com.cyecize.ioc.models.DependencyParam;
+import com.cyecize.ioc.models.DependencyParamCollection;
+import com.cyecize.ioc.models.MethodAspectHandlerDto;
+import com.cyecize.ioc.models.ServiceBeanDetails;
+import com.cyecize.ioc.models.ServiceDetails;
+import com.cyecize.ioc.utils.ClassFileUtils;
+import com.cyecize.ioc.utils.ObjectInstantiationUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link IncrementalRescanService} implementation.
+ * <p>
+ * Loaded classes cannot be redefined, so each rescan creates a new {@link ReloadableClassLoader} generation
+ * on top of the current one which defines only the impacted classes. Impacted classes are the changed ones
+ * and every watched class that refers to them, directly or transitively, according to their constant pools.
+ * Every generation keeps the previous ones reachable, so once the chain gets deeper than
+ * {@link #MAX_CLASS_LOADER_GENERATIONS} the next rescan reloads every watched class in a generation
+ * on top of the configured class loader and the old generations can be unloaded.
+ * <p>
+ * Services whose class was reloaded or deleted are mapped again, along with every service that depends on them
+ * or whose dependencies could now resolve to a reloaded class. Only these services are resolved and instantiated,
+ * the rest of the services are used as they are and their instances are kept.
+ * <p>
+ * Annotation types and classes that are referenced by the configuration (additional classes, provided services
+ * and dependency resolvers), as well as the watched classes they refer to, are never reloaded
+ * since the configuration keeps their original version.
+ */
+public class IncrementalRescanServiceImpl implements IncrementalRescanService {
+
+    private static final String INVALID_DIRECTORY_MSG = "Only directories can be watched, '%s' is not a directory.";
+
+    static final int MAX_CLASS_LOADER_GENERATIONS = 16;
+
+    private final File[] directories;
+
+    private final ScanningConfiguration scanningConfiguration;
+
+    private final InstantiationConfiguration instantiationConfiguration;
+
+    private final ClassDirectoryWatcher classDirectoryWatcher;
+
+    private final ServicesScanningService scanningService;
+
+    private final ServicesInstantiationService instantiationService;
+
+    private final ClassFileFilter classFileFilter;
+
+    private final PackageFilter packageFilter;
+
+    /**
+     * Watched class and the watched classes that refer to it.
+     */
+    private final Map<String, Set<String>> referencingClasses;
+
+    /**
+     * Watched class and the watched classes that it refers to.
+     */
+    private final Map<String, Set<String>> referencedClasses;
+
+    private final Set<String> annotationClasses;
+
+    private final Set<String> fixedClasses;
+
+    private final ClassFileChanges pendingChanges;
+
+    private ReloadableClassLoader classLoader;
+
+    private int classLoaderGenerations;
+
+    private Set<Class<?>> locatedClasses;
+
+    private List<ServiceDetails> servicesAndBeans;
+
+    /**
+     * Services and beans replaced by the last rescan that were not destroyed yet.
+     */
+    private List<ServiceDetails> replacedServices;
+
+    public IncrementalRescanServiceImpl(File[] directories, MagicConfiguration configuration) {
+        this.directories = directories;
+        this.scanningConfiguration = configuration.scanning();
+        this.instantiationConfiguration = configuration.instantiations();
+        this.scanningService = new ServicesScanningServiceImpl(this.scanningConfiguration);
+        this.instantiationService = new ServicesInstantiationServiceImpl(
+                new DependencyResolveServiceImpl(this.instantiationConfiguration),
+                this.instantiationConfiguration.getExecutor()
+        );
+
+        if (this.scanningConfiguration.isPreFilterClassFiles()) {
+            this.classFileFilter = new ClassFileFilterForServiceAnnotations(this.scanningConfiguration);
+        } else {
+            this.classFileFilter = null;
+        }
+
+        if (!this.scanningConfiguration.getIncludedPackages().isEmpty()
+                || !this.scanningConfiguration.getExcludedPackages().isEmpty()) {
+            this.packageFilter = new PackageFilterImpl(
+                    this.scanningConfiguration.getIncludedPackages(), this.scanningConfiguration.getExcludedPackages()
+            );
+        } else {
+            this.packageFilter = null;
+        }
+
+        for (File directory : directories) {
+            if (!directory.isDirectory()) {
+                throw new ClassLocationException(String.format(INVALID_DIRECTORY_MSG, directory));
+            }
+        }
+
+        try {
+            this.classDirectoryWatcher = new ClassDirectoryWatcher(directories);
+        } catch (IOException e) {
+            throw new ClassLocationException(e.getMessage(), e);
+        }
+
+        this.referencingClasses = new HashMap<>();
+        this.referencedClasses = new HashMap<>();
+        this.annotationClasses = new HashSet<>();
+        this.pendingChanges = new ClassFileChanges();
+        this.locatedClasses = new HashSet<>();
+        this.servicesAndBeans = new ArrayList<>();
+        this.replacedServices = new ArrayList<>();
+
+        final Map<String, Path> classFiles = this.classDirectoryWatcher.getClassFiles();
+        classFiles.forEach(this::readClassFile);
+
+        this.fixedClasses = this.findFixedClasses(classFiles.keySet());
+        this.classLoader = new ReloadableClassLoader(
+                this.scanningConfiguration.getClassLoader(), this.getReloadableClassFiles(classFiles, classFiles.keySet())
+        );
+        this.classLoaderGenerations = 1;
+    }
+
+    /**
+     * Locates the classes with the first generation class loader as context class loader, so that
+     * every watched class is defined by it.
+     */
+    @Override
+    public synchronized void initialize() {
+        final ClassLocationService classLocationService = new ClassLocationServiceImpl(this.scanningConfiguration);
+
+        final ClassLoader oldCl = Thread.currentThread().getContextClassLoader();
+        try {
+            Thread.currentThread().setContextClassLoader(this.classLoader);
+            this.locatedClasses = classLocationService.locateClasses(this.directories);
+            this.servicesAndBeans = new ArrayList<>(this.instantiationService.instantiateServicesAndBeans(
+                    this.scanningService.mapServices(this.locatedClasses)
+            ));
+        } finally {
+            Thread.currentThread().setContextClassLoader(oldCl);
+        }
+    }
+
+    @Override
+    public synchronized Collection<ServiceDetails> rescan(ClassFileChanges changes) {
+        this.destroyReplacedServices();
+        this.pendingChanges.merge(changes);
+        if (this.pendingChanges.isEmpty()) {
+            return List.of();
+        }
+
+        final Map<String, Path> classFiles = this.classDirectoryWatcher.getClassFiles();
+        this.pendingChanges.getDeletedClasses().forEach(this::removeClassFile);
+        this.pendingChanges.getModifiedClasses().forEach(className -> this.readClassFile(className, classFiles.get(className)));
+        this.pendingChanges.getCreatedClasses().forEach(className -> this.readClassFile(className, classFiles.get(className)));
+
+        final boolean collapseGenerations = this.classLoaderGenerations >= MAX_CLASS_LOADER_GENERATIONS;
+        final Set<String> impactedClasses = collapseGenerations
+                ? new HashSet<>(this.getReloadableClassFiles(classFiles, classFiles.keySet()).keySet())
+                : this.findImpactedClasses(classFiles);
+
+        final ReloadableClassLoader newClassLoader = new ReloadableClassLoader(
+                collapseGenerations ? this.scanningConfiguration.getClassLoader() : this.classLoader,
+                this.getReloadableClassFiles(classFiles, impactedClasses)
+        );
+
+        final Set<String> replacedClasses = new HashSet<>(impactedClasses);
+        replacedClasses.addAll(this.pendingChanges.getDeletedClasses());
+
+        final Collection<ServiceDetails> createdServices;
+        final ClassLoader oldCl = Thread.currentThread().getContextClassLoader();
+        try {
+            Thread.currentThread().setContextClassLoader(newClassLoader);
+            final Set<Class<?>> reloadedClasses = this.loadClasses(impactedClasses, classFiles, newClassLoader);
+            createdServices = this.replaceServices(replacedClasses, reloadedClasses);
+
+            final Set<Class<?>> newLocatedClasses = new HashSet<>(reloadedClasses);
+            this.locatedClasses.stream()
+                    .filter(cls -> !replacedClasses.contains(cls.getName()))
+                    .forEach(newLocatedClasses::add);
+
+            this.locatedClasses = newLocatedClasses;
+        } finally {
+            Thread.currentThread().setContextClassLoader(oldCl);
+        }
+
+        this.classLoader = newClassLoader;
+        this.classLoaderGenerations = collapseGenerations ? 1 : this.classLoaderGenerations + 1;
+        this.pendingChanges.getCreatedClasses().clear();
+        this.pendingChanges.getModifiedClasses().clear();
+        this.pendingChanges.getDeletedClasses().clear();
+
+        this.scanningConfiguration.getServicesReloadedCallbacks()
+                .forEach(callback -> callback.servicesReloaded(createdServices));
+
+        return createdServices;
+    }
+
+    @Override
+    public synchronized void destroyReplacedServices() {
+        final List<ServiceDetails> replacedServices = this.replacedServices;
+        this.replacedServices = new ArrayList<>();
+
+        for (ServiceDetails replacedService : replacedServices) {
+            ObjectInstantiationUtils.destroyInstance(replacedService);
+        }
+    }
+
+    @Override
+    public ClassFileChanges pollChanges() {
+        return this.classDirectoryWatcher.pollChanges();
+    }
+
+    @Override
+    public ClassFileChanges awaitChanges(long quietPeriodMillis) throws InterruptedException {
+        return this.classDirectoryWatcher.awaitChanges(quietPeriodMillis);
+    }
+
+    @Override
+    public synchronized ClassLoader getClassLoader() {
+        return this.classLoader;
+    }
+
+    @Override
+    public synchronized Set<Class<?>> getLocatedClasses() {
+        return this.locatedClasses;
+    }
+
+    @Override
+    public synchronized Collection<ServiceDetails> getServicesAndBeans() {
+        return this.servicesAndBeans;
+    }
+
+    @Override
+    public void close() {
+        try {
+            this.classDirectoryWatcher.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Maps and instantiates the services affected by the replaced classes,
+     * the services they replace are destroyed by {@link #destroyReplacedServices()}.
+     *
+     * @return created services and beans.
+     */
+    private Collection<ServiceDetails> replaceServices(Set<String> replacedClasses, Set<Class<?>> reloadedClasses) {
+        final Set<ServiceDetails> topLevelServices = newIdentitySet();
+        this.servicesAndBeans.stream()
+                .filter(sd -> !(sd instanceof ServiceBeanDetails))
+                .forEach(topLevelServices::add);
+
+        final Set<ServiceDetails> rebuiltServices = this.findRebuiltServices(
+                topLevelServices, replacedClasses, reloadedClasses
+        );
+
+        final List<ServiceDetails> keptServices = new ArrayList<>();
+        final Set<Class<?>> classesToMap = new HashSet<>(reloadedClasses);
+        for (ServiceDetails service : topLevelServices) {
+            if (!rebuiltServices.contains(service)) {
+                keptServices.add(service);
+            } else if (!replacedClasses.contains(service.getServiceType().getName())) {
+                //Rebuilt because of its dependencies, the class itself did not change.
+                classesToMap.add(service.getServiceType());
+            }
+        }
+
+        final Collection<ServiceDetails> createdServices = this.instantiationService.instantiateServicesAndBeans(
+                this.scanningService.mapServices(classesToMap, keptServices), keptServices
+        );
+
+        final List<ServiceDetails> newServicesAndBeans = new ArrayList<>();
+        for (ServiceDetails serviceDetails : this.servicesAndBeans) {
+            final ServiceDetails rootService = serviceDetails instanceof ServiceBeanDetails
+                    ? ((ServiceBeanDetails) serviceDetails).getRootService()
+                    : serviceDetails;
+
+            if (rebuiltServices.contains(rootService)) {
+                this.replacedServices.add(serviceDetails);
+            } else {
+                newServicesAndBeans.add(serviceDetails);
+            }
+        }
+
+        newServicesAndBeans.addAll(createdServices);
+        this.servicesAndBeans = newServicesAndBeans;
+
+        return createdServices;
+    }
+
+    /**
+     * Collects the services whose class was replaced and then, until nothing changes, the services
+     * that depend on any of the collected ones.
+     * <p>
+     * If an aspect handler is affected, every service is rebuilt since any of them can use its aspect.
+     */
+    private Set<ServiceDetails> findRebuiltServices(Set<ServiceDetails> topLevelServices,
+                                                    Set<String> replacedClasses,
+                                                    Set<Class<?>> reloadedClasses) {
+        final Set<ServiceDetails> rebuiltServices = newIdentitySet();
+        for (ServiceDetails service : topLevelServices) {
+            if (replacedClasses.contains(service.getServiceType().getName())) {
+                rebuiltServices.add(service);
+            }
+        }
+
+        final boolean aspectHandlerAffected = reloadedClasses.stream()
+                .anyMatch(ServiceMethodAspectHandler.class::isAssignableFrom)
+                || rebuiltServices.stream()
+                .anyMatch(sd -> ServiceMethodAspectHandler.class.isAssignableFrom(sd.getServiceType()));
+
+        if (aspectHandlerAffected) {
+            rebuiltServices.addAll(topLevelServices);
+            return rebuiltServices;
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (ServiceDetails service : topLevelServices) {
+                if (!rebuiltServices.contains(service) && this.dependsOn(service, rebuiltServices, reloadedClasses)) {
+                    rebuiltServices.add(service);
+                    changed = true;
+                }
+            }
+        }
+
+        return rebuiltServices;
+    }
+
+    private boolean dependsOn(ServiceDetails service,
+                              Set<ServiceDetails> rebuiltServices,
+                              Set<Class<?>> reloadedClasses) {
+        final List<ServiceDetails> advisedServices = new ArrayList<>(service.getBeans());
+        advisedServices.add(service);
+
+        for (ServiceDetails advisedService : advisedServices) {
+            for (List<MethodAspectHandlerDto> aspects : advisedService.getMethodAspectHandlers().values()) {
+                for (MethodAspectHandlerDto aspect : aspects) {
+                    if (rebuiltServices.contains(aspect.getServiceDetails())) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        final List<DependencyParam> dependencyParams = new ArrayList<>();
+        if (service.getResolvedConstructorParams() != null) {
+            dependencyParams.addAll(service.getResolvedConstructorParams());
+        }
+
+        if (service.getResolvedFields() != null) {
+            dependencyParams.addAll(service.getResolvedFields());
+        }
+
+        for (DependencyParam dependencyParam : dependencyParams) {
+            final List<ServiceDetails> dependencies = new ArrayList<>();
+            if (dependencyParam.getServiceDetails() != null) {
+                dependencies.add(dependencyParam.getServiceDetails());
+            }
+
+            if (dependencyParam instanceof DependencyParamCollection
+                    && ((DependencyParamCollection) dependencyParam).getServiceDetailsCollection() != null) {
+                dependencies.addAll(((DependencyParamCollection) dependencyParam).getServiceDetailsCollection());
+            }
+
+            for (ServiceDetails dependency : dependencies) {
+                final ServiceDetails rootService = dependency instanceof ServiceBeanDetails
+                        ? ((ServiceBeanDetails) dependency).getRootService()
+                        : dependency;
+
+                if (rebuiltServices.contains(rootService)) {
+                    return true;
+                }
+            }
+
+            //A reloaded or new class could be a different match for this dependency.
+            for (Class<?> reloadedClass : reloadedClasses) {
+                if (dependencyParam.getDependencyType().isAssignableFrom(reloadedClass)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Loads and initializes the given classes with the new generation, applying the same filters as the class locators.
+     */
+    private Set<Class<?>> loadClasses(Set<String> classNames,
+                                      Map<String, Path> classFiles,
+                                      ReloadableClassLoader classLoader) {
+        try (ClassLoadingStage classLoadingStage = new ClassLoadingStage(this.classFileFilter, classLoader, 1)) {
+            for (String className : classNames) {
+                if (this.packageFilter != null && !this.packageFilter.isClassIncluded(className)) {
+                    continue;
+                }
+
+                final Path classFile = classFiles.get(className);
+                classLoadingStage.submit(className, () -> Files.readAllBytes(classFile));
+            }
+
+            return classLoadingStage.getLocatedClasses();
+        }
+    }
+
+    /**
+     * @return changed and created classes and every watched class that refers to them, directly or transitively,
+     * except for the classes that are never reloaded.
+     */
+    private Set<String> findImpactedClasses(Map<String, Path> classFiles) {
+        final Set<String> impactedClasses = new HashSet<>();
+        final Deque<String> queue = new ArrayDeque<>();
+        queue.addAll(this.pendingChanges.getCreatedClasses());
+        queue.addAll(this.pendingChanges.getModifiedClasses());
+        queue.addAll(this.pendingChanges.getDeletedClasses());
+
+        while (!queue.isEmpty()) {
+            final String className = queue.poll();
+            if (!impactedClasses.add(className)) {
+                continue;
+            }
+
+            queue.addAll(this.referencingClasses.getOrDefault(className, Set.of()));
+        }
+
+        impactedClasses.retainAll(classFiles.keySet());
+        impactedClasses.removeAll(this.fixedClasses);
+        impactedClasses.removeAll(this.annotationClasses);
+
+        return impactedClasses;
+    }
+
+    private Map<String, Path> getReloadableClassFiles(Map<String, Path> classFiles, Set<String> classNames) {
+        final Map<String, Path> reloadableClassFiles = new HashMap<>();
+        for (String className : classNames) {
+            if (!this.fixedClasses.contains(className) && !this.annotationClasses.contains(className)) {
+                reloadableClassFiles.put(className, classFiles.get(className));
+            }
+        }
+
+        return reloadableClassFiles;
+    }
+
+    /**
+     * @return classes used by the configuration and the watched classes that they refer to, directly or transitively.
+     */
+    private Set<String> findFixedClasses(Set<String> watchedClasses) {
+        final Deque<String> queue = new ArrayDeque<>();
+        this.scanningConfiguration.getAdditionalClasses().keySet().forEach(cls -> queue.add(cls.getName()));
+        this.instantiationConfiguration.getProvidedServices().forEach(sd -> queue.add(sd.getServiceType().getName()));
+        for (DependencyResolver dependencyResolver : this.instantiationConfiguration.getDependencyResolvers()) {
+            queue.add(dependencyResolver.getClass().getName());
+        }
+
+        final Set<String> fixedClasses = new HashSet<>();
+        while (!queue.isEmpty()) {
+            final String className = queue.poll();
+            if (watchedClasses.contains(className) && fixedClasses.add(className)) {
+                queue.addAll(this.referencedClasses.getOrDefault(className, Set.of()));
+            }
+        }
+
+        return fixedClasses;
+    }
+
+    private void readClassFile(String className, Path classFile) {
+        this.removeClassFile(className);
+        if (classFile == null) {
+            return;
+        }
+
+        final byte[] classBytes;
+        try {
+            classBytes = Files.readAllBytes(classFile);
+        } catch (IOException e) {
+            throw new ClassLocationException(e.getMessage(), e);
+        }
+
+        final ClassFileMetadata metadata = ClassFileUtils.readMetadata(classBytes, classFile.toString());
+        if (metadata.isAnnotation()) {
+            this.annotationClasses.add(className);
+        }
+
+        final Set<String> referencedClassNames = ClassFileUtils.readReferencedClassNames(classBytes, classFile.toString());
+        referencedClassNames.remove(className);
+        this.referencedClasses.put(className, referencedClassNames);
+        for (String referencedClassName : referencedClassNames) {
+            this.referencingClasses.computeIfAbsent(referencedClassName, k -> new HashSet<>()).add(className);
+        }
+    }
+
+    private void removeClassFile(String className) {
+        this.annotationClasses.remove(className);
+
+        final Set<String> referencedClassNames = this.referencedClasses.remove(className);
+        if (referencedClassNames == null) {
+            return;
+        }
+
+        for (String referencedClassName : referencedClassNames) {
+            final Set<String> referencing = this.referencingClasses.get(referencedClassName);
+            if (referencing != null) {
+                referencing.remove(className);
+            }
+        }
+    }
+
+    private static Set<ServiceDetails> newIdentitySet() {
+        //A service that is rebuilt only because of its dependencies is equal to the service it replaces.
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
@@ -0,0 +1,225 @@
+package com.cyecize.ioc.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Class loader for the classes of fat jars that are not on the class path of the application,
+ * the classes directories of the fat jar (eg. BOOT-INF/classes) and the jars packed inside of it.
+ * <p>
+ * Every class is first delegated to the parent, so a launcher that already serves the fat jar keeps
+ * defining its classes. The roots are read from the open zip file systems of the scan, which this loader
+ * takes over and keeps open until it is closed, since classes can be loaded at any time.
+ * Versioned entries of multi-release jars are preferred, the highest version supported by the runtime first.
+ */
+public class NestedJarClassLoader extends ClassLoader implements AutoCloseable {
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private static final String VERSIONS_DIR = "META-INF/versions";
+
+    private static final String NESTED_URL_PROTOCOL = "magic-nested";
+
+    private static final int RUNTIME_VERSION = Runtime.version().feature();
+
+    private final List<ClassPathRoot> roots;
+
+    private final List<FileSystem> fileSystems;
+
+    public NestedJarClassLoader(ClassLoader parent) {
+        super(parent);
+        this.roots = new CopyOnWriteArrayList<>();
+        this.fileSystems = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Adds a directory of an open zip file system from which classes and resources are loaded.
+     *
+     * @param isMultiRelease - whether the directory is the root of a multi-release jar.
+     */
+    public void addRoot(Path root, boolean isMultiRelease) throws IOException {
+        this.roots.add(new ClassPathRoot(root, isMultiRelease ? findVersionDirs(root) : List.of()));
+    }
+
+    /**
+     * Transfers a file system to this loader, it is closed along with the loader.
+     */
+    public void addFileSystem(FileSystem fileSystem) {
+        this.fileSystems.add(fileSystem);
+    }
+
+    public boolean hasRoots() {
+        return !this.roots.isEmpty();
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        final Path classFile = this.findEntry(name.replace('.', '/') + ".class");
+        if (classFile == null) {
+            throw new ClassNotFoundException(name);
+        }
+
+        final byte[] classBytes;
+        try {
+            classBytes = Files.readAllBytes(classFile);
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+
+        return this.defineClass(name, classBytes, 0, classBytes.length);
+    }
+
+    @Override
+    protected URL findResource(String name) {
+        final Path entry = this.findEntry(name);
+        if (entry == null) {
+            return null;
+        }
+
+        try {
+            return createUrl(entry);
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected Enumeration<URL> findResources(String name) {
+        final List<URL> urls = new ArrayList<>();
+        for (ClassPathRoot root : this.roots) {
+            final Path entry = root.findEntry(name);
+            if (entry == null) {
+                continue;
+            }
+
+            try {
+                urls.add(createUrl(entry));
+            } catch (MalformedURLException ignored) {
+            }
+        }
+
+        return Collections.enumeration(urls);
+    }
+
+    @Override
+    public void close() {
+        this.roots.clear();
+        //Nested file systems are closed before their parents.
+        for (int i = this.fileSystems.size() - 1; i >= 0; i--) {
+            try {
+                this.fileSystems.get(i).close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        this.fileSystems.clear();
+    }
+
+    private Path findEntry(String name) {
+        for (ClassPathRoot root : this.roots) {
+            final Path entry = root.findEntry(name);
+            if (entry != null) {
+                return entry;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return version directories that the runtime supports, highest version first.
+     */
+    private static List<Path> findVersionDirs(Path root) throws IOException {
+        final Path versionsDir = root.resolve(VERSIONS_DIR);
+        if (!Files.isDirectory(versionsDir)) {
+            return List.of();
+        }
+
+        final List<Path> versionDirs = new ArrayList<>();
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(versionsDir)) {
+            for (Path versionDir : directoryStream) {
+                final int version = parseVersion(versionDir.getFileName().toString());
+                if (version > 0 && version <= RUNTIME_VERSION) {
+                    versionDirs.add(versionDir);
+                }
+            }
+        }
+
+        versionDirs.sort(Comparator.comparingInt(
+                (Path versionDir) -> parseVersion(versionDir.getFileName().toString())
+        ).reversed());
+
+        return versionDirs;
+    }
+
+    private static int parseVersion(String versionDirName) {
+        //Zip file system directory names can end with a slash.
+        final String version = versionDirName.endsWith("/")
+                ? versionDirName.substring(0, versionDirName.length() - 1)
+                : versionDirName;
+
+        try {
+            return Integer.parseInt(version);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static URL createUrl(Path entry) throws MalformedURLException {
+        return new URL(null, NESTED_URL_PROTOCOL + ":" + entry.toUri().getSchemeSpecificPart(), new URLStreamHandler() {
+            @Override
+            protected URLConnection openConnection(URL url) {
+                return new URLConnection(url) {
+                    @Override
+                    public void connect() {
+                        this.connected = true;
+                    }
+
+                    @Override
+                    public InputStream getInputStream() throws IOException {
+                        return Files.newInputStream(entry);
+                    }
+                };
+            }
+        });
+    }
+
+    private static class ClassPathRoot {
+        private final Path root;
+
+        private final List<Path> versionDirs;
+
+        private ClassPathRoot(Path root, List<Path> versionDirs) {
+            this.root = root;
+            this.versionDirs = versionDirs;
+        }
+
+        private Path findEntry(String name) {
+            for (Path versionDir : this.versionDirs) {
+                final Path entry = versionDir.resolve(name);
+                if (Files.isRegularFile(entry)) {
+                    return entry;
+                }
+            }
+
+            final Path entry = this.root.resolve(name);
+            return Files.isRegularFile(entry) ? entry : null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.cyecize.ioc.services;
+
+/**
+ * Decides which packages are scanned by a {@link ClassLocator}.
+ * <p>
+ * Package names can be passed with or without a trailing dot.
+ */
+public interface PackageFilter {
+
+    /**
+     * @param packageName - package of the class.
+     * @return true if classes in the given package should be loaded.
+     */
+    boolean isIncluded(String packageName);
+
+    /**
+     * @param className - binary name of the class.
+     * @return true if the package of the given class is included.
+     */
+    boolean isClassIncluded(String className);
+
+    /**
+     * @param packageName - package of the scanned directory.
+     * @return false if neither the given package nor any of its sub packages are included
+     * and the directory can be skipped.
+     */
+    boolean canContainIncludedPackages(String packageName);
+
+    /**
+     * @return canonical representation of the filter, used to tell whether a cached scan used the same filter.
+     */
+    String getPatternsKey();
+}
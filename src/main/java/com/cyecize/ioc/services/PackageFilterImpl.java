@@ -0,0 +1,161 @@
+package com.cyecize.ioc.services;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * {@link PackageFilter} implementation backed by a prefix trie of package segments.
+ * <p>
+ * A pattern matches its package and all sub packages. The most specific matching pattern decides
+ * whether a package is included, if a package is both included and excluded, the exclusion wins.
+ * When no include patterns are given, every package that is not excluded is included.
+ * <p>
+ * Lookups only depend on the depth of the package, not on the number of patterns.
+ */
+public class PackageFilterImpl implements PackageFilter {
+
+    private static final String WILDCARD_SUFFIX = ".*";
+
+    private final Node root;
+
+    private final boolean includedByDefault;
+
+    private final String patternsKey;
+
+    public PackageFilterImpl(Collection<String> includedPackages, Collection<String> excludedPackages) {
+        this.root = new Node();
+        this.includedByDefault = includedPackages.isEmpty();
+
+        final TreeSet<String> includes = new TreeSet<>();
+        final TreeSet<String> excludes = new TreeSet<>();
+
+        for (String includedPackage : includedPackages) {
+            final String pattern = normalize(includedPackage);
+            includes.add(pattern);
+            this.addPattern(pattern, true);
+        }
+
+        for (String excludedPackage : excludedPackages) {
+            final String pattern = normalize(excludedPackage);
+            excludes.add(pattern);
+            this.addPattern(pattern, false);
+        }
+
+        this.root.updateIncludedDescendants();
+        this.patternsKey = "+" + String.join(",", includes) + ";-" + String.join(",", excludes);
+    }
+
+    @Override
+    public boolean isIncluded(String packageName) {
+        boolean included = this.includedByDefault;
+        Node node = this.root;
+
+        int segmentStart = 0;
+        while (node != null && segmentStart < packageName.length()) {
+            int segmentEnd = packageName.indexOf('.', segmentStart);
+            if (segmentEnd < 0) {
+                segmentEnd = packageName.length();
+            }
+
+            node = node.children.get(packageName.substring(segmentStart, segmentEnd));
+            if (node != null && node.included != null) {
+                included = node.included;
+            }
+
+            segmentStart = segmentEnd + 1;
+        }
+
+        return included;
+    }
+
+    @Override
+    public boolean isClassIncluded(String className) {
+        final int packageEnd = className.lastIndexOf('.');
+        return this.isIncluded(packageEnd < 0 ? "" : className.substring(0, packageEnd));
+    }
+
+    @Override
+    public boolean canContainIncludedPackages(String packageName) {
+        boolean included = this.includedByDefault;
+        Node node = this.root;
+
+        int segmentStart = 0;
+        while (segmentStart < packageName.length()) {
+            int segmentEnd = packageName.indexOf('.', segmentStart);
+            if (segmentEnd < 0) {
+                segmentEnd = packageName.length();
+            }
+
+            node = node.children.get(packageName.substring(segmentStart, segmentEnd));
+            if (node == null) {
+                //No pattern is more specific than the current one.
+                return included;
+            }
+
+            if (node.included != null) {
+                included = node.included;
+            }
+
+            segmentStart = segmentEnd + 1;
+        }
+
+        return included || node.hasIncludedDescendants;
+    }
+
+    @Override
+    public String getPatternsKey() {
+        return this.patternsKey;
+    }
+
+    private void addPattern(String pattern, boolean included) {
+        Node node = this.root;
+        for (String segment : pattern.split("\\.")) {
+            node = node.children.computeIfAbsent(segment, k -> new Node());
+        }
+
+        //Exclusion wins over inclusion of the same package.
+        if (node.included == null || !included) {
+            node.included = included;
+        }
+    }
+
+    private static String normalize(String packagePattern) {
+        String pattern = packagePattern.trim();
+        if (pattern.endsWith(WILDCARD_SUFFIX)) {
+            pattern = pattern.substring(0, pattern.length() - WILDCARD_SUFFIX.length());
+        }
+
+        if (pattern.endsWith(".")) {
+            pattern = pattern.substring(0, pattern.length() - 1);
+        }
+
+        if (pattern.isEmpty() || pattern.startsWith(".") || pattern.contains("..")) {
+            throw new IllegalArgumentException(String.format("Invalid package pattern '%s'.", packagePattern));
+        }
+
+        return pattern;
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+
+        /**
+         * True or false if a pattern ends at this node, null otherwise.
+         */
+        private Boolean included;
+
+        private boolean hasIncludedDescendants;
+
+        private boolean updateIncludedDescendants() {
+            for (Node child : this.children.values()) {
+                if (child.updateIncludedDescendants()) {
+                    this.hasIncludedDescendants = true;
+                }
+            }
+
+            return Boolean.TRUE.equals(this.included) || this.hasIncludedDescendants;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.cyecize.ioc.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Class loader for one generation of classes from watched directories.
+ * <p>
+ * The classes that belong to the generation are defined by this loader from their class files,
+ * even if the parent can load them, every other class is delegated to the parent.
+ * Each reload creates a new generation on top of the previous one so that classes that did not change
+ * keep being loaded by the generation that defined them, until the chain is collapsed into a single generation
+ * that defines every reloadable class again.
+ */
+public class ReloadableClassLoader extends ClassLoader {
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final Map<String, Path> classFiles;
+
+    /**
+     * @param parent     - previous generation or the configured class loader.
+     * @param classFiles - binary names and class files of the classes in this generation.
+     */
+    public ReloadableClassLoader(ClassLoader parent, Map<String, Path> classFiles) {
+        super(parent);
+        this.classFiles = Map.copyOf(classFiles);
+    }
+
+    public boolean isGenerationClass(String className) {
+        return this.classFiles.containsKey(className);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        final Path classFile = this.classFiles.get(name);
+        if (classFile == null) {
+            return super.loadClass(name, resolve);
+        }
+
+        synchronized (this.getClassLoadingLock(name)) {
+            Class<?> cls = this.findLoadedClass(name);
+            if (cls == null) {
+                cls = this.defineClass(name, classFile);
+            }
+
+            if (resolve) {
+                this.resolveClass(cls);
+            }
+
+            return cls;
+        }
+    }
+
+    private Class<?> defineClass(String name, Path classFile) throws ClassNotFoundException {
+        final byte[] classBytes;
+        try {
+            classBytes = Files.readAllBytes(classFile);
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+
+        return this.defineClass(name, classBytes, 0, classBytes.length);
+    }
+}
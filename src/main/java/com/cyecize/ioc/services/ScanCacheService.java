@@ -0,0 +1,23 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.models.ScanCacheRoot;
+
+/**
+ * Keeps the results of previous class scans so that unchanged class files do not have to be read again.
+ */
+public interface ScanCacheService {
+
+    ScanCacheRoot getDirectoryRoot(String directory);
+
+    /**
+     * @param jarFile - path to the jar file.
+     * @param scope   - scan settings that affect which classes are located, the cached classes are only
+     *                reused if the jar file was scanned with the same scope.
+     */
+    ScanCacheRoot getJarRoot(String jarFile, String scope);
+
+    /**
+     * Persists the entries collected during the current scan.
+     */
+    void save();
+}
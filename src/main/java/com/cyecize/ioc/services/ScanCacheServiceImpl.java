@@ -0,0 +1,336 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.events.ScanCacheSaveFailed;
+import com.cyecize.ioc.models.ClassFileMetadata;
+import com.cyecize.ioc.models.ScanCacheEntry;
+import com.cyecize.ioc.models.ScanCacheRoot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * {@link ScanCacheService} implementation backed by a binary file.
+ * <p>
+ * The file is read once into memory when the service is created and rewritten on {@link #save()},
+ * it is never kept open or mapped so that it can be replaced on every platform.
+ * Jar files are validated by their last modified time, size and scope and, only if those match,
+ * by the CRC32C hash of their content. New and changed jar files are hashed when the cache is saved.
+ * Directories are validated per class file by last modified time and size.
+ * <p>
+ * The cache is best effort, a missing, corrupted or outdated file is treated as an empty cache
+ * and failing to save it does not fail the application, it is reported to the given callbacks instead.
+ */
+public class ScanCacheServiceImpl implements ScanCacheService {
+
+    private static final int MAGIC = 0x4D474943;
+
+    private static final int VERSION = 2;
+
+    private static final int HASH_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Content hash of a jar file that is not hashed yet, CRC32C values are never negative.
+     */
+    private static final long UNKNOWN_HASH = -2;
+
+    private final Path cacheFile;
+
+    private final Map<String, StoredRoot> storedRoots;
+
+    private final Map<String, ScanCacheRoot> currentRoots;
+
+    private final Collection<ScanCacheSaveFailed> saveFailedCallbacks;
+
+    public ScanCacheServiceImpl(File cacheFile) {
+        this(cacheFile, List.of());
+    }
+
+    public ScanCacheServiceImpl(File cacheFile, Collection<ScanCacheSaveFailed> saveFailedCallbacks) {
+        this.cacheFile = cacheFile.toPath();
+        this.saveFailedCallbacks = saveFailedCallbacks;
+        this.storedRoots = this.load();
+        this.currentRoots = new LinkedHashMap<>();
+    }
+
+    @Override
+    public synchronized ScanCacheRoot getDirectoryRoot(String directory) {
+        final StoredRoot storedRoot = this.storedRoots.get(directory);
+
+        final ScanCacheRoot root = new ScanCacheRoot(
+                directory, 0, 0, 0, null, false,
+                storedRoot == null ? Map.of() : storedRoot.entries
+        );
+
+        this.currentRoots.put(directory, root);
+        return root;
+    }
+
+    @Override
+    public ScanCacheRoot getJarRoot(String jarFile, String scope) {
+        final File file = new File(jarFile);
+        final long lastModified = file.lastModified();
+        final long size = file.length();
+
+        final StoredRoot storedRoot;
+        synchronized (this) {
+            storedRoot = this.storedRoots.get(jarFile);
+        }
+
+        final boolean unchanged = storedRoot != null
+                && storedRoot.lastModified == lastModified
+                && storedRoot.size == size
+                && Objects.equals(storedRoot.scope, scope);
+
+        //Hashing is done outside of the lock so that jar files can be validated concurrently.
+        final long contentHash = unchanged ? this.hash(file.toPath()) : UNKNOWN_HASH;
+        final boolean upToDate = unchanged && storedRoot.contentHash == contentHash;
+
+        synchronized (this) {
+            final ScanCacheRoot root = new ScanCacheRoot(
+                    jarFile, lastModified, size, contentHash, scope, upToDate,
+                    upToDate ? storedRoot.entries : Map.of()
+            );
+
+            this.currentRoots.put(jarFile, root);
+            return root;
+        }
+    }
+
+    @Override
+    public synchronized void save() {
+        final Map<String, StoredRoot> rootsToSave = new LinkedHashMap<>();
+        this.storedRoots.forEach((root, storedRoot) -> {
+            //Directories and jars that no longer exist are dropped.
+            if (new File(root).exists()) {
+                rootsToSave.put(root, storedRoot);
+            }
+        });
+
+        for (ScanCacheRoot root : this.currentRoots.values()) {
+            final Map<String, ScanCacheEntry> entries = new HashMap<>();
+            root.getCurrentEntries().forEach(entry -> entries.put(entry.getClassName(), entry));
+
+            final long contentHash = root.getContentHash() == UNKNOWN_HASH
+                    ? this.hash(Path.of(root.getRoot()))
+                    : root.getContentHash();
+
+            rootsToSave.put(root.getRoot(), new StoredRoot(
+                    root.getLastModified(), root.getSize(), contentHash, root.getScope(), entries
+            ));
+        }
+
+        try {
+            final Path parentDir = this.cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(parentDir);
+
+            final Path tempFile = Files.createTempFile(parentDir, this.cacheFile.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                    this.write(out, rootsToSave);
+                }
+
+                this.replaceCacheFile(tempFile);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            //The scan is still valid without a cache.
+            final File cacheFile = this.cacheFile.toFile();
+            this.saveFailedCallbacks.forEach(callback -> callback.scanCacheSaveFailed(cacheFile, e));
+        }
+
+        this.storedRoots.clear();
+        this.storedRoots.putAll(rootsToSave);
+        this.currentRoots.clear();
+    }
+
+    private void replaceCacheFile(Path tempFile) throws IOException {
+        try {
+            Files.move(tempFile, this.cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, this.cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Map<String, StoredRoot> load() {
+        if (!Files.isRegularFile(this.cacheFile)) {
+            return new HashMap<>();
+        }
+
+        try {
+            return this.read(ByteBuffer.wrap(Files.readAllBytes(this.cacheFile)));
+        } catch (IOException | RuntimeException e) {
+            return new HashMap<>();
+        }
+    }
+
+    private Map<String, StoredRoot> read(ByteBuffer buffer) {
+        final Map<String, StoredRoot> roots = new HashMap<>();
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return roots;
+        }
+
+        final int rootsCount = buffer.getInt();
+        for (int i = 0; i < rootsCount; i++) {
+            final String root = readString(buffer);
+            final long lastModified = buffer.getLong();
+            final long size = buffer.getLong();
+            final long contentHash = buffer.getLong();
+            final String scope = readString(buffer);
+
+            final int entriesCount = buffer.getInt();
+            final Map<String, ScanCacheEntry> entries = new HashMap<>(entriesCount * 2);
+            for (int j = 0; j < entriesCount; j++) {
+                final ScanCacheEntry entry = this.readEntry(buffer);
+                entries.put(entry.getClassName(), entry);
+            }
+
+            roots.put(root, new StoredRoot(lastModified, size, contentHash, scope, entries));
+        }
+
+        return roots;
+    }
+
+    private ScanCacheEntry readEntry(ByteBuffer buffer) {
+        final String className = readString(buffer);
+        final long lastModified = buffer.getLong();
+        final long size = buffer.getLong();
+
+        ClassFileMetadata metadata = null;
+        if (buffer.get() != 0) {
+            final String superClassName = readString(buffer);
+            final int accessFlags = buffer.getInt();
+            final int annotationsCount = buffer.getInt();
+            final List<String> annotationTypes = new ArrayList<>(annotationsCount);
+            for (int i = 0; i < annotationsCount; i++) {
+                annotationTypes.add(readString(buffer));
+            }
+
+            metadata = new ClassFileMetadata(className, superClassName, accessFlags, annotationTypes);
+        }
+
+        return new ScanCacheEntry(className, lastModified, size, metadata);
+    }
+
+    private void write(DataOutputStream out, Map<String, StoredRoot> roots) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(roots.size());
+
+        for (Map.Entry<String, StoredRoot> rootEntry : roots.entrySet()) {
+            final StoredRoot root = rootEntry.getValue();
+            writeString(out, rootEntry.getKey());
+            out.writeLong(root.lastModified);
+            out.writeLong(root.size);
+            out.writeLong(root.contentHash);
+            writeString(out, root.scope);
+
+            out.writeInt(root.entries.size());
+            for (ScanCacheEntry entry : root.entries.values()) {
+                this.writeEntry(out, entry);
+            }
+        }
+    }
+
+    private void writeEntry(DataOutputStream out, ScanCacheEntry entry) throws IOException {
+        writeString(out, entry.getClassName());
+        out.writeLong(entry.getLastModified());
+        out.writeLong(entry.getSize());
+
+        final ClassFileMetadata metadata = entry.getMetadata();
+        out.writeBoolean(metadata != null);
+        if (metadata == null) {
+            return;
+        }
+
+        writeString(out, metadata.getSuperClassName());
+        out.writeInt(metadata.getAccessFlags());
+        out.writeInt(metadata.getAnnotationTypes().size());
+        for (String annotationType : metadata.getAnnotationTypes()) {
+            writeString(out, annotationType);
+        }
+    }
+
+    private long hash(Path file) {
+        final CRC32C crc = new CRC32C();
+
+        //Read instead of mapped, a mapping would keep the jar file locked on some platforms.
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            //An unreadable jar will fail during scanning, there is nothing to cache.
+            return -1;
+        }
+
+        return crc.getValue();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static class StoredRoot {
+        private final long lastModified;
+
+        private final long size;
+
+        private final long contentHash;
+
+        private final String scope;
+
+        private final Map<String, ScanCacheEntry> entries;
+
+        private StoredRoot(long lastModified,
+                           long size,
+                           long contentHash,
+                           String scope,
+                           Map<String, ScanCacheEntry> entries) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.contentHash = contentHash;
+            this.scope = scope;
+            this.entries = entries;
+        }
+    }
+}
@@ -8,4 +8,12 @@ import java.util.Set;
 
 public interface ServicesInstantiationService {
     Collection<ServiceDetails> instantiateServicesAndBeans(Set<ServiceDetails> mappedServices) throws ServiceInstantiationException;
+
+    /**
+     * Instantiates only the given services, the already instantiated services (without their beans)
+     * are used as dependencies.
+     */
+    Collection<ServiceDetails> instantiateServicesAndBeans(Set<ServiceDetails> mappedServices,
+                                                           Collection<ServiceDetails> instantiatedServices)
+            throws ServiceInstantiationException;
 }
@@ -1,7 +1,13 @@
 package com.cyecize.ioc.services;
 
+import com.cyecize.ioc.annotations.LazyInit;
 import com.cyecize.ioc.enums.ScopeType;
+import com.cyecize.ioc.exceptions.ServiceInstantiationException;
+import com.cyecize.ioc.models.DependencyParam;
+import com.cyecize.ioc.models.DependencyParamProvider;
 import com.cyecize.ioc.models.EnqueuedServiceDetails;
+import com.cyecize.ioc.models.Lazy;
+import com.cyecize.ioc.models.Provider;
 import com.cyecize.ioc.models.ServiceBeanDetails;
 import com.cyecize.ioc.models.ServiceDetails;
 import com.cyecize.ioc.utils.ObjectInstantiationUtils;
@@ -9,20 +15,46 @@ import com.cyecize.ioc.utils.ProxyUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * {@link ServicesInstantiationService} implementation.
  * <p>
  * Responsible for creating the initial instances or all services and beans.
+ * <p>
+ * If an executor is given, every service is instantiated on it as soon as all of its dependencies are ready,
+ * so independent services, their beans and proxies are created concurrently.
  */
 public class ServicesInstantiationServiceImpl implements ServicesInstantiationService {
 
+    private static final String CIRCULAR_INSTANTIATION_MSG =
+            "Service '%s' was requested while it is being instantiated, check its Provider and Lazy dependencies.";
+
     private final DependencyResolveService dependencyResolveService;
 
+    private final Executor executor;
+
+    /**
+     * Instantiations that threads are waiting for, used to detect threads waiting for each other.
+     */
+    private final Map<Thread, EnqueuedServiceDetails.Instantiation> awaitedInstantiations = new HashMap<>();
+
     public ServicesInstantiationServiceImpl(DependencyResolveService dependencyResolveService) {
+        this(dependencyResolveService, null);
+    }
+
+    public ServicesInstantiationServiceImpl(DependencyResolveService dependencyResolveService, Executor executor) {
         this.dependencyResolveService = dependencyResolveService;
+        this.executor = executor;
     }
 
     /**
@@ -31,11 +63,30 @@ public class ServicesInstantiationServiceImpl implements ServicesInstantiationSe
      */
     @Override
     public Collection<ServiceDetails> instantiateServicesAndBeans(Set<ServiceDetails> mappedServices) {
+        return this.instantiateServicesAndBeans(mappedServices, List.of());
+    }
+
+    @Override
+    public Collection<ServiceDetails> instantiateServicesAndBeans(Set<ServiceDetails> mappedServices,
+                                                                  Collection<ServiceDetails> instantiatedServices) {
         final List<EnqueuedServiceDetails> enqueuedServiceDetails = this.dependencyResolveService
-                .resolveDependencies(mappedServices);
+                .resolveDependencies(mappedServices, instantiatedServices);
 
         for (EnqueuedServiceDetails service : enqueuedServiceDetails) {
-            this.instantiateService(service);
+            this.registerProducerInstantiators(service);
+            if (service.getServiceDetails().isLazyInit()) {
+                this.registerDeferredInstantiator(service);
+            }
+        }
+
+        if (this.executor == null || enqueuedServiceDetails.size() < 2) {
+            for (EnqueuedServiceDetails service : enqueuedServiceDetails) {
+                if (!service.getServiceDetails().isLazyInit()) {
+                    this.instantiateService(service);
+                }
+            }
+        } else {
+            new ParallelInstantiation(enqueuedServiceDetails).run();
         }
 
         final List<ServiceDetails> allServicesAndBeans = new ArrayList<>();
@@ -47,12 +98,91 @@ public class ServicesInstantiationServiceImpl implements ServicesInstantiationSe
         return allServicesAndBeans;
     }
 
+    /**
+     * Instantiates the given service once, along with any of its dependencies that are not instantiated yet.
+     * Dependencies are instantiated here only when a {@link Provider} or {@link Lazy} is accessed
+     * before the service it points to was reached.
+     * <p>
+     * No lock is held while the service is being created, other threads wait for its instantiation to complete.
+     * Accessing a service that is being created by the current thread, or waiting for a thread
+     * that is itself waiting for the current one, fails instead of returning a half-built instance or deadlocking.
+     */
     private void instantiateService(EnqueuedServiceDetails enqueuedServiceDetails) {
+        if (enqueuedServiceDetails.isInstantiated()) {
+            return;
+        }
+
+        final EnqueuedServiceDetails.Instantiation existingInstantiation = enqueuedServiceDetails.startInstantiation();
+        if (existingInstantiation != null) {
+            this.awaitInstantiation(enqueuedServiceDetails, existingInstantiation);
+            return;
+        }
+
+        try {
+            for (EnqueuedServiceDetails dependency : enqueuedServiceDetails.getDependencies()) {
+                this.instantiateService(dependency);
+            }
+
+            this.createServiceInstance(enqueuedServiceDetails);
+
+            final ServiceDetails serviceDetails = enqueuedServiceDetails.getServiceDetails();
+            if (serviceDetails.isLazyInit()) {
+                serviceDetails.setInstantiator(null);
+                serviceDetails.getBeans().forEach(bean -> bean.setInstantiator(null));
+            }
+        } catch (RuntimeException | Error e) {
+            enqueuedServiceDetails.completeInstantiation(e);
+            throw e;
+        }
+
+        enqueuedServiceDetails.completeInstantiation(null);
+    }
+
+    private void awaitInstantiation(EnqueuedServiceDetails enqueuedServiceDetails,
+                                    EnqueuedServiceDetails.Instantiation instantiation) {
+        final Thread currentThread = Thread.currentThread();
+
+        synchronized (this.awaitedInstantiations) {
+            //Follows the threads that the owner of the instantiation is waiting for.
+            EnqueuedServiceDetails.Instantiation awaited = instantiation;
+            while (awaited != null && !awaited.getCompletion().isDone()) {
+                if (awaited.getThread() == currentThread) {
+                    throw new ServiceInstantiationException(String.format(
+                            CIRCULAR_INSTANTIATION_MSG, enqueuedServiceDetails.getServiceDetails().getServiceType()
+                    ));
+                }
+
+                awaited = this.awaitedInstantiations.get(awaited.getThread());
+            }
+
+            this.awaitedInstantiations.put(currentThread, instantiation);
+        }
+
+        try {
+            instantiation.getCompletion().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            throw e;
+        } finally {
+            synchronized (this.awaitedInstantiations) {
+                this.awaitedInstantiations.remove(currentThread);
+            }
+        }
+    }
+
+    private void createServiceInstance(EnqueuedServiceDetails enqueuedServiceDetails) {
         final ServiceDetails serviceDetails = enqueuedServiceDetails.getServiceDetails();
         final Object[] constructorInstances = enqueuedServiceDetails.getConstructorInstances();
 
         //In case a service provided by the config already came with an instance.
-        if (enqueuedServiceDetails.getServiceDetails().getInstance() == null) {
+        if (serviceDetails.getActualInstance() == null) {
             ObjectInstantiationUtils.createInstance(
                     serviceDetails,
                     constructorInstances,
@@ -68,6 +198,33 @@ public class ServicesInstantiationServiceImpl implements ServicesInstantiationSe
         this.registerBeans(serviceDetails);
     }
 
+    /**
+     * Lets the {@link Provider} and {@link Lazy} parameters of the given service instantiate their producers.
+     */
+    private void registerProducerInstantiators(EnqueuedServiceDetails enqueuedServiceDetails) {
+        final List<DependencyParam> dependencyParams = new ArrayList<>(enqueuedServiceDetails.getConstructorParams());
+        dependencyParams.addAll(enqueuedServiceDetails.getFieldDependencies());
+
+        for (DependencyParam dependencyParam : dependencyParams) {
+            if (dependencyParam instanceof DependencyParamProvider) {
+                final EnqueuedServiceDetails producer = ((DependencyParamProvider) dependencyParam).getProducer();
+                if (producer != null) {
+                    ((DependencyParamProvider) dependencyParam).setInstantiator(() -> this.instantiateService(producer));
+                }
+            }
+        }
+    }
+
+    /**
+     * Lets a {@link LazyInit} service and its beans create their instance when first requested.
+     */
+    private void registerDeferredInstantiator(EnqueuedServiceDetails enqueuedServiceDetails) {
+        final Runnable instantiator = () -> this.instantiateService(enqueuedServiceDetails);
+
+        enqueuedServiceDetails.getServiceDetails().setInstantiator(instantiator);
+        enqueuedServiceDetails.getServiceDetails().getBeans().forEach(bean -> bean.setInstantiator(instantiator));
+    }
+
     /**
      * Iterates all bean methods for the given service and creates instance of the bean.
      *
@@ -87,5 +244,166 @@ public class ServicesInstantiationServiceImpl implements ServicesInstantiationSe
 
         serviceDetails.setResolvedConstructorParams(enqueuedServiceDetails.getConstructorParams());
         serviceDetails.setResolvedFields(enqueuedServiceDetails.getFieldDependencies());
+
+        if (serviceDetails.getScopeType() == ScopeType.PROTOTYPE || serviceDetails.getScopeType() == ScopeType.POOLED) {
+            //Prototypes and pools create every following instance with the plan, so it is prepared up front.
+            serviceDetails.getInstantiationPlan();
+        }
+    }
+
+    /**
+     * Ready queue scheduler for the services sorted by their dependencies.
+     * <p>
+     * Every service counts its dependencies that are not instantiated yet and is submitted to the executor
+     * once that count reaches zero. {@link LazyInit} services are not scheduled, they are created by the first
+     * service that depends on them. The first failure stops submitting new services and is thrown
+     * to the caller once the services that are already running have finished.
+     */
+    private class ParallelInstantiation {
+        private final Map<EnqueuedServiceDetails, AtomicInteger> pendingDependencies;
+
+        private final Map<EnqueuedServiceDetails, List<EnqueuedServiceDetails>> dependants;
+
+        private final AtomicInteger remainingServices;
+
+        private final CompletableFuture<Void> completion;
+
+        private final ClassLoader contextClassLoader;
+
+        /**
+         * Tasks that were submitted to the executor and did not finish yet, guarded by this.
+         */
+        private int runningTasks;
+
+        private ParallelInstantiation(List<EnqueuedServiceDetails> services) {
+            this.pendingDependencies = new IdentityHashMap<>();
+            this.dependants = new IdentityHashMap<>();
+            this.completion = new CompletableFuture<>();
+            this.contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+            for (EnqueuedServiceDetails service : services) {
+                if (service.getServiceDetails().isLazyInit()) {
+                    continue;
+                }
+
+                final AtomicInteger pending = new AtomicInteger();
+                for (EnqueuedServiceDetails dependency : service.getDependencies()) {
+                    if (!dependency.getServiceDetails().isLazyInit()) {
+                        pending.incrementAndGet();
+                        this.dependants.computeIfAbsent(dependency, k -> new ArrayList<>()).add(service);
+                    }
+                }
+
+                this.pendingDependencies.put(service, pending);
+            }
+
+            this.remainingServices = new AtomicInteger(this.pendingDependencies.size());
+        }
+
+        private void run() {
+            if (this.remainingServices.get() == 0) {
+                return;
+            }
+
+            this.pendingDependencies.forEach((service, pending) -> {
+                if (pending.get() == 0) {
+                    this.submit(service);
+                }
+            });
+
+            try {
+                this.completion.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServiceInstantiationException("Interrupted while instantiating services.", e);
+            } catch (ExecutionException e) {
+                this.awaitRunningTasks();
+
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+
+                throw new ServiceInstantiationException(cause.getMessage(), cause);
+            }
+        }
+
+        private void submit(EnqueuedServiceDetails service) {
+            if (this.completion.isDone()) {
+                return;
+            }
+
+            synchronized (this) {
+                this.runningTasks++;
+            }
+
+            try {
+                executor.execute(() -> {
+                    try {
+                        this.instantiate(service);
+                    } finally {
+                        this.taskFinished();
+                    }
+                });
+            } catch (RuntimeException e) {
+                this.taskFinished();
+                this.completion.completeExceptionally(e);
+            }
+        }
+
+        private synchronized void taskFinished() {
+            this.runningTasks--;
+            if (this.runningTasks == 0) {
+                this.notifyAll();
+            }
+        }
+
+        /**
+         * Waits for the tasks that are still running after a failure, so that none of them outlives the call.
+         * Tasks that did not start yet return immediately since the instantiation is already complete.
+         */
+        private synchronized void awaitRunningTasks() {
+            while (this.runningTasks > 0) {
+                try {
+                    this.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private void instantiate(EnqueuedServiceDetails service) {
+            if (this.completion.isDone()) {
+                return;
+            }
+
+            final Thread currentThread = Thread.currentThread();
+            final ClassLoader oldCl = currentThread.getContextClassLoader();
+            try {
+                currentThread.setContextClassLoader(this.contextClassLoader);
+                instantiateService(service);
+            } catch (Throwable t) {
+                this.completion.completeExceptionally(t);
+                return;
+            } finally {
+                currentThread.setContextClassLoader(oldCl);
+            }
+
+            if (this.remainingServices.decrementAndGet() == 0) {
+                this.completion.complete(null);
+                return;
+            }
+
+            for (EnqueuedServiceDetails dependant : this.dependants.getOrDefault(service, List.of())) {
+                if (this.pendingDependencies.get(dependant).decrementAndGet() == 0) {
+                    this.submit(dependant);
+                }
+            }
+        }
     }
 }
@@ -2,9 +2,18 @@ package com.cyecize.ioc.services;
 
 import com.cyecize.ioc.models.ServiceDetails;
 
+import java.util.Collection;
 import java.util.Set;
 
 public interface ServicesScanningService {
 
     Set<ServiceDetails> mapServices(Set<Class<?>> locatedClasses);
+
+    /**
+     * Maps only the given classes, used when part of the located classes were reloaded.
+     *
+     * @param locatedClasses   - classes to map.
+     * @param existingServices - services that are kept, their aspect handlers are applied to the new services.
+     */
+    Set<ServiceDetails> mapServices(Set<Class<?>> locatedClasses, Collection<ServiceDetails> existingServices);
 }
@@ -1,10 +1,11 @@
 package com.cyecize.ioc.services;
 
+import com.cyecize.ioc.annotations.AliasFor;
 import com.cyecize.ioc.annotations.Autowired;
 import com.cyecize.ioc.annotations.Bean;
+import com.cyecize.ioc.annotations.LazyInit;
 import com.cyecize.ioc.annotations.NamedInstance;
-import com.cyecize.ioc.annotations.PostConstruct;
-import com.cyecize.ioc.annotations.PreDestroy;
+import com.cyecize.ioc.annotations.PoolSettings;
 import com.cyecize.ioc.annotations.Scope;
 import com.cyecize.ioc.annotations.Service;
 import com.cyecize.ioc.config.configurations.ScanningConfiguration;
@@ -12,25 +13,31 @@ import com.cyecize.ioc.enums.ScopeType;
 import com.cyecize.ioc.events.ServiceDetailsCreated;
 import com.cyecize.ioc.exceptions.ClassLocationException;
 import com.cyecize.ioc.handlers.ServiceMethodAspectHandler;
+import com.cyecize.ioc.models.ClassIntrospection;
 import com.cyecize.ioc.models.MethodAspectHandlerDto;
 import com.cyecize.ioc.models.ServiceBeanDetails;
 import com.cyecize.ioc.models.ServiceDetails;
+import com.cyecize.ioc.models.ServicePool;
 import com.cyecize.ioc.utils.AliasFinder;
 import com.cyecize.ioc.utils.AnnotationUtils;
+import com.cyecize.ioc.utils.ClassIntrospectionUtils;
 import com.cyecize.ioc.utils.GenericsUtils;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 /**
  * {@link ServicesScanningService} implementation.
@@ -39,6 +46,11 @@ import java.util.Set;
  */
 public class ServicesScanningServiceImpl implements ServicesScanningService {
 
+    /**
+     * Below this number of services, mapping in parallel costs more than it saves.
+     */
+    private static final int MIN_SERVICES_FOR_PARALLEL_MAPPING = 64;
+
     /**
      * Configuration containing annotations provided by the client.
      */
@@ -58,29 +70,47 @@ public class ServicesScanningServiceImpl implements ServicesScanningService {
      */
     @Override
     public Set<ServiceDetails> mapServices(Set<Class<?>> locatedClasses) {
-        final Map<Class<?>, Annotation> onlyServiceClasses = this.filterServiceClasses(locatedClasses);
+        return this.mapServices(this.filterServiceClasses(locatedClasses, true), List.of());
+    }
 
+    /**
+     * Maps the given classes only. Additional classes from the configuration are included
+     * only if a class with the same name is among the given ones.
+     */
+    @Override
+    public Set<ServiceDetails> mapServices(Set<Class<?>> locatedClasses, Collection<ServiceDetails> existingServices) {
+        return this.mapServices(this.filterServiceClasses(locatedClasses, false), existingServices);
+    }
+
+    /**
+     * Creates the {@link ServiceDetails} of every class, in parallel if enabled, and then registers the aspect handlers
+     * and notifies the {@link ServiceDetailsCreated} callbacks.
+     * <p>
+     * Callbacks are always invoked by the calling thread, one service at a time followed by its beans,
+     * and in the same order regardless of the parallelism.
+     */
+    private Set<ServiceDetails> mapServices(Map<Class<?>, Annotation> onlyServiceClasses,
+                                            Collection<ServiceDetails> existingServices) {
         final Set<ServiceDetails> serviceDetailsStorage = new HashSet<>();
         final Map<Class<? extends Annotation>, ServiceDetails> aspectHandlerServices = new HashMap<>();
 
-        for (Map.Entry<Class<?>, Annotation> serviceAnnotationEntry : onlyServiceClasses.entrySet()) {
-            final Class<?> cls = serviceAnnotationEntry.getKey();
-            final Annotation annotation = serviceAnnotationEntry.getValue();
-
-            final ServiceDetails serviceDetails = new ServiceDetails(
-                    cls,
-                    annotation,
-                    this.findSuitableConstructor(cls),
-                    this.findInstanceName(cls.getDeclaredAnnotations()),
-                    this.findVoidMethodWithZeroParamsAndAnnotations(PostConstruct.class, cls),
-                    this.findVoidMethodWithZeroParamsAndAnnotations(PreDestroy.class, cls),
-                    this.findScope(cls),
-                    this.findAutowireAnnotatedFields(cls, new ArrayList<>()).toArray(new Field[0])
-            );
+        for (ServiceDetails existingService : existingServices) {
+            this.maybeAddAspectHandlerService(existingService, aspectHandlerServices);
+        }
 
-            this.maybeAddAspectHandlerService(serviceDetails, aspectHandlerServices);
+        final List<Map.Entry<Class<?>, Annotation>> serviceClasses = new ArrayList<>(onlyServiceClasses.entrySet());
+        final List<ServiceDetails> createdServices;
+        if (this.configuration.getParallelism() > 1 && serviceClasses.size() >= MIN_SERVICES_FOR_PARALLEL_MAPPING) {
+            createdServices = this.createServiceDetailsInParallel(serviceClasses);
+        } else {
+            createdServices = new ArrayList<>();
+            for (Map.Entry<Class<?>, Annotation> serviceAnnotationEntry : serviceClasses) {
+                createdServices.add(this.createServiceDetails(serviceAnnotationEntry));
+            }
+        }
 
-            serviceDetails.setBeans(this.findBeans(serviceDetails));
+        for (ServiceDetails serviceDetails : createdServices) {
+            this.maybeAddAspectHandlerService(serviceDetails, aspectHandlerServices);
             this.notifyServiceDetailsCreated(serviceDetails);
 
             serviceDetailsStorage.add(serviceDetails);
@@ -90,13 +120,91 @@ public class ServicesScanningServiceImpl implements ServicesScanningService {
         return serviceDetailsStorage;
     }
 
+    /**
+     * Creates service details and their beans on a fork/join pool.
+     *
+     * @return service details in the order of the given classes.
+     */
+    private List<ServiceDetails> createServiceDetailsInParallel(List<Map.Entry<Class<?>, Annotation>> serviceClasses) {
+        final ForkJoinPool forkJoinPool = new ForkJoinPool(this.configuration.getParallelism());
+        try {
+            return forkJoinPool.submit(() -> serviceClasses.parallelStream()
+                    .map(this::createServiceDetails)
+                    .collect(Collectors.toList())
+            ).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClassLocationException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            throw new ClassLocationException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    /**
+     * Collects the details of a service class and its beans. Does not depend on other services, so
+     * it is safe to call from multiple threads.
+     */
+    private ServiceDetails createServiceDetails(Map.Entry<Class<?>, Annotation> serviceAnnotationEntry) {
+        final Class<?> cls = serviceAnnotationEntry.getKey();
+        final Annotation annotation = serviceAnnotationEntry.getValue();
+        final ClassIntrospection introspection = ClassIntrospectionUtils.getIntrospection(cls);
+
+        final ServiceDetails serviceDetails = new ServiceDetails(
+                cls,
+                annotation,
+                this.findSuitableConstructor(introspection),
+                this.findInstanceName(cls.getDeclaredAnnotations()),
+                introspection.getPostConstructMethod(),
+                introspection.getPreDestroyMethod(),
+                this.findScope(cls),
+                introspection.getAutowiredFields()
+        );
+
+        serviceDetails.setLazyInit(this.isLazyInit(cls, serviceDetails.getScopeType()));
+        this.applyPoolSettings(serviceDetails, cls.getDeclaredAnnotations());
+        serviceDetails.setBeans(this.findBeans(serviceDetails, introspection));
+        return serviceDetails;
+    }
+
+    /**
+     * Service annotations can be used directly or through a direct or transitive {@link AliasFor},
+     * the same way the class files are pre-filtered.
+     */
+    private boolean isServiceAnnotation(Class<? extends Annotation> annotationType,
+                                        Set<Class<? extends Annotation>> serviceAnnotations) {
+        if (serviceAnnotations.contains(annotationType)) {
+            return true;
+        }
+
+        for (Class<? extends Annotation> alias : AliasFinder.getAliases(annotationType)) {
+            if (serviceAnnotations.contains(alias)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Iterates all given classes and filters those that have {@link Service} annotation
      * or one prided by the client.
      *
+     * @param includeAllAdditionalClasses - if false, only additional classes whose name matches a scanned class
+     *                                    are included, in which case the scanned class is used.
      * @return service annotated classes.
      */
-    private Map<Class<?>, Annotation> filterServiceClasses(Collection<Class<?>> scannedClasses) {
+    private Map<Class<?>, Annotation> filterServiceClasses(Collection<Class<?>> scannedClasses,
+                                                           boolean includeAllAdditionalClasses) {
         final Set<Class<? extends Annotation>> serviceAnnotations = this.configuration.getCustomServiceAnnotations();
         final Map<Class<?>, Annotation> locatedClasses = new HashMap<>();
 
@@ -106,14 +214,26 @@ public class ServicesScanningServiceImpl implements ServicesScanningService {
             }
 
             for (Annotation annotation : cls.getAnnotations()) {
-                if (serviceAnnotations.contains(annotation.annotationType())) {
+                if (this.isServiceAnnotation(annotation.annotationType(), serviceAnnotations)) {
                     locatedClasses.put(cls, annotation);
                     break;
                 }
             }
         }
 
-        this.configuration.getAdditionalClasses().forEach((cls, a) -> {
+        final Map<String, Class<?>> scannedClassesByName = new HashMap<>();
+        if (!includeAllAdditionalClasses) {
+            scannedClasses.forEach(cls -> scannedClassesByName.put(cls.getName(), cls));
+        }
+
+        this.configuration.getAdditionalClasses().forEach((additionalClass, a) -> {
+            final Class<?> cls = includeAllAdditionalClasses
+                    ? additionalClass
+                    : scannedClassesByName.get(additionalClass.getName());
+            if (cls == null) {
+                return;
+            }
+
             Annotation annotation = null;
             if (a != null && cls.isAnnotationPresent(a)) {
                 annotation = cls.getAnnotation(a);
@@ -126,41 +246,20 @@ public class ServicesScanningServiceImpl implements ServicesScanningService {
     }
 
     /**
-     * Looks for a constructor from the given class that has {@link Autowired} annotation
-     * or gets the first one.
+     * Gets the constructor that has {@link Autowired} annotation or the first public one.
      *
-     * @param cls - the given class.
+     * @param introspection - reflection data of the given class.
      * @return suitable constructor.
      */
-    private Constructor<?> findSuitableConstructor(Class<?> cls) {
-        for (Constructor<?> ctr : cls.getDeclaredConstructors()) {
-            if (AliasFinder.isAnnotationPresent(ctr.getDeclaredAnnotations(), Autowired.class)) {
-                ctr.setAccessible(true);
-                return ctr;
-            }
-        }
-
-        return cls.getConstructors()[0];
-    }
-
-    private Method findVoidMethodWithZeroParamsAndAnnotations(Class<? extends Annotation> annotation, Class<?> cls) {
-        for (Method method : cls.getDeclaredMethods()) {
-            if (method.getParameterCount() != 0 ||
-                    (method.getReturnType() != void.class && method.getReturnType() != Void.class)) {
-                continue;
-            }
-
-            if (AliasFinder.isAnnotationPresent(method.getDeclaredAnnotations(), annotation)) {
-                method.setAccessible(true);
-                return method;
-            }
-        }
-
-        if (cls.getSuperclass() != null) {
-            return this.findVoidMethodWithZeroParamsAndAnnotations(annotation, cls.getSuperclass());
+    private Constructor<?> findSuitableConstructor(ClassIntrospection introspection) {
+        if (introspection.getSuitableConstructor() == null) {
+            throw new ClassLocationException(String.format(
+                    "Could not find a public or @%s annotated constructor for service '%s'.",
+                    Autowired.class.getSimpleName(), introspection.getType().getName()
+            ));
         }
 
-        return null;
+        return introspection.getSuitableConstructor();
     }
 
     /**
@@ -192,31 +291,34 @@ public class ServicesScanningServiceImpl implements ServicesScanningService {
     /**
      * Scans a given class for methods that are considered beans.
      *
-     * @param rootService - the service from where the bean is being called.
+     * @param rootService   - the service from where the bean is being called.
+     * @param introspection - reflection data of the service class.
      * @return array or method references that are bean compliant.
      */
-    private Collection<ServiceBeanDetails> findBeans(ServiceDetails rootService) {
+    private Collection<ServiceBeanDetails> findBeans(ServiceDetails rootService, ClassIntrospection introspection) {
         final Set<Class<? extends Annotation>> beanAnnotations = this.configuration.getCustomBeanAnnotations();
         final Set<ServiceBeanDetails> beans = new HashSet<>();
 
-        for (Method method : rootService.getServiceType().getDeclaredMethods()) {
-            if (method.getParameterCount() != 0 || method.getReturnType() == void.class || method.getReturnType() == Void.class) {
+        for (Method method : introspection.getBeanCandidateMethods()) {
+            final Annotation[] methodDeclaredAnnotations = introspection.getMethodAnnotations(method);
+            if (methodDeclaredAnnotations.length == 0) {
                 continue;
             }
 
-            final Annotation[] methodDeclaredAnnotations = method.getDeclaredAnnotations();
-
             for (Class<? extends Annotation> beanAnnotation : beanAnnotations) {
                 if (AliasFinder.isAnnotationPresent(methodDeclaredAnnotations, beanAnnotation)) {
                     method.setAccessible(true);
-                    beans.add(new ServiceBeanDetails(
+                    final ServiceBeanDetails bean = new ServiceBeanDetails(
                             method.getReturnType(),
                             method,
                             rootService,
                             AliasFinder.getAnnotation(methodDeclaredAnnotations, beanAnnotation),
                             this.findScope(method),
-                            this.findInstanceName(method.getDeclaredAnnotations())
-                    ));
+                            this.findInstanceName(methodDeclaredAnnotations)
+                    );
+
+                    this.applyPoolSettings(bean, methodDeclaredAnnotations);
+                    beans.add(bean);
 
                     break;
                 }
@@ -240,6 +342,42 @@ public class ServicesScanningServiceImpl implements ServicesScanningService {
         }
     }
 
+    /**
+     * Only services that have a single instance can be created lazily.
+     */
+    private boolean isLazyInit(Class<?> cls, ScopeType scopeType) {
+        if (!AliasFinder.isAnnotationPresent(cls.getDeclaredAnnotations(), LazyInit.class)) {
+            return false;
+        }
+
+        if (scopeType == ScopeType.PROTOTYPE || scopeType == ScopeType.POOLED) {
+            throw new ClassLocationException(String.format(
+                    "Service '%s' with scope %s cannot be @%s.", cls.getName(), scopeType, LazyInit.class.getSimpleName()
+            ));
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads {@link PoolSettings} or its alias, an alias can declare any of the attributes of {@link PoolSettings}.
+     */
+    private void applyPoolSettings(ServiceDetails serviceDetails, Annotation[] annotations) {
+        final Annotation poolSettings = AliasFinder.getAnnotation(annotations, PoolSettings.class);
+        if (poolSettings == null) {
+            return;
+        }
+
+        final Object maxSize = AnnotationUtils.getAnnotationValue(
+                poolSettings, "maxSize", ServicePool.DEFAULT_MAX_SIZE
+        );
+        final Object maxIdleMillis = AnnotationUtils.getAnnotationValue(
+                poolSettings, "maxIdleMillis", ServicePool.DEFAULT_MAX_IDLE_MILLIS
+        );
+
+        serviceDetails.setPoolSettings(((Number) maxSize).intValue(), ((Number) maxIdleMillis).longValue());
+    }
+
     /**
      * Search for {@link Scope} annotation within the class and get it's value.
      *
@@ -278,24 +416,11 @@ public class ServicesScanningServiceImpl implements ServicesScanningService {
         return AnnotationUtils.getAnnotationValue(annotation).toString();
     }
 
-    private List<Field> findAutowireAnnotatedFields(Class<?> cls, List<Field> fields) {
-        for (Field declaredField : cls.getDeclaredFields()) {
-            if (AliasFinder.isAnnotationPresent(declaredField.getDeclaredAnnotations(), Autowired.class)) {
-                declaredField.setAccessible(true);
-                fields.add(declaredField);
-            }
-        }
-
-        if (cls.getSuperclass() != null) {
-            return this.findAutowireAnnotatedFields(cls.getSuperclass(), fields);
-        }
-
-        return fields;
-    }
-
     /**
-     * Updates {@link ServiceDetails} class of any service that might have method annotated with annotation that is
-     * a part of a method aspect.
+     * Updates {@link ServiceDetails} class of any service or bean that might have method annotated with annotation
+     * that is a part of a method aspect.
+     * <p>
+     * Only the methods indexed under the aspect annotations are visited.
      *
      * @param aspectHandlerServices -
      * @param serviceDetails        -
@@ -307,27 +432,44 @@ public class ServicesScanningServiceImpl implements ServicesScanningService {
         }
 
         for (ServiceDetails service : serviceDetails) {
-            final Map<Method, List<MethodAspectHandlerDto>> aspectsPerMethod = new HashMap<>();
-
-            for (Method method : service.getServiceType().getDeclaredMethods()) {
-                for (Annotation annotation : method.getAnnotations()) {
-                    if (aspectHandlerServices.containsKey(annotation.annotationType())) {
-                        aspectsPerMethod.putIfAbsent(method, new ArrayList<>());
-                        aspectsPerMethod.get(method).add(new MethodAspectHandlerDto(
-                                aspectHandlerServices.get(annotation.annotationType()),
-                                annotation.annotationType()
-                        ));
-                    }
-                }
-            }
+            this.applyAspectHandlerServices(aspectHandlerServices, service);
 
-            if (aspectsPerMethod.isEmpty()) {
-                continue;
+            //Beans are advised by the methods of their type and are proxied with a subclass if it is not an interface.
+            for (ServiceBeanDetails bean : service.getBeans()) {
+                this.applyAspectHandlerServices(aspectHandlerServices, bean);
             }
+        }
+    }
+
+    private void applyAspectHandlerServices(Map<Class<? extends Annotation>, ServiceDetails> aspectHandlerServices,
+                                            ServiceDetails service) {
+        final ClassIntrospection introspection = ClassIntrospectionUtils.getIntrospection(service.getServiceType());
 
-            service.setScopeType(ScopeType.PROXY);
-            service.setMethodAspectHandlers(aspectsPerMethod);
+        final Set<Method> aspectMethods = new LinkedHashSet<>();
+        for (Class<? extends Annotation> aspectAnnotation : aspectHandlerServices.keySet()) {
+            aspectMethods.addAll(introspection.getMethodsByAnnotation(aspectAnnotation));
+        }
+
+        if (aspectMethods.isEmpty()) {
+            return;
         }
+
+        final Map<Method, List<MethodAspectHandlerDto>> aspectsPerMethod = new HashMap<>();
+        for (Method method : aspectMethods) {
+            //Annotations are visited in declaration order so that the aspect chain keeps its order.
+            for (Annotation annotation : introspection.getMethodAnnotations(method)) {
+                if (aspectHandlerServices.containsKey(annotation.annotationType())) {
+                    aspectsPerMethod.putIfAbsent(method, new ArrayList<>());
+                    aspectsPerMethod.get(method).add(new MethodAspectHandlerDto(
+                            aspectHandlerServices.get(annotation.annotationType()),
+                            annotation.annotationType()
+                    ));
+                }
+            }
+        }
+
+        service.setScopeType(ScopeType.PROXY);
+        service.setMethodAspectHandlers(aspectsPerMethod);
     }
 
     /**
@@ -3,19 +3,41 @@ package com.cyecize.ioc.utils;
 import com.cyecize.ioc.annotations.AliasFor;
 
 import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
+/**
+ * Finds annotations either by their type or by an {@link AliasFor} alias.
+ * <p>
+ * Aliases are transitive, if A is an alias for B and B is an alias for C, then A is an alias for C as well.
+ * The aliases of every annotation type are resolved once and cached with a {@link ClassValue}.
+ */
 public class AliasFinder {
+
+    private static final ClassValue<Set<Class<? extends Annotation>>> ALIASES = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Set<Class<? extends Annotation>> computeValue(Class<?> annotationType) {
+            return findAliases((Class<? extends Annotation>) annotationType);
+        }
+    };
+
     public static Class<? extends Annotation> getAliasAnnotation(Annotation declaredAnnotation, Class<? extends Annotation> requiredAnnotation) {
-        if (declaredAnnotation.annotationType().isAnnotationPresent(AliasFor.class)) {
-            final Class<? extends Annotation> aliasValue = declaredAnnotation.annotationType().getAnnotation(AliasFor.class).value();
-            if (aliasValue == requiredAnnotation) {
-                return aliasValue;
-            }
+        if (ALIASES.get(declaredAnnotation.annotationType()).contains(requiredAnnotation)) {
+            return requiredAnnotation;
         }
 
         return null;
     }
 
+    /**
+     * @return all annotation types for which the given one is a direct or transitive alias.
+     */
+    public static Set<Class<? extends Annotation>> getAliases(Class<? extends Annotation> annotationType) {
+        return ALIASES.get(annotationType);
+    }
+
     public static Annotation getAnnotation(Annotation[] annotations, Class<? extends Annotation> requiredAnnotation) {
         for (Annotation annotation : annotations) {
             if (annotation.annotationType() == requiredAnnotation || getAliasAnnotation(annotation, requiredAnnotation) != null) {
@@ -29,4 +51,24 @@ public class AliasFinder {
     public static boolean isAnnotationPresent(Annotation[] annotations, Class<? extends Annotation> requiredAnnotation) {
         return getAnnotation(annotations, requiredAnnotation) != null;
     }
+
+    /**
+     * Follows the {@link AliasFor} chain of the given annotation type, stopping if it loops.
+     *
+     * @return all annotation types for which the given one is an alias.
+     */
+    private static Set<Class<? extends Annotation>> findAliases(Class<? extends Annotation> annotationType) {
+        final Set<Class<? extends Annotation>> aliases = new HashSet<>();
+
+        AliasFor aliasFor = annotationType.getAnnotation(AliasFor.class);
+        while (aliasFor != null && aliasFor.value() != annotationType && aliases.add(aliasFor.value())) {
+            aliasFor = aliasFor.value().getAnnotation(AliasFor.class);
+        }
+
+        if (aliases.isEmpty()) {
+            return Set.of();
+        }
+
+        return Collections.unmodifiableSet(aliases);
+    }
 }
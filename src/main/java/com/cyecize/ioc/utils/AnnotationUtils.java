@@ -14,4 +14,23 @@ public final class AnnotationUtils {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * @return the value of the given attribute or the default value if the annotation does not declare it,
+     * eg. an alias annotation that only declares some of the attributes.
+     */
+    public static Object getAnnotationValue(Annotation annotation, String attributeName, Object defaultValue) {
+        final Method method;
+        try {
+            method = annotation.annotationType().getMethod(attributeName);
+        } catch (NoSuchMethodException e) {
+            return defaultValue;
+        }
+
+        try {
+            return method.invoke(annotation);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
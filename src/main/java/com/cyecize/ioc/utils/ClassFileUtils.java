@@ -0,0 +1,301 @@
+package com.cyecize.ioc.utils;
+
+import com.cyecize.ioc.exceptions.ClassLocationException;
+import com.cyecize.ioc.models.ClassFileMetadata;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads the parts of a class file that are needed to decide whether a class is worth loading
+ * or which classes it depends on.
+ * <p>
+ * Only the constant pool, the access flags, the class names and the class level
+ * RuntimeVisibleAnnotations attribute are interpreted, everything else is skipped.
+ * See chapter 4 of the JVM specification for the class file format.
+ */
+public final class ClassFileUtils {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELD_REF = 9;
+    private static final int CONSTANT_METHOD_REF = 10;
+    private static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final String INVALID_CLASS_FILE_MSG = "Invalid class file '%s'.";
+
+    /**
+     * Characters that can precede a class type in a descriptor or signature.
+     */
+    private static final String DESCRIPTOR_TYPE_PREFIXES = "()[;<>:^+-*";
+
+    /**
+     * @param classBytes - the content of a .class file.
+     * @param source     - name of the file, used for error messages.
+     * @return metadata for the class.
+     * @throws ClassLocationException - if the bytes are not a valid class file.
+     */
+    public static ClassFileMetadata readMetadata(byte[] classBytes, String source) throws ClassLocationException {
+        try {
+            return readMetadata(new DataInputStream(new ByteArrayInputStream(classBytes)));
+        } catch (IOException | RuntimeException e) {
+            throw new ClassLocationException(String.format(INVALID_CLASS_FILE_MSG, source), e);
+        }
+    }
+
+    /**
+     * Collects the names of all classes that the given class refers to, either directly or through
+     * field, method and generic signatures. The result can contain names of classes that do not exist.
+     *
+     * @param classBytes - the content of a .class file.
+     * @param source     - name of the file, used for error messages.
+     * @return binary names of the referenced classes.
+     * @throws ClassLocationException - if the bytes are not a valid class file.
+     */
+    public static Set<String> readReferencedClassNames(byte[] classBytes, String source) throws ClassLocationException {
+        final ConstantPool constantPool;
+        try {
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(classBytes));
+            readHeader(in);
+            constantPool = readConstantPool(in);
+        } catch (IOException | RuntimeException e) {
+            throw new ClassLocationException(String.format(INVALID_CLASS_FILE_MSG, source), e);
+        }
+
+        final Set<String> classNames = new HashSet<>();
+        for (int i = 1; i < constantPool.classNameIndexes.length; i++) {
+            if (constantPool.classNameIndexes[i] == 0) {
+                continue;
+            }
+
+            final String internalName = constantPool.utf8Constants[constantPool.classNameIndexes[i]];
+            if (internalName.startsWith("[")) {
+                collectDescriptorClassNames(internalName, classNames);
+            } else {
+                classNames.add(toBinaryName(internalName));
+            }
+        }
+
+        //Descriptors and signatures are only present as UTF8 constants.
+        for (String utf8Constant : constantPool.utf8Constants) {
+            if (utf8Constant != null) {
+                collectDescriptorClassNames(utf8Constant, classNames);
+            }
+        }
+
+        return classNames;
+    }
+
+    private static ClassFileMetadata readMetadata(DataInputStream in) throws IOException {
+        readHeader(in);
+
+        final ConstantPool constantPool = readConstantPool(in);
+        final String[] utf8Constants = constantPool.utf8Constants;
+        final int[] classNameIndexes = constantPool.classNameIndexes;
+
+        final int accessFlags = in.readUnsignedShort();
+        final String className = toBinaryName(utf8Constants[classNameIndexes[in.readUnsignedShort()]]);
+
+        final int superClassIndex = in.readUnsignedShort();
+        final String superClassName = superClassIndex == 0
+                ? null
+                : toBinaryName(utf8Constants[classNameIndexes[superClassIndex]]);
+
+        in.skipBytes(in.readUnsignedShort() * 2);
+
+        //fields and methods share the same layout
+        skipMembers(in);
+        skipMembers(in);
+
+        final List<String> annotationTypes = new ArrayList<>();
+        final int attributesCount = in.readUnsignedShort();
+        for (int i = 0; i < attributesCount; i++) {
+            final String attributeName = utf8Constants[in.readUnsignedShort()];
+            final int attributeLength = in.readInt();
+
+            if (!RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+                in.skipBytes(attributeLength);
+                continue;
+            }
+
+            final int annotationsCount = in.readUnsignedShort();
+            for (int j = 0; j < annotationsCount; j++) {
+                annotationTypes.add(descriptorToBinaryName(utf8Constants[in.readUnsignedShort()]));
+                skipElementValuePairs(in);
+            }
+        }
+
+        return new ClassFileMetadata(className, superClassName, accessFlags, annotationTypes);
+    }
+
+    private static void readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Missing class file magic number.");
+        }
+
+        //minor and major version
+        in.skipBytes(4);
+    }
+
+    private static ConstantPool readConstantPool(DataInputStream in) throws IOException {
+        final int constantPoolCount = in.readUnsignedShort();
+        final String[] utf8Constants = new String[constantPoolCount];
+        final int[] classNameIndexes = new int[constantPoolCount];
+
+        for (int i = 1; i < constantPoolCount; i++) {
+            final int tag = in.readUnsignedByte();
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    utf8Constants[i] = in.readUTF();
+                    break;
+                case CONSTANT_CLASS:
+                    classNameIndexes[i] = in.readUnsignedShort();
+                    break;
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    in.skipBytes(2);
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    in.skipBytes(3);
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELD_REF:
+                case CONSTANT_METHOD_REF:
+                case CONSTANT_INTERFACE_METHOD_REF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    in.skipBytes(4);
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    in.skipBytes(8);
+                    //8 byte constants take two slots in the pool.
+                    i++;
+                    break;
+                default:
+                    throw new IOException(String.format("Unknown constant pool tag %d.", tag));
+            }
+        }
+
+        return new ConstantPool(utf8Constants, classNameIndexes);
+    }
+
+    /**
+     * Finds class types (Lcom/example/Type;) in a field descriptor, method descriptor or signature.
+     */
+    private static void collectDescriptorClassNames(String descriptor, Set<String> classNames) {
+        for (int i = 0; i < descriptor.length(); i++) {
+            if (descriptor.charAt(i) != 'L' || (i > 0 && DESCRIPTOR_TYPE_PREFIXES.indexOf(descriptor.charAt(i - 1)) < 0)) {
+                continue;
+            }
+
+            int end = i + 1;
+            while (end < descriptor.length() && descriptor.charAt(end) != ';' && descriptor.charAt(end) != '<') {
+                end++;
+            }
+
+            if (end < descriptor.length() && end > i + 1) {
+                classNames.add(toBinaryName(descriptor.substring(i + 1, end)));
+            }
+
+            i = end;
+        }
+    }
+
+    private static void skipMembers(DataInputStream in) throws IOException {
+        final int membersCount = in.readUnsignedShort();
+        for (int i = 0; i < membersCount; i++) {
+            //access flags, name index and descriptor index
+            in.skipBytes(6);
+            skipAttributes(in);
+        }
+    }
+
+    private static void skipAttributes(DataInputStream in) throws IOException {
+        final int attributesCount = in.readUnsignedShort();
+        for (int i = 0; i < attributesCount; i++) {
+            in.skipBytes(2);
+            in.skipBytes(in.readInt());
+        }
+    }
+
+    private static void skipElementValuePairs(DataInputStream in) throws IOException {
+        final int pairsCount = in.readUnsignedShort();
+        for (int i = 0; i < pairsCount; i++) {
+            in.skipBytes(2);
+            skipElementValue(in);
+        }
+    }
+
+    private static void skipElementValue(DataInputStream in) throws IOException {
+        final int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                in.skipBytes(4);
+                break;
+            case '@':
+                in.skipBytes(2);
+                skipElementValuePairs(in);
+                break;
+            case '[':
+                final int valuesCount = in.readUnsignedShort();
+                for (int i = 0; i < valuesCount; i++) {
+                    skipElementValue(in);
+                }
+                break;
+            default:
+                //primitives, strings and classes are a single constant pool index
+                in.skipBytes(2);
+        }
+    }
+
+    /**
+     * Converts internal name (com/example/Outer$Inner) to binary name (com.example.Outer$Inner).
+     */
+    private static String toBinaryName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+    /**
+     * Converts field descriptor (Lcom/example/Annotation;) to binary name (com.example.Annotation).
+     */
+    private static String descriptorToBinaryName(String descriptor) {
+        return toBinaryName(descriptor.substring(1, descriptor.length() - 1));
+    }
+
+    private static class ConstantPool {
+        private final String[] utf8Constants;
+
+        private final int[] classNameIndexes;
+
+        private ConstantPool(String[] utf8Constants, int[] classNameIndexes) {
+            this.utf8Constants = utf8Constants;
+            this.classNameIndexes = classNameIndexes;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.cyecize.ioc.utils;
+
+import com.cyecize.ioc.annotations.Autowired;
+import com.cyecize.ioc.annotations.PostConstruct;
+import com.cyecize.ioc.annotations.PreDestroy;
+import com.cyecize.ioc.models.ClassIntrospection;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the reflection data of a class in a single pass over its members.
+ * <p>
+ * The result is cached per class with a {@link ClassValue}, so it is released together with the class.
+ * Super classes are introspected (and cached) separately and their results are reused.
+ */
+public final class ClassIntrospectionUtils {
+
+    private static final ClassValue<ClassIntrospection> INTROSPECTIONS = new ClassValue<>() {
+        @Override
+        protected ClassIntrospection computeValue(Class<?> type) {
+            return introspect(type);
+        }
+    };
+
+    public static ClassIntrospection getIntrospection(Class<?> cls) {
+        return INTROSPECTIONS.get(cls);
+    }
+
+    private static ClassIntrospection introspect(Class<?> cls) {
+        final ClassIntrospection superIntrospection = cls.getSuperclass() == null
+                ? null
+                : getIntrospection(cls.getSuperclass());
+
+        Method postConstructMethod = null;
+        Method preDestroyMethod = null;
+        final List<Method> beanCandidateMethods = new ArrayList<>();
+        final Map<Method, Annotation[]> methodAnnotations = new HashMap<>();
+        final Map<Class<? extends Annotation>, List<Method>> methodsByAnnotation = new LinkedHashMap<>();
+
+        for (Method method : cls.getDeclaredMethods()) {
+            final Annotation[] annotations = method.getDeclaredAnnotations();
+            final boolean isVoid = method.getReturnType() == void.class || method.getReturnType() == Void.class;
+
+            if (method.getParameterCount() == 0 && !isVoid) {
+                beanCandidateMethods.add(method);
+            }
+
+            if (annotations.length == 0) {
+                continue;
+            }
+
+            methodAnnotations.put(method, annotations);
+            for (Annotation annotation : annotations) {
+                methodsByAnnotation.computeIfAbsent(annotation.annotationType(), k -> new ArrayList<>()).add(method);
+            }
+
+            if (method.getParameterCount() != 0 || !isVoid) {
+                continue;
+            }
+
+            if (postConstructMethod == null && AliasFinder.isAnnotationPresent(annotations, PostConstruct.class)) {
+                postConstructMethod = method;
+            }
+
+            if (preDestroyMethod == null && AliasFinder.isAnnotationPresent(annotations, PreDestroy.class)) {
+                preDestroyMethod = method;
+            }
+        }
+
+        final List<Field> autowiredFields = new ArrayList<>();
+        for (Field declaredField : cls.getDeclaredFields()) {
+            if (AliasFinder.isAnnotationPresent(declaredField.getDeclaredAnnotations(), Autowired.class)) {
+                autowiredFields.add(declaredField);
+            }
+        }
+
+        if (superIntrospection != null) {
+            if (postConstructMethod == null) {
+                postConstructMethod = superIntrospection.getPostConstructMethod();
+            }
+
+            if (preDestroyMethod == null) {
+                preDestroyMethod = superIntrospection.getPreDestroyMethod();
+            }
+
+            Collections.addAll(autowiredFields, superIntrospection.getAutowiredFields());
+        }
+
+        //Methods and fields of super classes were already made accessible when they were introspected.
+        setAccessible(cls, postConstructMethod);
+        setAccessible(cls, preDestroyMethod);
+        autowiredFields.stream().filter(field -> field.getDeclaringClass() == cls).forEach(field -> field.setAccessible(true));
+
+        return new ClassIntrospection(
+                cls,
+                findSuitableConstructor(cls),
+                postConstructMethod,
+                preDestroyMethod,
+                autowiredFields.toArray(new Field[0]),
+                Collections.unmodifiableList(beanCandidateMethods),
+                Collections.unmodifiableMap(methodAnnotations),
+                Collections.unmodifiableMap(methodsByAnnotation)
+        );
+    }
+
+    /**
+     * Looks for a constructor from the given class that has {@link Autowired} annotation
+     * or gets the first public one.
+     */
+    private static Constructor<?> findSuitableConstructor(Class<?> cls) {
+        for (Constructor<?> ctr : cls.getDeclaredConstructors()) {
+            if (AliasFinder.isAnnotationPresent(ctr.getDeclaredAnnotations(), Autowired.class)) {
+                ctr.setAccessible(true);
+                return ctr;
+            }
+        }
+
+        final Constructor<?>[] constructors = cls.getConstructors();
+        if (constructors.length == 0) {
+            return null;
+        }
+
+        return constructors[0];
+    }
+
+    private static void setAccessible(Class<?> cls, Method method) {
+        if (method != null && method.getDeclaringClass() == cls) {
+            method.setAccessible(true);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.cyecize.ioc.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Turns class path strings into the directories and jar files that can be scanned as roots.
+ */
+public final class ClassPathUtils {
+
+    private static final String WILDCARD = "*";
+
+    private static final String JAR_FILE_EXTENSION = ".jar";
+
+    private ClassPathUtils() {
+
+    }
+
+    /**
+     * Splits a class path string (eg. the value of 'java.class.path') into its entries.
+     * <p>
+     * Empty and missing entries are skipped and 'dir/*' entries are expanded to the jar files
+     * in that directory, sorted by name.
+     *
+     * @param classPath - entries separated by {@link File#pathSeparator}.
+     * @return the class path entries in the given order.
+     */
+    public static File[] parseClassPath(String classPath) {
+        final List<File> entries = new ArrayList<>();
+
+        for (String entry : classPath.split(File.pathSeparator)) {
+            entry = entry.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+
+            if (entry.equals(WILDCARD) || entry.endsWith(File.separator + WILDCARD)) {
+                final File dir = new File(entry.substring(0, entry.length() - WILDCARD.length()));
+                entries.addAll(listJarFiles(entry.equals(WILDCARD) ? new File(".") : dir));
+                continue;
+            }
+
+            final File file = new File(entry);
+            if (file.exists()) {
+                entries.add(file);
+            }
+        }
+
+        return entries.toArray(File[]::new);
+    }
+
+    private static List<File> listJarFiles(File dir) {
+        final File[] jarFiles = dir.listFiles(file -> file.isFile()
+                && file.getName().toLowerCase().endsWith(JAR_FILE_EXTENSION));
+
+        if (jarFiles == null) {
+            return List.of();
+        }
+
+        Arrays.sort(jarFiles, Comparator.comparing(File::getName));
+        return Arrays.asList(jarFiles);
+    }
+}
@@ -4,6 +4,7 @@ import com.cyecize.ioc.models.DependencyParam;
 import com.cyecize.ioc.models.ResolvedServiceDto;
 import com.cyecize.ioc.models.ServiceBeanDetails;
 import com.cyecize.ioc.models.ServiceDetails;
+import com.cyecize.ioc.models.ServiceTypeIndex;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -15,8 +16,11 @@ public final class DependencyParamUtils {
         // and (instanceName if not null equals service's instance name)
 
         final boolean isRequiredTypeAssignable = requiredType.isAssignableFrom(serviceDetails.getServiceType());
-        final boolean isRequiredTypeAssignable2 = serviceDetails.getInstance() != null &&
-                requiredType.isAssignableFrom(serviceDetails.getInstance().getClass());
+        //Actual instance is checked so that prototypes and deferred services are not instantiated by the lookup.
+        //It is read once since a reload can destroy it concurrently.
+        final Object actualInstance = serviceDetails.getActualInstance();
+        final boolean isRequiredTypeAssignable2 = actualInstance != null &&
+                requiredType.isAssignableFrom(actualInstance.getClass());
 
         final boolean instanceNameMatches = instanceName == null ||
                 instanceName.equalsIgnoreCase(serviceDetails.getInstanceName());
@@ -43,6 +47,35 @@ public final class DependencyParamUtils {
         return resolvedServices;
     }
 
+    /**
+     * Same as {@link #findAllCompatibleServices(DependencyParam, Collection)} but only the services indexed
+     * under the dependency type are checked.
+     */
+    public static List<ResolvedServiceDto> findAllCompatibleServices(DependencyParam dependencyParam,
+                                                                     ServiceTypeIndex serviceTypeIndex) {
+        final List<ResolvedServiceDto> resolvedServices = new ArrayList<>();
+
+        for (ResolvedServiceDto candidate : serviceTypeIndex.getServicesByType(dependencyParam.getDependencyType())) {
+            if (dependencyParam.isCompatible(candidate.getActualService())) {
+                resolvedServices.add(candidate);
+            }
+        }
+
+        return resolvedServices;
+    }
+
+    public static ResolvedServiceDto getNamedInstanceService(Class<?> cls,
+                                                             String nameOfInstance,
+                                                             ServiceTypeIndex serviceTypeIndex) {
+        for (ResolvedServiceDto candidate : serviceTypeIndex.getServicesByInstanceName(nameOfInstance)) {
+            if (cls.isAssignableFrom(candidate.getActualService().getServiceType())) {
+                return candidate;
+            }
+        }
+
+        return null;
+    }
+
     public static ResolvedServiceDto getNamedInstanceService(Class<?> cls,
                                                              String nameOfInstance,
                                                              Collection<ServiceDetails> serviceDetails) {
@@ -1,18 +1,18 @@
 package com.cyecize.ioc.utils;
 
-import com.cyecize.ioc.annotations.Autowired;
 import com.cyecize.ioc.exceptions.BeanInstantiationException;
 import com.cyecize.ioc.exceptions.PostConstructException;
 import com.cyecize.ioc.exceptions.PreDestroyExecutionException;
 import com.cyecize.ioc.exceptions.ServiceInstantiationException;
-import com.cyecize.ioc.models.DependencyParam;
+import com.cyecize.ioc.models.InstantiationPlan;
 import com.cyecize.ioc.models.ServiceBeanDetails;
 import com.cyecize.ioc.models.ServiceDetails;
+import com.cyecize.ioc.models.ServiceInstanceFactory;
+import com.cyecize.ioc.models.ServicePool;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 
 
 public class ObjectInstantiationUtils {
@@ -28,20 +28,26 @@ public class ObjectInstantiationUtils {
         serviceDetails.setInstance(createNewInstance(serviceDetails, constructorParams, autowiredFieldInstances));
     }
 
+    /**
+     * Creates an instance with the {@link InstantiationPlan} of a service.
+     * Unlike the other overloads, the instance is not set to the service.
+     *
+     * @param serviceDetails the given service details.
+     */
     public static Object createNewInstance(ServiceDetails serviceDetails) {
-        final Object[] constructorParams = serviceDetails.getResolvedConstructorParams().stream()
-                .map(DependencyParam::getInstance)
-                .toArray(Object[]::new);
-
-        final Object[] fieldParams = serviceDetails.getResolvedFields().stream()
-                .map(DependencyParam::getInstance)
-                .toArray(Object[]::new);
-
-        return createNewInstance(serviceDetails, constructorParams, fieldParams);
+        final InstantiationPlan instantiationPlan = serviceDetails.getInstantiationPlan();
+
+        return createNewInstance(
+                serviceDetails,
+                instantiationPlan.getInstanceFactory(),
+                instantiationPlan.getConstructorInstances(),
+                instantiationPlan.getFieldInstances(),
+                false
+        );
     }
 
     /**
-     * Creates an instance for a service.
+     * Creates an instance for a service through its {@link ServiceInstanceFactory}.
      * Invokes the PostConstruct method.
      *
      * @param serviceDetails    the given service details.
@@ -50,6 +56,16 @@ public class ObjectInstantiationUtils {
     public static Object createNewInstance(ServiceDetails serviceDetails,
                                            Object[] constructorParams,
                                            Object[] autowiredFieldInstances) throws ServiceInstantiationException {
+        return createNewInstance(
+                serviceDetails, serviceDetails.getInstanceFactory(), constructorParams, autowiredFieldInstances, true
+        );
+    }
+
+    private static Object createNewInstance(ServiceDetails serviceDetails,
+                                            ServiceInstanceFactory instanceFactory,
+                                            Object[] constructorParams,
+                                            Object[] autowiredFieldInstances,
+                                            boolean setInstance) throws ServiceInstantiationException {
         final Constructor<?> targetConstructor = serviceDetails.getTargetConstructor();
 
         if (constructorParams.length != targetConstructor.getParameterCount()) {
@@ -60,47 +76,31 @@ public class ObjectInstantiationUtils {
         }
 
         try {
-            final Object instance = targetConstructor.newInstance(constructorParams);
-            serviceDetails.setInstance(instance);
-            setAutowiredFieldInstances(serviceDetails, autowiredFieldInstances, instance);
-            invokePostConstruct(serviceDetails, instance);
+            final Object instance = instanceFactory.newInstance(constructorParams);
+            if (setInstance) {
+                serviceDetails.setInstance(instance);
+            }
+
+            //Sets the instances of all Autowired fields.
+            instanceFactory.setFields(instance, autowiredFieldInstances);
+            invokePostConstruct(instanceFactory, instance);
 
             return instance;
-        } catch (IllegalAccessException | InvocationTargetException | InstantiationException e) {
+        } catch (InvocationTargetException e) {
             throw new ServiceInstantiationException(e.getMessage(), e);
         }
     }
 
-    /**
-     * Iterates all {@link Autowired} annotated fields and sets them a given instance.
-     *
-     * @param serviceDetails          - given service details.
-     * @param autowiredFieldInstances - field instances.
-     */
-    private static void setAutowiredFieldInstances(ServiceDetails serviceDetails,
-                                                   Object[] autowiredFieldInstances,
-                                                   Object instance) throws IllegalAccessException {
-        final Field[] autowireAnnotatedFields = serviceDetails.getAutowireAnnotatedFields();
-
-        for (int i = 0; i < autowireAnnotatedFields.length; i++) {
-            autowireAnnotatedFields[i].set(instance, autowiredFieldInstances[i]);
-        }
-    }
-
     /**
      * Invokes post construct method if one is present for a given service.
      *
-     * @param serviceDetails - the given service.
+     * @param instanceFactory - factory of the given service.
      */
-    private static void invokePostConstruct(ServiceDetails serviceDetails,
+    private static void invokePostConstruct(ServiceInstanceFactory instanceFactory,
                                             Object instance) throws PostConstructException {
-        if (serviceDetails.getPostConstructMethod() == null) {
-            return;
-        }
-
         try {
-            serviceDetails.getPostConstructMethod().invoke(instance);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            instanceFactory.invokePostConstruct(instance);
+        } catch (InvocationTargetException e) {
             throw new PostConstructException(e.getMessage(), e);
         }
     }
@@ -117,31 +117,53 @@ public class ObjectInstantiationUtils {
     }
 
     public static Object createNewInstance(ServiceBeanDetails serviceBeanDetails) {
-        final Method originMethod = serviceBeanDetails.getOriginMethod();
+        final MethodHandle originMethodHandle = serviceBeanDetails.getOriginMethodHandle();
         final Object rootInstance = serviceBeanDetails.getRootService().getActualInstance();
 
         try {
-            return originMethod.invoke(rootInstance);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new BeanInstantiationException(e.getMessage(), e);
+            return (Object) originMethodHandle.invokeExact(rootInstance);
+        } catch (Throwable t) {
+            throw new BeanInstantiationException(t.getMessage(), new InvocationTargetException(t));
         }
     }
 
     /**
      * Sets the instance to null.
      * Invokes post construct method for the given service details if one is present.
+     * The pool of the service is closed, its idle instances are destroyed now and the borrowed ones
+     * once they are released.
      *
      * @param serviceDetails given service details.
      */
     public static void destroyInstance(ServiceDetails serviceDetails) throws PreDestroyExecutionException {
-        if (serviceDetails.getPreDestroyMethod() != null) {
-            try {
-                serviceDetails.getPreDestroyMethod().invoke(serviceDetails.getActualInstance());
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                throw new PreDestroyExecutionException(e.getMessage(), e);
+        final ServicePool<Object> servicePool = serviceDetails.removeServicePool();
+        try {
+            invokePreDestroy(serviceDetails, serviceDetails.getActualInstance());
+        } finally {
+            if (servicePool != null) {
+                servicePool.close();
             }
         }
 
         serviceDetails.setInstance(null);
     }
+
+    /**
+     * Invokes pre destroy method for an instance of the given service, eg. an instance evicted from a pool.
+     *
+     * @param serviceDetails given service details.
+     * @param instance       the destroyed instance.
+     */
+    public static void invokePreDestroy(ServiceDetails serviceDetails, Object instance) throws PreDestroyExecutionException {
+        final MethodHandle preDestroyHandle = serviceDetails.getPreDestroyHandle();
+        if (preDestroyHandle == null || instance == null) {
+            return;
+        }
+
+        try {
+            preDestroyHandle.invokeExact(instance);
+        } catch (Throwable t) {
+            throw new PreDestroyExecutionException(t.getMessage(), new InvocationTargetException(t));
+        }
+    }
 }
@@ -0,0 +1,448 @@
+package com.cyecize.ioc.utils;
+
+import com.cyecize.ioc.models.GeneratedProxy;
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.Bytecode;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.DuplicateMemberException;
+import javassist.bytecode.FieldInfo;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.Opcode;
+import javassist.util.proxy.MethodHandler;
+import javassist.util.proxy.RuntimeSupport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates {@link GeneratedProxy} classes that call the methods of their delegate directly
+ * instead of going through {@link Method#invoke(Object, Object...)}.
+ * <p>
+ * The proxy class extends the proxied class (or implements the proxied interface) and is defined in its package.
+ * Advised methods and methods that are not accessible from the proxy are passed to the {@link MethodHandler}.
+ * The generated methods do not branch, so no stack map frames are needed.
+ */
+public final class ProxyClassGenerator {
+
+    private static final String PROXY_CLASS_NAME_FORMAT = "%s$$MagicProxy$%d";
+
+    private static final String DELEGATE_FIELD = "$delegate";
+
+    private static final String HANDLER_FIELD = "$handler";
+
+    private static final String METHODS_FIELD = "$methods";
+
+    private static final String OBJECT_TYPE = "java.lang.Object";
+
+    private static final String HANDLER_TYPE = MethodHandler.class.getName();
+
+    private static final String HANDLER_INVOKE_DESCRIPTOR =
+            "(Ljava/lang/Object;Ljava/lang/reflect/Method;Ljava/lang/reflect/Method;[Ljava/lang/Object;)Ljava/lang/Object;";
+
+    private static final AtomicInteger PROXY_CLASS_COUNTER = new AtomicInteger();
+
+    /**
+     * Generates a proxy class for the given type.
+     *
+     * @param proxiedType     class or interface to proxy.
+     * @param constructor     super constructor that the proxy constructor calls,
+     *                        null for interfaces, classes without one are not proxied.
+     * @param advisedMethods  methods that are always passed to the handler.
+     * @return the proxy class or null if the type cannot be proxied this way.
+     */
+    public static Class<?> generateProxyClass(Class<?> proxiedType,
+                                              Constructor<?> constructor,
+                                              Set<Method> advisedMethods) {
+        if (!canGenerateProxyClass(proxiedType, constructor)) {
+            return null;
+        }
+
+        final List<Method> methods = collectProxiedMethods(proxiedType);
+        final String proxyClassName = String.format(
+                PROXY_CLASS_NAME_FORMAT, proxiedType.getName(), PROXY_CLASS_COUNTER.incrementAndGet()
+        );
+
+        final byte[] bytecode;
+        try {
+            bytecode = createClassFile(proxyClassName, proxiedType, constructor, methods, advisedMethods);
+        } catch (IOException | DuplicateMemberException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+
+        try {
+            final Class<?> proxyClass = MethodHandles.privateLookupIn(proxiedType, MethodHandles.lookup())
+                    .defineClass(bytecode);
+
+            //Setting the static field initializes the class, so a class that fails to link is never returned.
+            final Field methodsField = proxyClass.getDeclaredField(METHODS_FIELD);
+            methodsField.setAccessible(true);
+            methodsField.set(null, methods.toArray(Method[]::new));
+
+            return proxyClass;
+        } catch (IllegalAccessException | NoClassDefFoundError e) {
+            //The package is not open to the container or the class loader of the type cannot see the container,
+            //the type can still be proxied with reflection.
+            return null;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private static boolean canGenerateProxyClass(Class<?> proxiedType, Constructor<?> constructor) {
+        if (proxiedType.getClassLoader() == null || Modifier.isFinal(proxiedType.getModifiers())) {
+            return false;
+        }
+
+        if (proxiedType.isInterface()) {
+            return true;
+        }
+
+        return constructor != null && !Modifier.isPrivate(constructor.getModifiers());
+    }
+
+    /**
+     * Collects the methods that the proxy can override, the most specific declaration of each signature is kept.
+     */
+    private static List<Method> collectProxiedMethods(Class<?> proxiedType) {
+        final Map<String, Method> methods = new LinkedHashMap<>();
+
+        if (!proxiedType.isInterface()) {
+            for (Class<?> cls = proxiedType; cls != null; cls = cls.getSuperclass()) {
+                for (Method method : cls.getDeclaredMethods()) {
+                    if (!method.isBridge() && !method.isSynthetic()) {
+                        methods.putIfAbsent(getSignature(method), method);
+                    }
+                }
+            }
+        } else {
+            for (String objectMethod : List.of("equals", "hashCode", "toString")) {
+                Arrays.stream(Object.class.getMethods())
+                        .filter(method -> method.getName().equals(objectMethod))
+                        .forEach(method -> methods.put(getSignature(method), method));
+            }
+        }
+
+        //Default and abstract methods of interfaces.
+        for (Method method : proxiedType.getMethods()) {
+            if (!method.isBridge() && !method.isSynthetic()) {
+                methods.putIfAbsent(getSignature(method), method);
+            }
+        }
+
+        for (Method method : GeneratedProxy.class.getMethods()) {
+            methods.remove(getSignature(method));
+        }
+
+        final List<Method> proxiedMethods = new ArrayList<>();
+        for (Method method : methods.values()) {
+            if (isOverridable(proxiedType, method)) {
+                proxiedMethods.add(method);
+            }
+        }
+
+        return proxiedMethods;
+    }
+
+    private static boolean isOverridable(Class<?> proxiedType, Method method) {
+        final int modifiers = method.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isPrivate(modifiers) || Modifier.isFinal(modifiers)) {
+            return false;
+        }
+
+        if (method.getName().equals("finalize") && method.getParameterCount() == 0) {
+            return false;
+        }
+
+        if (Modifier.isPublic(modifiers) || Modifier.isProtected(modifiers)) {
+            return true;
+        }
+
+        return isSamePackage(proxiedType, method.getDeclaringClass());
+    }
+
+    /**
+     * Public methods and methods from the package of the proxy can be called on the delegate.
+     */
+    private static boolean isDirectlyCallable(Class<?> proxiedType, Method method) {
+        return Modifier.isPublic(method.getModifiers()) || isSamePackage(proxiedType, method.getDeclaringClass());
+    }
+
+    private static boolean isSamePackage(Class<?> cls, Class<?> otherCls) {
+        return cls.getClassLoader() == otherCls.getClassLoader()
+                && Objects.equals(cls.getPackageName(), otherCls.getPackageName());
+    }
+
+    private static String getSignature(Method method) {
+        return method.getName() + RuntimeSupport.makeDescriptor(method.getParameterTypes(), void.class);
+    }
+
+    private static byte[] createClassFile(String proxyClassName,
+                                          Class<?> proxiedType,
+                                          Constructor<?> constructor,
+                                          List<Method> methods,
+                                          Set<Method> advisedMethods) throws IOException, DuplicateMemberException {
+        final ClassFile classFile;
+        if (proxiedType.isInterface()) {
+            classFile = new ClassFile(false, proxyClassName, OBJECT_TYPE);
+            classFile.setInterfaces(new String[]{proxiedType.getName(), GeneratedProxy.class.getName()});
+        } else {
+            classFile = new ClassFile(false, proxyClassName, proxiedType.getName());
+            classFile.setInterfaces(new String[]{GeneratedProxy.class.getName()});
+        }
+
+        classFile.setAccessFlags(AccessFlag.PUBLIC | AccessFlag.SUPER);
+        final ConstPool constPool = classFile.getConstPool();
+
+        addField(classFile, DELEGATE_FIELD, "Ljava/lang/Object;", AccessFlag.PRIVATE | AccessFlag.VOLATILE);
+        addField(classFile, HANDLER_FIELD, "L" + HANDLER_TYPE.replace('.', '/') + ";", AccessFlag.PRIVATE);
+        addField(classFile, METHODS_FIELD, "[Ljava/lang/reflect/Method;", AccessFlag.PRIVATE | AccessFlag.STATIC);
+
+        if (proxiedType.isInterface()) {
+            classFile.addMethod(createConstructor(constPool, OBJECT_TYPE, new Class<?>[0]));
+        } else {
+            classFile.addMethod(createConstructor(constPool, proxiedType.getName(), constructor.getParameterTypes()));
+        }
+
+        classFile.addMethod(createSetter(constPool, proxyClassName, "setProxyDelegate", DELEGATE_FIELD, Object.class));
+        classFile.addMethod(createSetter(constPool, proxyClassName, "setProxyHandler", HANDLER_FIELD, MethodHandler.class));
+
+        for (int i = 0; i < methods.size(); i++) {
+            final Method method = methods.get(i);
+
+            if (advisedMethods.contains(method) || !isDirectlyCallable(proxiedType, method)) {
+                classFile.addMethod(createHandlerMethod(constPool, proxyClassName, method, i));
+            } else {
+                classFile.addMethod(createDirectMethod(constPool, proxyClassName, proxiedType, method));
+            }
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            classFile.write(out);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static void addField(ClassFile classFile, String name, String descriptor, int accessFlags)
+            throws DuplicateMemberException {
+        final FieldInfo field = new FieldInfo(classFile.getConstPool(), name, descriptor);
+        field.setAccessFlags(accessFlags);
+        classFile.addField(field);
+    }
+
+    private static MethodInfo createConstructor(ConstPool constPool, String superClassName, Class<?>[] paramTypes) {
+        final String descriptor = RuntimeSupport.makeDescriptor(paramTypes, void.class);
+        final Bytecode code = new Bytecode(constPool);
+
+        code.addAload(0);
+        final int locals = addLoadParameters(code, paramTypes);
+        code.addInvokespecial(superClassName, MethodInfo.nameInit, descriptor);
+        code.addOpcode(Opcode.RETURN);
+        code.setMaxLocals(locals);
+
+        return createMethod(constPool, MethodInfo.nameInit, descriptor, AccessFlag.PUBLIC, code);
+    }
+
+    private static MethodInfo createSetter(ConstPool constPool,
+                                           String proxyClassName,
+                                           String methodName,
+                                           String fieldName,
+                                           Class<?> fieldType) {
+        final String fieldDescriptor = RuntimeSupport.makeDescriptor(new Class<?>[0], fieldType).substring(2);
+        final Bytecode code = new Bytecode(constPool);
+
+        code.addAload(0);
+        code.addAload(1);
+        code.addPutfield(proxyClassName, fieldName, fieldDescriptor);
+        code.addOpcode(Opcode.RETURN);
+        code.setMaxLocals(2);
+
+        return createMethod(constPool, methodName, "(" + fieldDescriptor + ")V", AccessFlag.PUBLIC, code);
+    }
+
+    /**
+     * Creates a method that casts the delegate to the proxied type and calls the same method on it.
+     */
+    private static MethodInfo createDirectMethod(ConstPool constPool,
+                                                 String proxyClassName,
+                                                 Class<?> proxiedType,
+                                                 Method method) {
+        final String descriptor = RuntimeSupport.makeDescriptor(method);
+        final Bytecode code = new Bytecode(constPool);
+
+        code.addAload(0);
+        code.addGetfield(proxyClassName, DELEGATE_FIELD, "Ljava/lang/Object;");
+        code.addCheckcast(proxiedType.getName());
+        final int locals = addLoadParameters(code, method.getParameterTypes());
+
+        if (!proxiedType.isInterface()) {
+            code.addInvokevirtual(proxiedType.getName(), method.getName(), descriptor);
+        } else if (method.getDeclaringClass() == Object.class) {
+            code.addInvokevirtual(OBJECT_TYPE, method.getName(), descriptor);
+        } else {
+            code.addInvokeinterface(proxiedType.getName(), method.getName(), descriptor, locals);
+        }
+
+        addReturn(code, method.getReturnType());
+        code.setMaxLocals(locals);
+
+        return createMethod(constPool, method.getName(), descriptor, getAccessFlags(method), code);
+    }
+
+    /**
+     * Creates a method that passes the call to the {@link MethodHandler} of the proxy.
+     */
+    private static MethodInfo createHandlerMethod(ConstPool constPool,
+                                                  String proxyClassName,
+                                                  Method method,
+                                                  int methodIndex) {
+        final Class<?>[] paramTypes = method.getParameterTypes();
+        final Bytecode code = new Bytecode(constPool);
+
+        code.addAload(0);
+        code.addGetfield(proxyClassName, HANDLER_FIELD, "L" + HANDLER_TYPE.replace('.', '/') + ";");
+        code.addAload(0);
+        code.addGetstatic(proxyClassName, METHODS_FIELD, "[Ljava/lang/reflect/Method;");
+        code.addIconst(methodIndex);
+        code.addOpcode(Opcode.AALOAD);
+        code.addOpcode(Opcode.ACONST_NULL);
+
+        code.addIconst(paramTypes.length);
+        code.addAnewarray(OBJECT_TYPE);
+        int local = 1;
+        for (int i = 0; i < paramTypes.length; i++) {
+            code.addOpcode(Opcode.DUP);
+            code.addIconst(i);
+            local += addLoad(code, local, paramTypes[i]);
+            addBoxing(code, paramTypes[i]);
+            code.addOpcode(Opcode.AASTORE);
+        }
+
+        code.addInvokeinterface(HANDLER_TYPE, "invoke", HANDLER_INVOKE_DESCRIPTOR, 5);
+        addUnboxing(code, method.getReturnType());
+        addReturn(code, method.getReturnType());
+        code.setMaxLocals(local);
+
+        return createMethod(constPool, method.getName(), RuntimeSupport.makeDescriptor(method), getAccessFlags(method), code);
+    }
+
+    private static MethodInfo createMethod(ConstPool constPool, String name, String descriptor, int accessFlags, Bytecode code) {
+        final MethodInfo methodInfo = new MethodInfo(constPool, name, descriptor);
+        methodInfo.setAccessFlags(accessFlags);
+        methodInfo.setCodeAttribute(code.toCodeAttribute());
+
+        return methodInfo;
+    }
+
+    private static int getAccessFlags(Method method) {
+        return method.getModifiers() & (AccessFlag.PUBLIC | AccessFlag.PROTECTED | AccessFlag.VARARGS);
+    }
+
+    /**
+     * @return the number of locals used by 'this' and the parameters.
+     */
+    private static int addLoadParameters(Bytecode code, Class<?>[] paramTypes) {
+        int local = 1;
+        for (Class<?> paramType : paramTypes) {
+            local += addLoad(code, local, paramType);
+        }
+
+        return local;
+    }
+
+    private static int addLoad(Bytecode code, int local, Class<?> type) {
+        if (type == long.class) {
+            code.addLload(local);
+            return 2;
+        }
+
+        if (type == double.class) {
+            code.addDload(local);
+            return 2;
+        }
+
+        if (type == float.class) {
+            code.addFload(local);
+        } else if (type.isPrimitive()) {
+            code.addIload(local);
+        } else {
+            code.addAload(local);
+        }
+
+        return 1;
+    }
+
+    private static void addReturn(Bytecode code, Class<?> returnType) {
+        if (returnType == void.class) {
+            code.addOpcode(Opcode.RETURN);
+        } else if (returnType == long.class) {
+            code.addOpcode(Opcode.LRETURN);
+        } else if (returnType == double.class) {
+            code.addOpcode(Opcode.DRETURN);
+        } else if (returnType == float.class) {
+            code.addOpcode(Opcode.FRETURN);
+        } else if (returnType.isPrimitive()) {
+            code.addOpcode(Opcode.IRETURN);
+        } else {
+            code.addOpcode(Opcode.ARETURN);
+        }
+    }
+
+    private static void addBoxing(Bytecode code, Class<?> type) {
+        if (!type.isPrimitive()) {
+            return;
+        }
+
+        final Class<?> wrapperType = getWrapperType(type);
+        code.addInvokestatic(
+                wrapperType.getName(), "valueOf", RuntimeSupport.makeDescriptor(new Class<?>[]{type}, wrapperType)
+        );
+    }
+
+    /**
+     * Converts the Object returned by the handler to the return type of the method.
+     */
+    private static void addUnboxing(Bytecode code, Class<?> returnType) {
+        if (returnType == void.class) {
+            code.addOpcode(Opcode.POP);
+            return;
+        }
+
+        if (!returnType.isPrimitive()) {
+            if (returnType != Object.class) {
+                code.addCheckcast(returnType.getName());
+            }
+
+            return;
+        }
+
+        final Class<?> wrapperType = getWrapperType(returnType);
+        code.addCheckcast(wrapperType.getName());
+        code.addInvokevirtual(
+                wrapperType.getName(),
+                returnType.getName() + "Value",
+                RuntimeSupport.makeDescriptor(new Class<?>[0], returnType)
+        );
+    }
+
+    private static Class<?> getWrapperType(Class<?> primitiveType) {
+        return MethodType.methodType(primitiveType).wrap().returnType();
+    }
+}
@@ -1,43 +1,208 @@
 package com.cyecize.ioc.utils;
 
+import com.cyecize.ioc.models.GeneratedProxy;
 import com.cyecize.ioc.models.InvocationHandlerImpl;
 import com.cyecize.ioc.models.MethodInvocationHandlerImpl;
+import com.cyecize.ioc.models.ProxyClassCache;
 import com.cyecize.ioc.models.ServiceBeanDetails;
 import com.cyecize.ioc.models.ServiceDetails;
 import javassist.util.proxy.ProxyFactory;
 import javassist.util.proxy.ProxyObject;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
 
 public class ProxyUtils {
 
+    private static final String GENERATED_PROXY_VARIANT = "generated";
+
+    private static final String JAVASSIST_PROXY_VARIANT = "javassist";
+
+    /**
+     * Proxy classes shared by all services, reloads and containers.
+     */
+    private static final ProxyClassCache PROXY_CLASS_CACHE = new ProxyClassCache(
+            ProxyClassCache.DEFAULT_MAX_CLASSES_PER_TYPE
+    );
+
+    public static ProxyClassCache getProxyClassCache() {
+        return PROXY_CLASS_CACHE;
+    }
+
     public static void createProxyInstance(ServiceDetails serviceDetails, Object[] constructorParams) {
-        final ProxyFactory proxyFactory = new ProxyFactory();
-        proxyFactory.setSuperclass(serviceDetails.getServiceType());
+        final MethodInvocationHandlerImpl handler = new MethodInvocationHandlerImpl(serviceDetails);
+        final Class<?>[] constructorParamTypes = serviceDetails.getTargetConstructor().getParameterTypes();
 
         Object proxyInstance;
         try {
-            proxyInstance = proxyFactory.create(serviceDetails.getTargetConstructor().getParameterTypes(), constructorParams);
+            final Class<?> proxyClass = getGeneratedProxyClass(
+                    serviceDetails.getServiceType(),
+                    serviceDetails.getTargetConstructor(),
+                    serviceDetails.getMethodAspectHandlers().keySet()
+            );
+
+            if (proxyClass != null) {
+                proxyInstance = newProxyShell(proxyClass, constructorParamTypes, constructorParams);
+                initGeneratedProxy((GeneratedProxy) proxyInstance, serviceDetails, handler);
+            } else {
+                proxyInstance = newProxyShell(
+                        getJavassistProxyClass(serviceDetails.getServiceType()), constructorParamTypes, constructorParams
+                );
+
+                ((ProxyObject) proxyInstance).setHandler(handler);
+            }
         } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
             throw new RuntimeException(e);
         }
 
-        ((ProxyObject) proxyInstance).setHandler(new MethodInvocationHandlerImpl(serviceDetails));
-
         serviceDetails.setProxyInstance(proxyInstance);
     }
 
+    /**
+     * Creates a proxy for a bean, interfaces are implemented and other types are extended.
+     * Types that cannot be extended (eg. final classes or classes without a non-private constructor)
+     * are left without a proxy.
+     */
     public static void createBeanProxyInstance(ServiceBeanDetails serviceDetails) {
-        if (!serviceDetails.getServiceType().isInterface()) {
+        final Class<?> beanType = serviceDetails.getServiceType();
+        if (beanType.isPrimitive() || beanType.isArray() || beanType.isEnum() || Modifier.isFinal(beanType.getModifiers())) {
+            return;
+        }
+
+        final Constructor<?> constructor = beanType.isInterface() ? null : findBeanProxyConstructor(beanType);
+        if (!beanType.isInterface() && constructor == null) {
             return;
         }
 
-        final Object proxyInstance = Proxy.newProxyInstance(
-                serviceDetails.getServiceType().getClassLoader(),
-                new Class[]{serviceDetails.getServiceType()},
-                new InvocationHandlerImpl(serviceDetails));
+        final MethodInvocationHandlerImpl handler = new MethodInvocationHandlerImpl(serviceDetails);
+        final Class<?> proxyClass = getGeneratedProxyClass(
+                beanType, constructor, serviceDetails.getMethodAspectHandlers().keySet()
+        );
+
+        final Object proxyInstance;
+        try {
+            if (beanType.isInterface() && proxyClass == null) {
+                proxyInstance = Proxy.newProxyInstance(
+                        beanType.getClassLoader(),
+                        new Class<?>[]{beanType},
+                        new InvocationHandlerImpl(serviceDetails));
+            } else if (beanType.isInterface()) {
+                proxyInstance = proxyClass.getDeclaredConstructor().newInstance();
+                initGeneratedProxy((GeneratedProxy) proxyInstance, serviceDetails, handler);
+            } else {
+                proxyInstance = newBeanProxyShell(
+                        proxyClass == null ? getJavassistProxyClass(beanType) : proxyClass, constructor
+                );
+
+                if (proxyInstance == null) {
+                    return;
+                }
+
+                if (proxyClass == null) {
+                    ((ProxyObject) proxyInstance).setHandler(handler);
+                } else {
+                    initGeneratedProxy((GeneratedProxy) proxyInstance, serviceDetails, handler);
+                }
+            }
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
 
         serviceDetails.setProxyInstance(proxyInstance);
     }
+
+    /**
+     * Bean proxies are created without a constructor when the JVM supports it, otherwise with the no-args one.
+     * The proxy class still needs a super constructor to declare, in the first case any non-private one will do.
+     */
+    private static Constructor<?> findBeanProxyConstructor(Class<?> beanType) {
+        Constructor<?> shellOnlyConstructor = null;
+        for (Constructor<?> constructor : beanType.getDeclaredConstructors()) {
+            if (Modifier.isPrivate(constructor.getModifiers())) {
+                continue;
+            }
+
+            if (constructor.getParameterCount() == 0) {
+                return constructor;
+            }
+
+            if (shellOnlyConstructor == null && ShellInstantiationUtils.isSupported()) {
+                shellOnlyConstructor = constructor;
+            }
+        }
+
+        return shellOnlyConstructor;
+    }
+
+    /**
+     * @return proxy created without a constructor or with the no-args one,
+     * null if the bean has no no-args constructor and the proxy cannot be created without one.
+     */
+    private static Object newBeanProxyShell(Class<?> proxyClass, Constructor<?> constructor)
+            throws InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+        final Object shell = ShellInstantiationUtils.newShellInstance(proxyClass);
+        if (shell != null || constructor.getParameterCount() > 0) {
+            return shell;
+        }
+
+        return proxyClass.getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * Creates a proxy instance without running the constructor of the proxied service,
+     * the proxy only forwards calls so its own fields are never used.
+     */
+    private static Object newProxyShell(Class<?> proxyClass, Class<?>[] constructorParamTypes, Object[] constructorParams)
+            throws InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+        final Object shell = ShellInstantiationUtils.newShellInstance(proxyClass);
+        if (shell != null) {
+            return shell;
+        }
+
+        //The service constructor runs a second time for the proxy.
+        return proxyClass.getDeclaredConstructor(constructorParamTypes).newInstance(constructorParams);
+    }
+
+    /**
+     * The generated class depends on the super constructor and on which methods are advised.
+     */
+    private static Class<?> getGeneratedProxyClass(Class<?> proxiedType,
+                                                   Constructor<?> constructor,
+                                                   Set<Method> advisedMethods) {
+        final Set<Method> advisedMethodsCopy = Set.copyOf(advisedMethods);
+        final List<?> variant = List.of(
+                GENERATED_PROXY_VARIANT,
+                constructor == null ? List.of() : List.of(constructor.getParameterTypes()),
+                advisedMethodsCopy
+        );
+
+        return PROXY_CLASS_CACHE.getProxyClass(proxiedType, variant, () -> ProxyClassGenerator.generateProxyClass(
+                proxiedType, constructor, advisedMethodsCopy
+        ));
+    }
+
+    private static Class<?> getJavassistProxyClass(Class<?> proxiedType) {
+        return PROXY_CLASS_CACHE.getProxyClass(proxiedType, List.of(JAVASSIST_PROXY_VARIANT), () -> {
+            final ProxyFactory proxyFactory = new ProxyFactory();
+            proxyFactory.setSuperclass(proxiedType);
+            proxyFactory.setUseCache(false);
+
+            return proxyFactory.createClass();
+        });
+    }
+
+    /**
+     * The delegate is replaced by {@link ServiceDetails#setInstance(Object)} from then on.
+     */
+    private static void initGeneratedProxy(GeneratedProxy proxy,
+                                           ServiceDetails serviceDetails,
+                                           MethodInvocationHandlerImpl handler) {
+        proxy.setProxyHandler(handler);
+        proxy.setProxyDelegate(serviceDetails.getActualInstance());
+    }
 }
@@ -0,0 +1,63 @@
+package com.cyecize.ioc.utils;
+
+import com.cyecize.ioc.enums.ServiceIndexEntryType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads and writes the service index.
+ * <p>
+ * The index is a text file with one entry per line in the format '{@link ServiceIndexEntryType} binaryClassName'.
+ * Empty lines and lines starting with '#' are ignored.
+ */
+public final class ServiceIndexUtils {
+
+    private static final String COMMENT_PREFIX = "#";
+
+    private static final String HEADER = "# Generated by MagicInjector ServiceIndexProcessor, do not edit.";
+
+    /**
+     * @param reader   - index content.
+     * @param consumer - called for every entry.
+     * @throws IllegalArgumentException - if an entry is malformed.
+     */
+    public static void parse(BufferedReader reader,
+                             BiConsumer<ServiceIndexEntryType, String> consumer) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+
+            final int separatorIndex = line.indexOf(' ');
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException(String.format("Invalid service index entry '%s'.", line));
+            }
+
+            consumer.accept(
+                    ServiceIndexEntryType.valueOf(line.substring(0, separatorIndex)),
+                    line.substring(separatorIndex + 1).trim()
+            );
+        }
+    }
+
+    public static void write(Writer writer, Map<String, Set<ServiceIndexEntryType>> entries) throws IOException {
+        writer.write(HEADER);
+        writer.write(System.lineSeparator());
+
+        for (Map.Entry<String, Set<ServiceIndexEntryType>> entry : entries.entrySet()) {
+            for (ServiceIndexEntryType entryType : entry.getValue()) {
+                writer.write(entryType.name());
+                writer.write(' ');
+                writer.write(entry.getKey());
+                writer.write(System.lineSeparator());
+            }
+        }
+    }
+}
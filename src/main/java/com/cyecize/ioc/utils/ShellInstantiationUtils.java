@@ -0,0 +1,97 @@
+package com.cyecize.ioc.utils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * Creates instances of a class without running its constructors, only the constructor of {@link Object} runs.
+ * <p>
+ * This is the only place that depends on the JDK internal sun.reflect.ReflectionFactory (module jdk.unsupported).
+ * It is loaded reflectively, if it is missing {@link #newShellInstance(Class)} returns null
+ * and the caller has to fall back to a regular constructor.
+ */
+public final class ShellInstantiationUtils {
+
+    private static final String REFLECTION_FACTORY_CLASS_NAME = "sun.reflect.ReflectionFactory";
+
+    private static final Object REFLECTION_FACTORY;
+
+    private static final Method NEW_CONSTRUCTOR_FOR_SERIALIZATION;
+
+    static {
+        Object reflectionFactory = null;
+        Method newConstructorForSerialization = null;
+        try {
+            final Class<?> factoryClass = Class.forName(REFLECTION_FACTORY_CLASS_NAME);
+            reflectionFactory = factoryClass.getMethod("getReflectionFactory").invoke(null);
+            newConstructorForSerialization = factoryClass.getMethod(
+                    "newConstructorForSerialization", Class.class, Constructor.class
+            );
+        } catch (ReflectiveOperationException e) {
+            reflectionFactory = null;
+            newConstructorForSerialization = null;
+        }
+
+        REFLECTION_FACTORY = reflectionFactory;
+        NEW_CONSTRUCTOR_FOR_SERIALIZATION = newConstructorForSerialization;
+    }
+
+    /**
+     * Constructors that only call the constructor of {@link Object},
+     * empty if the JVM does not support that for the class.
+     */
+    private static final ClassValue<Optional<Constructor<?>>> SHELL_CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected Optional<Constructor<?>> computeValue(Class<?> cls) {
+            return Optional.ofNullable(createShellConstructor(cls));
+        }
+    };
+
+    private ShellInstantiationUtils() {
+
+    }
+
+    /**
+     * @return true if the JVM provides the means to create instances without a constructor,
+     * creating one may still fail for a specific class.
+     */
+    public static boolean isSupported() {
+        return NEW_CONSTRUCTOR_FOR_SERIALIZATION != null;
+    }
+
+    /**
+     * @return new instance whose fields are all left with their default values
+     * or null if the JVM does not support creating one.
+     */
+    public static Object newShellInstance(Class<?> cls)
+            throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        final Constructor<?> shellConstructor = SHELL_CONSTRUCTORS.get(cls).orElse(null);
+        if (shellConstructor == null) {
+            return null;
+        }
+
+        return shellConstructor.newInstance();
+    }
+
+    private static Constructor<?> createShellConstructor(Class<?> cls) {
+        if (NEW_CONSTRUCTOR_FOR_SERIALIZATION == null) {
+            return null;
+        }
+
+        try {
+            final Constructor<?> constructor = (Constructor<?>) NEW_CONSTRUCTOR_FOR_SERIALIZATION.invoke(
+                    REFLECTION_FACTORY, cls, Object.class.getDeclaredConstructor()
+            );
+
+            if (constructor != null) {
+                constructor.setAccessible(true);
+            }
+
+            return constructor;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.cyecize.ioc;
+
+import com.cyecize.ioc.config.MagicConfiguration;
+import com.cyecize.ioc.services.DependencyContainer;
+
+import java.io.File;
+import java.net.URISyntaxException;
+
+/**
+ * Runs containers over the compiled test classes of a single fixture package.
+ */
+public final class TestContainers {
+
+    private TestContainers() {
+
+    }
+
+    public static DependencyContainer run(String fixturePackage) {
+        return run(fixturePackage, new MagicConfiguration());
+    }
+
+    public static DependencyContainer run(String fixturePackage, MagicConfiguration configuration) {
+        configuration.scanning().addIncludedPackage(fixturePackage);
+        return MagicInjector.run(new File[]{getTestClassesDirectory()}, configuration);
+    }
+
+    public static File getTestClassesDirectory() {
+        try {
+            return new File(TestContainers.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
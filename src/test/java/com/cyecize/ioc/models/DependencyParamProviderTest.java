@@ -0,0 +1,31 @@
+package com.cyecize.ioc.models;
+
+import com.cyecize.ioc.TestContainers;
+import com.cyecize.ioc.exceptions.ServiceInstantiationException;
+import com.cyecize.ioc.models.fixtures.providers.Car;
+import com.cyecize.ioc.models.fixtures.rawprovider.RawProviderService;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DependencyParamProviderTest {
+
+    @Test
+    public void wildcardTypeArgumentIsResolvedToItsUpperBound() {
+        final Car car = TestContainers.run("com.cyecize.ioc.models.fixtures.providers").getService(Car.class);
+
+        assertEquals("petrol|petrol", car.start());
+    }
+
+    @Test
+    public void rawProviderIsRejected() {
+        final ServiceInstantiationException ex = assertThrows(
+                ServiceInstantiationException.class,
+                () -> TestContainers.run("com.cyecize.ioc.models.fixtures.rawprovider")
+        );
+
+        assertTrue(ex.getMessage().contains(RawProviderService.class.getName()), ex.getMessage());
+    }
+}
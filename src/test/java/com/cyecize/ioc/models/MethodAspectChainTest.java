@@ -0,0 +1,90 @@
+package com.cyecize.ioc.models;
+
+import com.cyecize.ioc.TestContainers;
+import com.cyecize.ioc.models.fixtures.aspects.Calculator;
+import com.cyecize.ioc.models.fixtures.aspects.Greeter;
+import com.cyecize.ioc.models.fixtures.aspects.TracingAspect;
+import com.cyecize.ioc.services.DependencyContainer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MethodAspectChainTest {
+
+    private static DependencyContainer container;
+
+    @BeforeAll
+    public static void runContainer() {
+        container = TestContainers.run("com.cyecize.ioc.models.fixtures.aspects");
+    }
+
+    @Test
+    public void handlersWrapTheMethodWithItsArguments() {
+        final Calculator calculator = container.getService(Calculator.class);
+
+        assertEquals("add(3)", calculator.add(1, 2L));
+        assertEquals("greeter(hello x)", container.getService(Greeter.class).greet("x"));
+    }
+
+    @Test
+    public void handlerCanProceedAgainAfterTheMethodThrows() {
+        assertEquals(2, container.getService(Calculator.class).flaky());
+    }
+
+    @Test
+    public void exceptionOfTheMethodIsRethrownUnwrapped() {
+        final UnsupportedOperationException ex = assertThrows(
+                UnsupportedOperationException.class, () -> container.getService(Calculator.class).fail()
+        );
+
+        assertEquals("failed", ex.getMessage());
+    }
+
+    @Test
+    public void nestedAdvisedCallKeepsTheArgumentsOfTheOuterCall() {
+        assertEquals("greeter(hello inner)|outer", container.getService(Calculator.class).echo("outer"));
+    }
+
+    @Test
+    public void prototypeHandlersAreNotCreatedPerCall() {
+        final Calculator calculator = container.getService(Calculator.class);
+        calculator.add(1, 1L);
+
+        final int instances = TracingAspect.INSTANCES.get();
+        for (int i = 0; i < 100; i++) {
+            calculator.add(i, i);
+        }
+
+        assertEquals(instances, TracingAspect.INSTANCES.get());
+    }
+
+    @Test
+    public void pooledHandlersAreBorrowedPerCall() throws Exception {
+        final Calculator calculator = container.getService(Calculator.class);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    for (long value = 0; value < 10_000; value++) {
+                        assertEquals(value * 2, calculator.twice(value));
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.cyecize.ioc.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ServicePoolTest {
+
+    private final AtomicInteger createdCount = new AtomicInteger();
+
+    private final Set<Object> destroyedInstances = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger destroyCalls = new AtomicInteger();
+
+    @Test
+    public void releasedInstanceIsBorrowedAgain() {
+        final ServicePool<Object> pool = this.createPool(2, 0);
+
+        final PooledInstance<Object> first = pool.borrow();
+        final Object instance = first.get();
+        first.close();
+        first.close();
+
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(2, pool.getAvailablePermits());
+        assertSame(instance, pool.borrow().get());
+    }
+
+    @Test
+    public void borrowTimesOutWhenAllInstancesAreInUse() {
+        final ServicePool<Object> pool = this.createPool(1, 0);
+        pool.borrow();
+
+        assertNull(pool.borrow(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void instancesBorrowedWhenClosedAreDestroyedOnRelease() {
+        final ServicePool<Object> pool = this.createPool(2, 0);
+        final PooledInstance<Object> idle = pool.borrow();
+        final PooledInstance<Object> borrowed = pool.borrow();
+        idle.close();
+
+        pool.close();
+
+        assertTrue(this.destroyedInstances.contains(idle.get()));
+        assertFalse(this.destroyedInstances.contains(borrowed.get()));
+
+        borrowed.close();
+
+        assertTrue(this.destroyedInstances.contains(borrowed.get()));
+        assertEquals(0, pool.getIdleCount());
+        assertThrows(IllegalStateException.class, pool::borrow);
+    }
+
+    @Test
+    public void closeDestroysEveryInstanceAndRethrowsTheFirstFailure() {
+        final AtomicInteger destroyAttempts = new AtomicInteger();
+        final ServicePool<Object> pool = new ServicePool<>(3, 0, Object::new, null, instance -> {
+            throw new IllegalStateException("destroy " + destroyAttempts.incrementAndGet());
+        });
+
+        final List<PooledInstance<Object>> instances = List.of(pool.borrow(), pool.borrow(), pool.borrow());
+        instances.forEach(PooledInstance::close);
+
+        final IllegalStateException ex = assertThrows(IllegalStateException.class, pool::close);
+
+        assertEquals(3, destroyAttempts.get());
+        assertEquals("destroy 1", ex.getMessage());
+        assertEquals(2, ex.getSuppressed().length);
+    }
+
+    @Test
+    public void idleInstancesAreEvictedWhenThePoolIsUsed() throws InterruptedException {
+        final ServicePool<Object> pool = this.createPool(2, 1);
+        final PooledInstance<Object> first = pool.borrow();
+        final Object instance = first.get();
+        first.close();
+
+        Thread.sleep(20);
+
+        //Nothing is evicted while the pool is not used.
+        assertEquals(1, pool.getIdleCount());
+
+        final Object borrowed = pool.borrow().get();
+
+        assertNotSame(instance, borrowed);
+        assertTrue(this.destroyedInstances.contains(instance));
+    }
+
+    @Test
+    public void invalidInstancesAreDestroyed() {
+        final ServicePool<Object> pool = new ServicePool<>(1, 0, this::createInstance, instance -> false, this::destroy);
+        final PooledInstance<Object> first = pool.borrow();
+        first.close();
+
+        pool.borrow();
+
+        assertTrue(this.destroyedInstances.contains(first.get()));
+        assertEquals(2, this.createdCount.get());
+    }
+
+    @Test
+    public void closingWhileInUseDestroysEveryInstanceOnce() throws Exception {
+        final int maxSize = 4;
+        final ServicePool<Object> pool = this.createPool(maxSize, 0);
+        final AtomicInteger inUse = new AtomicInteger();
+        final AtomicInteger maxInUse = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(maxSize * 2);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(maxSize * 2);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < maxSize * 2; i++) {
+                futures.add(executor.submit(() -> {
+                    started.countDown();
+                    while (true) {
+                        final PooledInstance<Object> pooledInstance;
+                        try {
+                            pooledInstance = pool.borrow();
+                        } catch (IllegalStateException e) {
+                            return;
+                        }
+
+                        try (pooledInstance) {
+                            maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                            assertFalse(this.destroyedInstances.contains(pooledInstance.get()));
+                            inUse.decrementAndGet();
+                        }
+                    }
+                }));
+            }
+
+            started.await();
+            Thread.sleep(50);
+            pool.close();
+
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(maxInUse.get() <= maxSize);
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(maxSize, pool.getAvailablePermits());
+        assertEquals(this.createdCount.get(), this.destroyedInstances.size());
+        assertEquals(this.createdCount.get(), this.destroyCalls.get());
+    }
+
+    private ServicePool<Object> createPool(int maxSize, long maxIdleMillis) {
+        return new ServicePool<>(maxSize, maxIdleMillis, this::createInstance, null, this::destroy);
+    }
+
+    private Object createInstance() {
+        this.createdCount.incrementAndGet();
+        return new Object();
+    }
+
+    private void destroy(Object instance) {
+        this.destroyCalls.incrementAndGet();
+        this.destroyedInstances.add(instance);
+    }
+}
@@ -0,0 +1,39 @@
+package com.cyecize.ioc.models.fixtures.aspects;
+
+import com.cyecize.ioc.annotations.Service;
+
+@Service
+public class Calculator {
+
+    private int attempts;
+
+    @Traced("add")
+    public String add(int a, long b) {
+        return String.valueOf(a + b);
+    }
+
+    @Retried
+    public int flaky() {
+        this.attempts++;
+        if (this.attempts == 1) {
+            throw new IllegalStateException("first attempt");
+        }
+
+        return this.attempts;
+    }
+
+    @Traced("fail")
+    public void fail() {
+        throw new UnsupportedOperationException("failed");
+    }
+
+    @Greeted
+    public String echo(String value) {
+        return value;
+    }
+
+    @Pooled
+    public long twice(long value) {
+        return value * 2;
+    }
+}
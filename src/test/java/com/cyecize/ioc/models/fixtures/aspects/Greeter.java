@@ -0,0 +1,12 @@
+package com.cyecize.ioc.models.fixtures.aspects;
+
+import com.cyecize.ioc.annotations.Service;
+
+@Service
+public class Greeter {
+
+    @Traced("greeter")
+    public String greet(String name) {
+        return "hello " + name;
+    }
+}
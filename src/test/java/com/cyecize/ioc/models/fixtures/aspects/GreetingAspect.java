@@ -0,0 +1,26 @@
+package com.cyecize.ioc.models.fixtures.aspects;
+
+import com.cyecize.ioc.annotations.Service;
+import com.cyecize.ioc.handlers.MethodInvocationChain;
+import com.cyecize.ioc.handlers.ServiceMethodAspectHandler;
+
+import java.lang.reflect.Method;
+
+/**
+ * Calls another advised service before proceeding.
+ */
+@Service
+public class GreetingAspect implements ServiceMethodAspectHandler<Greeted> {
+
+    private final Greeter greeter;
+
+    public GreetingAspect(Greeter greeter) {
+        this.greeter = greeter;
+    }
+
+    @Override
+    public Object proceed(Greeted annotation, Method method, Object[] params, MethodInvocationChain invocationChain)
+            throws Exception {
+        return this.greeter.greet("inner") + "|" + invocationChain.proceed();
+    }
+}
@@ -0,0 +1,31 @@
+package com.cyecize.ioc.models.fixtures.aspects;
+
+import com.cyecize.ioc.annotations.Scope;
+import com.cyecize.ioc.annotations.Service;
+import com.cyecize.ioc.enums.ScopeType;
+import com.cyecize.ioc.handlers.MethodInvocationChain;
+import com.cyecize.ioc.handlers.ServiceMethodAspectHandler;
+
+import java.lang.reflect.Method;
+
+@Service
+@Scope(ScopeType.POOLED)
+public class PooledAspect implements ServiceMethodAspectHandler<Pooled> {
+
+    private boolean borrowed;
+
+    @Override
+    public Object proceed(Pooled annotation, Method method, Object[] params, MethodInvocationChain invocationChain)
+            throws Exception {
+        if (this.borrowed) {
+            throw new IllegalStateException("Pooled handler used by two calls at once.");
+        }
+
+        this.borrowed = true;
+        try {
+            return invocationChain.proceed();
+        } finally {
+            this.borrowed = false;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.cyecize.ioc.models.fixtures.aspects;
+
+import com.cyecize.ioc.annotations.Service;
+import com.cyecize.ioc.handlers.MethodInvocationChain;
+import com.cyecize.ioc.handlers.ServiceMethodAspectHandler;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+@Service
+public class RetryAspect implements ServiceMethodAspectHandler<Retried> {
+
+    @Override
+    public Object proceed(Retried annotation, Method method, Object[] params, MethodInvocationChain invocationChain)
+            throws Exception {
+        try {
+            return invocationChain.proceed();
+        } catch (InvocationTargetException e) {
+            return invocationChain.proceed();
+        }
+    }
+}
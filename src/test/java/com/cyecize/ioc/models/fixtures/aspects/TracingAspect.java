@@ -0,0 +1,27 @@
+package com.cyecize.ioc.models.fixtures.aspects;
+
+import com.cyecize.ioc.annotations.Scope;
+import com.cyecize.ioc.annotations.Service;
+import com.cyecize.ioc.enums.ScopeType;
+import com.cyecize.ioc.handlers.MethodInvocationChain;
+import com.cyecize.ioc.handlers.ServiceMethodAspectHandler;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@Scope(ScopeType.PROTOTYPE)
+public class TracingAspect implements ServiceMethodAspectHandler<Traced> {
+
+    public static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    public TracingAspect() {
+        INSTANCES.incrementAndGet();
+    }
+
+    @Override
+    public Object proceed(Traced annotation, Method method, Object[] params, MethodInvocationChain invocationChain)
+            throws Exception {
+        return annotation.value() + "(" + invocationChain.proceed() + ")";
+    }
+}
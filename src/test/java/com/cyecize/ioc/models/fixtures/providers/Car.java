@@ -0,0 +1,22 @@
+package com.cyecize.ioc.models.fixtures.providers;
+
+import com.cyecize.ioc.annotations.Service;
+import com.cyecize.ioc.models.Lazy;
+import com.cyecize.ioc.models.Provider;
+
+@Service
+public class Car {
+
+    private final Provider<? extends Engine> engineProvider;
+
+    private final Lazy<? extends Engine> lazyEngine;
+
+    public Car(Provider<? extends Engine> engineProvider, Lazy<? extends Engine> lazyEngine) {
+        this.engineProvider = engineProvider;
+        this.lazyEngine = lazyEngine;
+    }
+
+    public String start() {
+        return this.engineProvider.get().start() + "|" + this.lazyEngine.get().start();
+    }
+}
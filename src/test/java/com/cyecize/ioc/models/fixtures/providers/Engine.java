@@ -0,0 +1,5 @@
+package com.cyecize.ioc.models.fixtures.providers;
+
+public interface Engine {
+    String start();
+}
@@ -0,0 +1,12 @@
+package com.cyecize.ioc.models.fixtures.providers;
+
+import com.cyecize.ioc.annotations.Service;
+
+@Service
+public class PetrolEngine implements Engine {
+
+    @Override
+    public String start() {
+        return "petrol";
+    }
+}
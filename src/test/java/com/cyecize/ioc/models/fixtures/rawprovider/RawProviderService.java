@@ -0,0 +1,13 @@
+package com.cyecize.ioc.models.fixtures.rawprovider;
+
+import com.cyecize.ioc.annotations.Service;
+import com.cyecize.ioc.models.Provider;
+
+@Service
+public class RawProviderService {
+
+    @SuppressWarnings("rawtypes")
+    public RawProviderService(Provider provider) {
+
+    }
+}
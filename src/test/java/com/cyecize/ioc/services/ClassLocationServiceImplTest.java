@@ -0,0 +1,45 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.TestContainers;
+import com.cyecize.ioc.config.MagicConfiguration;
+import com.cyecize.ioc.config.configurations.ScanningConfiguration;
+import com.cyecize.ioc.services.fixtures.reload.GreetingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClassLocationServiceImplTest {
+
+    @TempDir
+    Path duplicateRoot;
+
+    @Test
+    public void duplicatesAreReportedAndLocatedOnce() throws Exception {
+        final String classFileName = GreetingService.class.getName().replace('.', '/') + ".class";
+        final Path classFile = this.duplicateRoot.resolve(classFileName);
+        Files.createDirectories(classFile.getParent());
+        Files.copy(TestContainers.getTestClassesDirectory().toPath().resolve(classFileName), classFile);
+
+        final List<String> duplicates = new ArrayList<>();
+        final ScanningConfiguration configuration = new MagicConfiguration().scanning()
+                .addIncludedPackage(GreetingService.class.getPackageName())
+                .addDuplicateClassLocatedCallback((className, firstRoot, duplicateRoot) -> duplicates.add(className))
+                .setParallelism(2);
+
+        final Set<Class<?>> locatedClasses = new ClassLocationServiceImpl(configuration).locateClasses(new File[]{
+                TestContainers.getTestClassesDirectory(), this.duplicateRoot.toFile()
+        });
+
+        assertEquals(List.of(GreetingService.class.getName()), duplicates);
+        assertTrue(locatedClasses.contains(GreetingService.class));
+    }
+}
@@ -0,0 +1,120 @@
+package com.cyecize.ioc.services;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+public class ClassLocatorForJarFileTest {
+
+    private static final String APP_CLASS = "com.example.app.Application";
+
+    private static final String LIB_CLASS = "com.example.lib.Library";
+
+    private static final String VERSIONED_CLASS = "com.example.lib.Versioned";
+
+    private static final String VERSIONED_ONLY_CLASS = "com.example.lib.VersionedOnly";
+
+    private static final int RUNTIME_VERSION = Runtime.version().feature();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void classesOfNestedJarsAreLoadedFromTheJar() throws Exception {
+        final Map<String, Class<?>> classes = this.locateClasses();
+
+        assertEquals(Set.of(APP_CLASS, LIB_CLASS, VERSIONED_CLASS, VERSIONED_ONLY_CLASS), classes.keySet());
+        for (Class<?> cls : classes.values()) {
+            assertInstanceOf(NestedJarClassLoader.class, cls.getClassLoader());
+        }
+    }
+
+    @Test
+    public void highestVersionSupportedByTheRuntimeIsUsed() throws Exception {
+        final Map<String, Class<?>> classes = this.locateClasses();
+
+        assertEquals("11", this.describe(classes.get(VERSIONED_CLASS)));
+        assertEquals("9", this.describe(classes.get(VERSIONED_ONLY_CLASS)));
+    }
+
+    private Map<String, Class<?>> locateClasses() throws Exception {
+        final Map<String, byte[]> libEntries = new LinkedHashMap<>();
+        libEntries.put("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\r\nMulti-Release: true\r\n\r\n"
+                .getBytes(StandardCharsets.UTF_8));
+        libEntries.put(toEntryName("", LIB_CLASS), createClass(LIB_CLASS, "lib"));
+        libEntries.put(toEntryName("", VERSIONED_CLASS), createClass(VERSIONED_CLASS, "base"));
+        libEntries.put(toEntryName("META-INF/versions/" + (RUNTIME_VERSION + 1) + "/", VERSIONED_CLASS),
+                createClass(VERSIONED_CLASS, "unsupported"));
+        libEntries.put(toEntryName("META-INF/versions/11/", VERSIONED_CLASS), createClass(VERSIONED_CLASS, "11"));
+        libEntries.put(toEntryName("META-INF/versions/9/", VERSIONED_CLASS), createClass(VERSIONED_CLASS, "9"));
+        libEntries.put(toEntryName("META-INF/versions/9/", VERSIONED_ONLY_CLASS),
+                createClass(VERSIONED_ONLY_CLASS, "9"));
+
+        final Map<String, byte[]> appEntries = new LinkedHashMap<>();
+        appEntries.put(toEntryName("BOOT-INF/classes/", APP_CLASS), createClass(APP_CLASS, "app"));
+        appEntries.put("BOOT-INF/lib/lib.jar", createJar(libEntries));
+
+        final Path appJar = Files.write(this.directory.resolve("app.jar"), createJar(appEntries));
+
+        //The classes are not visible to the context class loader, only to the loader of the nested jars.
+        final Thread thread = Thread.currentThread();
+        final ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(ClassLoader.getPlatformClassLoader());
+        try {
+            return new ClassLocatorForJarFile(null, 2, true)
+                    .locateClasses(appJar.toString())
+                    .stream()
+                    .collect(Collectors.toMap(Class::getName, Function.identity()));
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    private String describe(Class<?> cls) throws Exception {
+        return cls.getConstructor().newInstance().toString();
+    }
+
+    private static String toEntryName(String prefix, String className) {
+        return prefix + className.replace('.', '/') + ".class";
+    }
+
+    private static byte[] createClass(String className, String description) throws Exception {
+        final CtClass ctClass = new ClassPool(true).makeClass(className);
+        ctClass.addMethod(CtNewMethod.make(
+                "public String toString() { return \"" + description + "\"; }", ctClass
+        ));
+
+        return ctClass.toBytecode();
+    }
+
+    private static byte[] createJar(Map<String, byte[]> entries) throws IOException {
+        final ByteArrayOutputStream jar = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(jar)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue());
+                zip.closeEntry();
+            }
+        }
+
+        return jar.toByteArray();
+    }
+}
@@ -0,0 +1,62 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.constants.Constants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClassLocatorForServiceIndexTest {
+
+    private static final String SERVICE_ANNOTATION = "com.example.Component";
+
+    private static final String BEAN_ANNOTATION = "com.example.Factory";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void indexIsUsedWhenItCoversTheCustomAnnotations() throws Exception {
+        this.writeIndex("SERVICE_ANNOTATION " + SERVICE_ANNOTATION, "BEAN_ANNOTATION " + BEAN_ANNOTATION);
+        final ClassLocatorForServiceIndex locator = new ClassLocatorForServiceIndex();
+
+        assertTrue(locator.hasServiceIndex(this.directory.toString()));
+        assertTrue(locator.hasServiceIndex(
+                this.directory.toString(), Set.of(SERVICE_ANNOTATION), Set.of(BEAN_ANNOTATION)
+        ));
+    }
+
+    @Test
+    public void indexIsNotUsedWhenACustomAnnotationIsMissing() throws Exception {
+        this.writeIndex("SERVICE_ANNOTATION " + SERVICE_ANNOTATION);
+        final ClassLocatorForServiceIndex locator = new ClassLocatorForServiceIndex();
+
+        assertFalse(locator.hasServiceIndex(this.directory.toString(), Set.of(), Set.of(BEAN_ANNOTATION)));
+        assertFalse(locator.hasServiceIndex(this.directory.toString(), Set.of(BEAN_ANNOTATION), Set.of()));
+    }
+
+    @Test
+    public void annotationEntriesAreNotLoadedAsClasses() throws Exception {
+        this.writeIndex(
+                "SERVICE " + ClassLocatorForServiceIndexTest.class.getName(), "SERVICE_ANNOTATION " + SERVICE_ANNOTATION
+        );
+
+        assertEquals(
+                Set.of(ClassLocatorForServiceIndexTest.class),
+                new ClassLocatorForServiceIndex().locateClasses(this.directory.toString())
+        );
+    }
+
+    private void writeIndex(String... entries) throws Exception {
+        final Path index = this.directory.resolve(Constants.SERVICE_INDEX_LOCATION);
+        Files.createDirectories(index.getParent());
+        Files.write(index, String.join("\n", entries).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,135 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.MagicInjector;
+import com.cyecize.ioc.annotations.Service;
+import com.cyecize.ioc.config.MagicConfiguration;
+import com.cyecize.ioc.models.ServiceDetails;
+import com.cyecize.ioc.services.fixtures.reload.Greeting;
+import com.cyecize.ioc.services.fixtures.reload.GreetingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class DependencyContainerIncrementalTest {
+
+    private static final int RELOADS = 10;
+
+    private static final int READERS = 4;
+
+    private static final long RELOAD_TIMEOUT_MILLIS = 10_000;
+
+    @TempDir
+    Path classDirectory;
+
+    @Test
+    public void servicesCanBeReadWhileReloading() throws Exception {
+        final Path classFile = this.copyClassFile(GreetingService.class);
+
+        final AtomicBoolean reading = new AtomicBoolean(true);
+        final AtomicReference<Throwable> readerError = new AtomicReference<>();
+        final AtomicInteger reads = new AtomicInteger();
+        final List<Thread> readers = new ArrayList<>();
+
+        try (DependencyContainerIncremental container = MagicInjector.runIncremental(
+                new File[]{this.classDirectory.toFile()}, new MagicConfiguration()
+        )) {
+            final Class<?> initialType = container.getServiceDetails(Greeting.class).getServiceType();
+            assertNotSame(GreetingService.class, initialType);
+
+            for (int i = 0; i < READERS; i++) {
+                final Thread reader = new Thread(() -> {
+                    try {
+                        while (reading.get()) {
+                            readServices(container);
+                            reads.incrementAndGet();
+                        }
+                    } catch (Throwable t) {
+                        readerError.compareAndSet(null, t);
+                    }
+                });
+
+                reader.start();
+                readers.add(reader);
+            }
+
+            for (int i = 1; i <= RELOADS && readerError.get() == null; i++) {
+                Files.setLastModifiedTime(classFile, FileTime.fromMillis(Files.getLastModifiedTime(classFile).toMillis() + 1000));
+                assertEquals(1, awaitReload(container).size());
+            }
+
+            reading.set(false);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+
+            assertNull(readerError.get(), () -> "Reader failed with " + readerError.get());
+            assertTrue(reads.get() > 0);
+
+            final ServiceDetails serviceDetails = container.getServiceDetails(Greeting.class);
+            assertNotSame(initialType, serviceDetails.getServiceType());
+            assertEquals(container.getClassLoader(), serviceDetails.getServiceType().getClassLoader());
+        } finally {
+            reading.set(false);
+        }
+    }
+
+    private static void readServices(DependencyContainerIncremental container) {
+        final ServiceDetails serviceDetails = container.getServiceDetails(Greeting.class);
+        assertNotNull(serviceDetails);
+
+        //A service that was looked up right before a reload can be destroyed before it is used.
+        final Greeting greeting = container.getService(Greeting.class);
+        if (greeting != null) {
+            assertEquals("hello", greeting.greet());
+        }
+
+        assertEquals(1, container.getImplementations(Greeting.class).size());
+        assertEquals(1, container.getServicesByAnnotation(Service.class).size());
+        assertFalse(container.getAllScannedClasses().isEmpty());
+
+        for (ServiceDetails service : container.getAllServices()) {
+            assertNotNull(service.getServiceType());
+        }
+    }
+
+    private static Collection<ServiceDetails> awaitReload(DependencyContainerIncremental container) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + RELOAD_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            final Collection<ServiceDetails> createdServices = container.rescan();
+            if (!createdServices.isEmpty()) {
+                return createdServices;
+            }
+
+            Thread.sleep(10);
+        }
+
+        return fail("The class file change was not reported.");
+    }
+
+    private Path copyClassFile(Class<?> cls) throws Exception {
+        final String classFileName = cls.getName().replace('.', '/') + ".class";
+        final Path target = this.classDirectory.resolve(classFileName);
+        Files.createDirectories(target.getParent());
+        Files.copy(Path.of(cls.getProtectionDomain().getCodeSource().getLocation().toURI()).resolve(classFileName), target);
+
+        return target;
+    }
+}
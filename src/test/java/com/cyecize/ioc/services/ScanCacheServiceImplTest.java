@@ -0,0 +1,150 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.models.ClassFileMetadata;
+import com.cyecize.ioc.models.ScanCacheEntry;
+import com.cyecize.ioc.models.ScanCacheRoot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScanCacheServiceImplTest {
+
+    private static final String CLASS_NAME = "com.example.Cached";
+
+    private static final String SCOPE = "scope";
+
+    private static final FileTime JAR_TIME = FileTime.fromMillis(1_600_000_000_000L);
+
+    @TempDir
+    Path directory;
+
+    private File cacheFile;
+
+    private Path jarFile;
+
+    @BeforeEach
+    public void createJar() throws IOException {
+        this.cacheFile = this.directory.resolve("cache/scan.cache").toFile();
+        this.jarFile = this.directory.resolve("lib.jar");
+        this.writeJar("content-1");
+        this.cacheJar();
+    }
+
+    @Test
+    public void unchangedJarIsReused() {
+        final ScanCacheRoot root = new ScanCacheServiceImpl(this.cacheFile).getJarRoot(this.jarFile.toString(), SCOPE);
+
+        assertTrue(root.isUpToDate());
+        assertEquals(CLASS_NAME, root.getPreviousEntries().iterator().next().getClassName());
+    }
+
+    @Test
+    public void jarWithOtherModificationTimeIsScannedAgain() throws IOException {
+        Files.setLastModifiedTime(this.jarFile, FileTime.fromMillis(JAR_TIME.toMillis() + 1000));
+
+        this.assertJarChanged();
+    }
+
+    @Test
+    public void jarWithOtherSizeIsScannedAgain() throws IOException {
+        this.writeJar("content-12");
+
+        this.assertJarChanged();
+    }
+
+    @Test
+    public void jarWithOtherContentOfSameSizeAndTimeIsScannedAgain() throws IOException {
+        this.writeJar("content-2");
+
+        this.assertJarChanged();
+    }
+
+    @Test
+    public void jarScannedWithOtherScopeIsScannedAgain() {
+        final ScanCacheRoot root = new ScanCacheServiceImpl(this.cacheFile).getJarRoot(this.jarFile.toString(), "other");
+
+        assertFalse(root.isUpToDate());
+    }
+
+    @Test
+    public void directoryEntriesAreValidatedPerClassFile() {
+        final String classDirectory = this.directory.toString();
+        final ScanCacheService scanCacheService = new ScanCacheServiceImpl(this.cacheFile);
+        scanCacheService.getDirectoryRoot(classDirectory).putEntry(createEntry(10, 20));
+        scanCacheService.save();
+
+        final ScanCacheRoot root = new ScanCacheServiceImpl(this.cacheFile).getDirectoryRoot(classDirectory);
+
+        assertNotNull(root.getMetadata(CLASS_NAME, 10, 20));
+        assertNull(root.getMetadata(CLASS_NAME, 11, 20));
+        assertNull(root.getMetadata(CLASS_NAME, 10, 21));
+    }
+
+    @Test
+    public void cacheFileCanBeReplacedWhileLoaded() throws IOException {
+        final ScanCacheService loaded = new ScanCacheServiceImpl(this.cacheFile);
+        this.writeJar("content-2");
+
+        loaded.getJarRoot(this.jarFile.toString(), SCOPE).putEntry(createEntry(1, 1));
+        loaded.save();
+
+        assertTrue(new ScanCacheServiceImpl(this.cacheFile).getJarRoot(this.jarFile.toString(), SCOPE).isUpToDate());
+    }
+
+    @Test
+    public void saveFailuresAreReported() throws IOException {
+        final Path blockingFile = Files.createFile(this.directory.resolve("not-a-directory"));
+        final File unwritableCacheFile = blockingFile.resolve("scan.cache").toFile();
+        final List<IOException> failures = new ArrayList<>();
+
+        final ScanCacheService scanCacheService = new ScanCacheServiceImpl(
+                unwritableCacheFile, List.of((file, exception) -> failures.add(exception))
+        );
+        scanCacheService.getJarRoot(this.jarFile.toString(), SCOPE);
+        scanCacheService.save();
+
+        assertEquals(1, failures.size());
+    }
+
+    private void assertJarChanged() {
+        final ScanCacheRoot root = new ScanCacheServiceImpl(this.cacheFile).getJarRoot(this.jarFile.toString(), SCOPE);
+
+        assertFalse(root.isUpToDate());
+        assertTrue(root.getPreviousEntries().isEmpty());
+    }
+
+    private void cacheJar() {
+        final ScanCacheService scanCacheService = new ScanCacheServiceImpl(this.cacheFile);
+        final ScanCacheRoot root = scanCacheService.getJarRoot(this.jarFile.toString(), SCOPE);
+        assertFalse(root.isUpToDate());
+
+        root.putEntry(createEntry(1, 1));
+        scanCacheService.save();
+    }
+
+    private void writeJar(String content) throws IOException {
+        Files.write(this.jarFile, content.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(this.jarFile, JAR_TIME);
+    }
+
+    private static ScanCacheEntry createEntry(long lastModified, long size) {
+        return new ScanCacheEntry(CLASS_NAME, lastModified, size, new ClassFileMetadata(
+                CLASS_NAME, "java.lang.Object", 0x0001, List.of("com.cyecize.ioc.annotations.Service")
+        ));
+    }
+}
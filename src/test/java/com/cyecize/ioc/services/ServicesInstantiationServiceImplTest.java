@@ -0,0 +1,71 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.TestContainers;
+import com.cyecize.ioc.config.MagicConfiguration;
+import com.cyecize.ioc.services.fixtures.failing.Failure;
+import com.cyecize.ioc.services.fixtures.parallel.Supervisor;
+import com.cyecize.ioc.services.fixtures.parallel.Workers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ServicesInstantiationServiceImplTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void createExecutor() {
+        this.executor = Executors.newFixedThreadPool(Workers.COUNT);
+    }
+
+    @AfterEach
+    public void shutdownExecutor() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void independentServicesAreInstantiatedConcurrently() {
+        Workers.reset();
+
+        final DependencyContainer container = TestContainers.run(
+                "com.cyecize.ioc.services.fixtures.parallel", this.createConfiguration()
+        );
+
+        assertTrue(container.getService(Supervisor.class).isWorkersStartedTogether());
+    }
+
+    @Test
+    public void failureIsRethrownOnceRunningServicesFinish() {
+        Failure.reset();
+
+        final RuntimeException ex = assertThrows(RuntimeException.class, () -> TestContainers.run(
+                "com.cyecize.ioc.services.fixtures.failing", this.createConfiguration()
+        ));
+
+        assertTrue(hasCause(ex, Failure.MESSAGE), () -> "Unexpected exception " + ex);
+        assertTrue(Failure.isSlowServiceFinished());
+    }
+
+    private MagicConfiguration createConfiguration() {
+        final MagicConfiguration configuration = new MagicConfiguration();
+        configuration.instantiations().setExecutor(this.executor);
+
+        return configuration;
+    }
+
+    private static boolean hasCause(Throwable throwable, String message) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (message.equals(cause.getMessage())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,96 @@
+package com.cyecize.ioc.services;
+
+import com.cyecize.ioc.annotations.Service;
+import com.cyecize.ioc.config.MagicConfiguration;
+import com.cyecize.ioc.config.configurations.ScanningConfiguration;
+import com.cyecize.ioc.models.ServiceDetails;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.annotation.Annotation;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ServicesScanningServiceImplTest {
+
+    /**
+     * Enough services for the mapping to run in parallel.
+     */
+    private static final int SERVICES = 200;
+
+    private static Set<Class<?>> serviceClasses;
+
+    @BeforeAll
+    public static void generateServices() throws Exception {
+        final GeneratedClassLoader classLoader = new GeneratedClassLoader();
+        final ClassPool classPool = new ClassPool(true);
+
+        serviceClasses = new LinkedHashSet<>();
+        for (int i = 0; i < SERVICES; i++) {
+            final CtClass ctClass = classPool.makeClass("com.example.generated.Service" + i);
+            final ClassFile classFile = ctClass.getClassFile();
+            final AnnotationsAttribute annotations = new AnnotationsAttribute(
+                    classFile.getConstPool(), AnnotationsAttribute.visibleTag
+            );
+            annotations.addAnnotation(new Annotation(Service.class.getName(), classFile.getConstPool()));
+            classFile.addAttribute(annotations);
+
+            serviceClasses.add(classLoader.define(ctClass.getName(), ctClass.toBytecode()));
+        }
+    }
+
+    @Test
+    public void parallelMappingCreatesTheSameServicesInTheSameOrder() {
+        final List<Class<?>> sequential = this.mapServices(1);
+        final List<Class<?>> parallel = this.mapServices(4);
+
+        assertEquals(SERVICES, sequential.size());
+        assertEquals(sequential, parallel);
+    }
+
+    /**
+     * @return service types in the order in which the created callback was invoked.
+     */
+    private List<Class<?>> mapServices(int parallelism) {
+        final Thread callingThread = Thread.currentThread();
+        final List<Class<?>> createdServices = new ArrayList<>();
+
+        final ScanningConfiguration configuration = new MagicConfiguration().scanning()
+                .setParallelism(parallelism)
+                .addServiceDetailsCreatedCallback(serviceDetails -> {
+                    assertSame(callingThread, Thread.currentThread());
+                    createdServices.add(serviceDetails.getServiceType());
+                });
+
+        final Set<ServiceDetails> mappedServices = new ServicesScanningServiceImpl(configuration)
+                .mapServices(serviceClasses);
+
+        assertEquals(
+                serviceClasses,
+                mappedServices.stream().map(ServiceDetails::getServiceType).collect(Collectors.toSet())
+        );
+
+        return createdServices;
+    }
+
+    private static class GeneratedClassLoader extends ClassLoader {
+
+        private GeneratedClassLoader() {
+            super(ServicesScanningServiceImplTest.class.getClassLoader());
+        }
+
+        private Class<?> define(String name, byte[] classBytes) {
+            return super.defineClass(name, classBytes, 0, classBytes.length);
+        }
+    }
+}
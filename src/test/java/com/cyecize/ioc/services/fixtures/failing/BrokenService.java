@@ -0,0 +1,11 @@
+package com.cyecize.ioc.services.fixtures.failing;
+
+import com.cyecize.ioc.annotations.Service;
+
+@Service
+public class BrokenService {
+
+    public BrokenService() throws InterruptedException {
+        Failure.fail();
+    }
+}
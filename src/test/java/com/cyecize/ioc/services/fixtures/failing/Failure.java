@@ -0,0 +1,48 @@
+package com.cyecize.ioc.services.fixtures.failing;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes the failing service throw while the slow service is still being constructed.
+ */
+public final class Failure {
+
+    public static final String MESSAGE = "Broken service.";
+
+    private static volatile CountDownLatch slowServiceStarted = new CountDownLatch(1);
+
+    private static volatile CountDownLatch failed = new CountDownLatch(1);
+
+    private static volatile boolean slowServiceFinished;
+
+    private Failure() {
+
+    }
+
+    public static void reset() {
+        slowServiceStarted = new CountDownLatch(1);
+        failed = new CountDownLatch(1);
+        slowServiceFinished = false;
+    }
+
+    public static boolean isSlowServiceFinished() {
+        return slowServiceFinished;
+    }
+
+    static void runSlowService() throws InterruptedException {
+        slowServiceStarted.countDown();
+        failed.await(5, TimeUnit.SECONDS);
+
+        //Keeps running for a while after the failure.
+        Thread.sleep(200);
+        slowServiceFinished = true;
+    }
+
+    static void fail() throws InterruptedException {
+        slowServiceStarted.await(5, TimeUnit.SECONDS);
+        failed.countDown();
+
+        throw new IllegalStateException(MESSAGE);
+    }
+}
@@ -0,0 +1,11 @@
+package com.cyecize.ioc.services.fixtures.failing;
+
+import com.cyecize.ioc.annotations.Service;
+
+@Service
+public class SlowService {
+
+    public SlowService() throws InterruptedException {
+        Failure.runSlowService();
+    }
+}
@@ -0,0 +1,17 @@
+package com.cyecize.ioc.services.fixtures.parallel;
+
+import com.cyecize.ioc.annotations.Service;
+
+@Service
+public class FirstWorker {
+
+    private final boolean startedTogether;
+
+    public FirstWorker() {
+        this.startedTogether = Workers.awaitOtherWorkers();
+    }
+
+    public boolean isStartedTogether() {
+        return this.startedTogether;
+    }
+}
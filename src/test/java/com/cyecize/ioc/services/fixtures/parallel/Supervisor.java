@@ -0,0 +1,19 @@
+package com.cyecize.ioc.services.fixtures.parallel;
+
+import com.cyecize.ioc.annotations.Service;
+
+@Service
+public class Supervisor {
+
+    private final boolean workersStartedTogether;
+
+    public Supervisor(FirstWorker firstWorker, SecondWorker secondWorker, ThirdWorker thirdWorker) {
+        this.workersStartedTogether = firstWorker.isStartedTogether()
+                && secondWorker.isStartedTogether()
+                && thirdWorker.isStartedTogether();
+    }
+
+    public boolean isWorkersStartedTogether() {
+        return this.workersStartedTogether;
+    }
+}
@@ -0,0 +1,37 @@
+package com.cyecize.ioc.services.fixtures.parallel;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets the worker services check that they are constructed at the same time.
+ */
+public final class Workers {
+
+    public static final int COUNT = 3;
+
+    private static volatile CountDownLatch started = new CountDownLatch(COUNT);
+
+    private Workers() {
+
+    }
+
+    public static void reset() {
+        started = new CountDownLatch(COUNT);
+    }
+
+    /**
+     * @return true if every worker started before the timeout.
+     */
+    static boolean awaitOtherWorkers() {
+        final CountDownLatch started = Workers.started;
+        started.countDown();
+
+        try {
+            return started.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
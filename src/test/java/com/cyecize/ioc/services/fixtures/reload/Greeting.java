@@ -0,0 +1,5 @@
+package com.cyecize.ioc.services.fixtures.reload;
+
+public interface Greeting {
+    String greet();
+}
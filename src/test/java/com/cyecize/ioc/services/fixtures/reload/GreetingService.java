@@ -0,0 +1,12 @@
+package com.cyecize.ioc.services.fixtures.reload;
+
+import com.cyecize.ioc.annotations.Service;
+
+@Service
+public class GreetingService implements Greeting {
+
+    @Override
+    public String greet() {
+        return "hello";
+    }
+}
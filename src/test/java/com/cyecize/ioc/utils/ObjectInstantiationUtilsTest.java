@@ -0,0 +1,50 @@
+package com.cyecize.ioc.utils;
+
+import com.cyecize.ioc.TestContainers;
+import com.cyecize.ioc.exceptions.PreDestroyExecutionException;
+import com.cyecize.ioc.models.ServiceDetails;
+import com.cyecize.ioc.services.DependencyContainer;
+import com.cyecize.ioc.utils.fixtures.lifecycle.ClosingService;
+import com.cyecize.ioc.utils.fixtures.lifecycle.FailingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ObjectInstantiationUtilsTest {
+
+    private DependencyContainer container;
+
+    @BeforeEach
+    public void runContainer() {
+        this.container = TestContainers.run("com.cyecize.ioc.utils.fixtures.lifecycle");
+    }
+
+    @Test
+    public void destroyInstanceInvokesPrivatePreDestroyMethod() {
+        final ServiceDetails serviceDetails = this.container.getServiceDetails(ClosingService.class);
+        final ClosingService instance = (ClosingService) serviceDetails.getActualInstance();
+
+        ObjectInstantiationUtils.destroyInstance(serviceDetails);
+
+        assertEquals(1, instance.getCloseCount());
+        assertNull(serviceDetails.getActualInstance());
+    }
+
+    @Test
+    public void preDestroyFailureIsWrappedLikeReflection() {
+        final ServiceDetails serviceDetails = this.container.getServiceDetails(FailingService.class);
+
+        final PreDestroyExecutionException ex = assertThrows(
+                PreDestroyExecutionException.class, () -> ObjectInstantiationUtils.destroyInstance(serviceDetails)
+        );
+
+        assertInstanceOf(InvocationTargetException.class, ex.getCause());
+        assertEquals("close failed", ex.getCause().getCause().getMessage());
+    }
+}
@@ -0,0 +1,268 @@
+package com.cyecize.ioc.utils;
+
+import com.cyecize.ioc.models.GeneratedProxy;
+import javassist.util.proxy.MethodHandler;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every return and parameter kind is passed through generated proxies,
+ * both when the delegate is called directly and when the call goes through the handler.
+ */
+public class ProxyClassGeneratorTest {
+
+    @Test
+    public void interfaceProxyCallsDelegateDirectly() throws Exception {
+        final RecordingHandler handler = new RecordingHandler();
+        final Kinds proxy = createProxy(Kinds.class, null, Set.of(), handler);
+
+        assertRoundTrip(proxy);
+        assertTrue(handler.calledMethods.isEmpty());
+    }
+
+    @Test
+    public void interfaceProxyPassesAdvisedMethodsToHandler() throws Exception {
+        final RecordingHandler handler = new RecordingHandler();
+        final Kinds proxy = createProxy(Kinds.class, null, Set.of(Kinds.class.getMethods()), handler);
+
+        assertRoundTrip(proxy);
+        assertEquals(getMethodNames(Kinds.class.getMethods()), handler.calledMethods);
+    }
+
+    @Test
+    public void classProxyCallsDelegateDirectly() throws Exception {
+        final RecordingHandler handler = new RecordingHandler();
+        final KindsImpl proxy = createProxy(KindsImpl.class, KindsImpl.class.getDeclaredConstructor(), Set.of(), handler);
+
+        assertRoundTrip(proxy);
+        assertEquals("pkg:x", proxy.packagePrivate("x"));
+        assertTrue(handler.calledMethods.isEmpty());
+    }
+
+    @Test
+    public void classProxyPassesAdvisedMethodsToHandler() throws Exception {
+        final RecordingHandler handler = new RecordingHandler();
+        final KindsImpl proxy = createProxy(
+                KindsImpl.class,
+                KindsImpl.class.getDeclaredConstructor(),
+                Set.of(KindsImpl.class.getDeclaredMethods()),
+                handler
+        );
+
+        assertRoundTrip(proxy);
+        assertEquals("pkg:x", proxy.packagePrivate("x"));
+        assertEquals(getMethodNames(KindsImpl.class.getDeclaredMethods()), handler.calledMethods);
+    }
+
+    @Test
+    public void delegateCanBeReplaced() throws Exception {
+        final Kinds proxy = createProxy(Kinds.class, null, Set.of(), new RecordingHandler());
+        final KindsImpl other = new KindsImpl();
+        other.offset = 100;
+
+        ((GeneratedProxy) proxy).setProxyDelegate(other);
+
+        assertEquals(103, proxy.add(1, 2));
+    }
+
+    @Test
+    public void finalTypesAreNotGenerated() {
+        assertNull(ProxyClassGenerator.generateProxyClass(String.class, null, Set.of()));
+        assertNull(ProxyClassGenerator.generateProxyClass(List.class, null, Set.of()));
+    }
+
+    private static void assertRoundTrip(Kinds proxy) {
+        final int[] counter = new int[1];
+        proxy.run(counter);
+        assertEquals(1, counter[0]);
+
+        assertFalse(proxy.not(true));
+        assertEquals((byte) -128, proxy.incByte((byte) 127));
+        assertEquals('b', proxy.nextChar('a'));
+        assertEquals((short) 11, proxy.incShort((short) 10));
+        assertEquals(3, proxy.add(1, 2));
+        assertEquals(Long.MAX_VALUE, proxy.addLong(Long.MAX_VALUE - 1, 1L));
+        assertEquals(1.25f, proxy.half(2.5f));
+        assertEquals(1 + 2L + 0.5 + 0.25f, proxy.mix(1, 2L, 0.5, 0.25f, (byte) 0, 'x'));
+        assertEquals("a:1", proxy.concat("a", 1));
+        assertEquals("a:null", proxy.concat("a", null));
+        assertArrayEquals(new int[]{3, 2, 1}, proxy.reverse(new int[]{1, 2, 3}));
+        assertArrayEquals(new String[]{"a", "b"}, proxy.split("a,b"));
+
+        final Object value = new Object();
+        assertSame(value, proxy.identity(value));
+        assertNull(proxy.identity(null));
+
+        final IllegalStateException ex = assertThrows(IllegalStateException.class, () -> proxy.fail("boom"));
+        assertEquals("boom", ex.getMessage());
+    }
+
+    private static Set<String> getMethodNames(Method[] methods) {
+        return Arrays.stream(methods).map(Method::getName).collect(Collectors.toSet());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T createProxy(Class<T> proxiedType,
+                                     Constructor<?> constructor,
+                                     Set<Method> advisedMethods,
+                                     RecordingHandler handler) throws Exception {
+        final Class<?> proxyClass = ProxyClassGenerator.generateProxyClass(proxiedType, constructor, advisedMethods);
+        assertNotNull(proxyClass);
+        assertTrue(proxiedType.isAssignableFrom(proxyClass));
+
+        final KindsImpl delegate = new KindsImpl();
+        handler.delegate = delegate;
+
+        final GeneratedProxy proxy = (GeneratedProxy) proxyClass.getDeclaredConstructor().newInstance();
+        proxy.setProxyHandler(handler);
+        proxy.setProxyDelegate(delegate);
+
+        return (T) proxy;
+    }
+
+    public interface Kinds {
+        void run(int[] counter);
+
+        boolean not(boolean value);
+
+        byte incByte(byte value);
+
+        char nextChar(char value);
+
+        short incShort(short value);
+
+        int add(int a, int b);
+
+        long addLong(long a, long b);
+
+        float half(float value);
+
+        double mix(int a, long b, double c, float d, byte e, char f);
+
+        String concat(String a, Object b);
+
+        int[] reverse(int[] values);
+
+        String[] split(String value);
+
+        Object identity(Object value);
+
+        void fail(String message);
+    }
+
+    public static class KindsImpl implements Kinds {
+        int offset;
+
+        @Override
+        public void run(int[] counter) {
+            counter[0]++;
+        }
+
+        @Override
+        public boolean not(boolean value) {
+            return !value;
+        }
+
+        @Override
+        public byte incByte(byte value) {
+            return (byte) (value + 1);
+        }
+
+        @Override
+        public char nextChar(char value) {
+            return (char) (value + 1);
+        }
+
+        @Override
+        public short incShort(short value) {
+            return (short) (value + 1);
+        }
+
+        @Override
+        public int add(int a, int b) {
+            return a + b + this.offset;
+        }
+
+        @Override
+        public long addLong(long a, long b) {
+            return a + b;
+        }
+
+        @Override
+        public float half(float value) {
+            return value / 2;
+        }
+
+        @Override
+        public double mix(int a, long b, double c, float d, byte e, char f) {
+            return a + b + c + d + e + (f == 'x' ? 0 : 1);
+        }
+
+        @Override
+        public String concat(String a, Object b) {
+            return a + ":" + b;
+        }
+
+        @Override
+        public int[] reverse(int[] values) {
+            final int[] reversed = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+                reversed[i] = values[values.length - 1 - i];
+            }
+
+            return reversed;
+        }
+
+        @Override
+        public String[] split(String value) {
+            return value.split(",");
+        }
+
+        @Override
+        public Object identity(Object value) {
+            return value;
+        }
+
+        @Override
+        public void fail(String message) {
+            throw new IllegalStateException(message);
+        }
+
+        String packagePrivate(String value) {
+            return "pkg:" + value;
+        }
+    }
+
+    private static class RecordingHandler implements MethodHandler {
+        private final Set<String> calledMethods = ConcurrentHashMap.newKeySet();
+
+        private Object delegate;
+
+        @Override
+        public Object invoke(Object self, Method thisMethod, Method proceed, Object[] args) throws Throwable {
+            this.calledMethods.add(thisMethod.getName());
+            try {
+                return thisMethod.invoke(this.delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
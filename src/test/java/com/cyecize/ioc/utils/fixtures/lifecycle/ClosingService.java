@@ -0,0 +1,19 @@
+package com.cyecize.ioc.utils.fixtures.lifecycle;
+
+import com.cyecize.ioc.annotations.PreDestroy;
+import com.cyecize.ioc.annotations.Service;
+
+@Service
+public class ClosingService {
+
+    private int closeCount;
+
+    @PreDestroy
+    private void close() {
+        this.closeCount++;
+    }
+
+    public int getCloseCount() {
+        return this.closeCount;
+    }
+}
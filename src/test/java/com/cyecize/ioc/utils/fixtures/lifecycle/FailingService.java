@@ -0,0 +1,13 @@
+package com.cyecize.ioc.utils.fixtures.lifecycle;
+
+import com.cyecize.ioc.annotations.PreDestroy;
+import com.cyecize.ioc.annotations.Service;
+
+@Service
+public class FailingService {
+
+    @PreDestroy
+    public void close() {
+        throw new IllegalStateException("close failed");
+    }
+}